@@ -0,0 +1,63 @@
+package de.hsesslingen.focusflowbackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import de.hsesslingen.focusflowbackend.overload.BulkheadDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "focusflow.db-bulkhead.enabled", havingValue = "true")
+/**
+ * Puts the BulkheadDataSource in front of the connection pool (on in the virtual-threads profile).
+ * It admits as many threads as the pool has connections unless focusflow.db-bulkhead.max-concurrent says otherwise.
+ */
+public class DataSourceBulkheadConfig {
+
+    // Static: post-processors are created before the other beans of this configuration
+    @Bean
+    public static BeanPostProcessor dataSourceBulkhead(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                int maxConcurrent = environment.getProperty("focusflow.db-bulkhead.max-concurrent", Integer.class, 0);
+                if (maxConcurrent <= 0) {
+                    maxConcurrent = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                return new BulkheadDataSource(dataSource, maxConcurrent,
+                        environment.getProperty("focusflow.db-bulkhead.max-waiting", Integer.class, 1000),
+                        environment.getProperty("focusflow.db-bulkhead.max-wait", Duration.class, Duration.ofSeconds(5)));
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            BulkheadDataSource bulkhead;
+            try {
+                bulkhead = dataSource.unwrap(BulkheadDataSource.class);
+            } catch (SQLException e) {
+                return;
+            }
+            Gauge.builder("focusflow.db_bulkhead.waiting", bulkhead, BulkheadDataSource::getWaiting)
+                    .description("Threads waiting for a database connection permit").register(registry);
+            Gauge.builder("focusflow.db_bulkhead.available", bulkhead, BulkheadDataSource::getAvailablePermits)
+                    .description("Free database connection permits").register(registry);
+            FunctionCounter.builder("focusflow.db_bulkhead.rejected", bulkhead, BulkheadDataSource::getRejected)
+                    .description("Requests that got no database connection permit").register(registry);
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package de.hsesslingen.focusflowbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled background jobs (e.g. counter reconciliation) and @Async methods;
+// both run on virtual threads in the virtual-threads profile
+@Configuration
+@EnableScheduling
+@EnableAsync
+public class SchedulingConfig {
+}
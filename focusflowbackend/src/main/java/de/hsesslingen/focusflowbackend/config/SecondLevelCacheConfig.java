@@ -0,0 +1,74 @@
+package de.hsesslingen.focusflowbackend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+/**
+ * Hibernate second-level and query cache, backed by Caffeine through JCache.
+ * The regions are created here with size and time-to-live limits and handed to Hibernate,
+ * so the same caches can be bound to Micrometer (cache.gets hit/miss, cache.puts, cache.evictions, ...).
+ * Writes through JPA keep the caches current; paths that write with plain SQL evict explicitly.
+ */
+public class SecondLevelCacheConfig {
+
+    // Region names used by the @Cache annotations on the entities
+    public static final String USERS = "users";
+    public static final String TEAMS = "teams";
+    public static final String TEAM_MEMBERS = "team-members";
+    // Hibernate's default regions for cached query results and the per-table update timestamps
+    static final String QUERY_RESULTS = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${focusflow.cache.max-entries:10000}") long maxEntries,
+            @Value("${focusflow.cache.time-to-live:PT10M}") Duration timeToLive) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // The provider shares managers per URI; a URI of its own keeps every application context (tests start several) apart
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("focusflow:hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : List.of(USERS, TEAMS, TEAM_MEMBERS, QUERY_RESULTS)) {
+            cacheManager.createCache(region, configuration(OptionalLong.of(maxEntries), OptionalLong.of(timeToLive.toNanos())));
+        }
+        // Hibernate decides whether a cached query result is stale from these; they must never be evicted
+        cacheManager.createCache(UPDATE_TIMESTAMPS, configuration(OptionalLong.empty(), OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> hibernateCacheManager.getCacheNames().forEach(region ->
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region), "cacheManager", "hibernate"));
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(OptionalLong maximumSize, OptionalLong expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize);
+        configuration.setExpireAfterWrite(expireAfterWriteNanos);
+        // Statistics feed the Micrometer cache metrics
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -1,9 +1,13 @@
 package de.hsesslingen.focusflowbackend.config;
 
+import de.hsesslingen.focusflowbackend.security.SessionPrincipalArgumentResolver;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -14,6 +18,13 @@ public class WebConfig implements WebMvcConfigurer {
             .allowedOrigins("http://localhost:3000") // your frontend origin
             .allowedMethods("GET","POST","PUT","DELETE","OPTIONS")
             .allowedHeaders("*")
+            .exposedHeaders("X-Next-Cursor", "ETag")
             .allowCredentials(true);
     }
+
+    // Controllers declare a SessionPrincipal parameter to get the user of the request's session token
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new SessionPrincipalArgumentResolver());
+    }
 }
@@ -0,0 +1,82 @@
+package de.hsesslingen.focusflowbackend.controller;
+
+import de.hsesslingen.focusflowbackend.dto.CalendarDayCountDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.service.CalendarService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/tasks/calendar")
+@RequiredArgsConstructor
+/**
+ * CalendarController serves tasks by due date: a date-range view, per-day counts
+ * and an iCal feed per user for calendar clients.
+ */
+public class CalendarController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CalendarController.class);
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final CalendarService calendarService;
+
+    // GET: Tasks due in a date range for a user or a team
+    @GetMapping
+    public ResponseEntity<List<TaskViewDTO>> getTasksDue(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long teamId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(calendarService.getTasksDue(userId, teamId, from, to));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid calendar request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET: Number of tasks due per day in a date range for a user or a team
+    @GetMapping("/counts")
+    public ResponseEntity<List<CalendarDayCountDTO>> getDailyCounts(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long teamId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(calendarService.getDailyCounts(userId, teamId, from, to));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid calendar request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET: iCal feed of a user's open tasks; answers 304 if the client's ETag is still current
+    @GetMapping("/{userId}.ics")
+    public ResponseEntity<String> getFeed(@PathVariable Long userId) {
+        try {
+            CalendarService.CalendarFeed feed = calendarService.getFeed(userId);
+            return ResponseEntity.ok()
+                    .contentType(TEXT_CALENDAR)
+                    .eTag(feed.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(feed.body());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
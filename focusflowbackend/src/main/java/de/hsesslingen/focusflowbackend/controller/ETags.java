@@ -0,0 +1,39 @@
+package de.hsesslingen.focusflowbackend.controller;
+
+// Helper for the ETag based conditional requests of the controllers (RFC 9110, section 13.1)
+final class ETags {
+
+    private ETags() {
+    }
+
+    // Method: Strong ETag of a version number
+    static String ofVersion(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Method: If-None-Match uses the weak comparison: W/ prefixes are ignored
+    static boolean matchesIfNoneMatch(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Method: If-Match uses the strong comparison: weak ETags never match
+    static boolean matchesIfMatch(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
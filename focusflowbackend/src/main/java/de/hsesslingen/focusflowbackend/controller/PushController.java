@@ -0,0 +1,45 @@
+package de.hsesslingen.focusflowbackend.controller;
+
+import de.hsesslingen.focusflowbackend.push.PushService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/push")
+@RequiredArgsConstructor
+/**
+ * PushController opens Server-Sent Events streams that announce task and team changes,
+ * so clients no longer have to poll the task and team endpoints.
+ */
+public class PushController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PushController.class);
+
+    private final PushService pushService;
+
+    // GET: Subscribe to changes of a user's tasks and of the given teams (all teams of the user if none are given)
+    @GetMapping(path = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+            @RequestParam Long userId,
+            @RequestParam(required = false) List<Long> teamIds) {
+        try {
+            return ResponseEntity.ok(pushService.subscribe(userId, teamIds));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid push subscription: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
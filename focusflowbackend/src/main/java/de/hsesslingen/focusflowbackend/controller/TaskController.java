@@ -1,16 +1,32 @@
 package de.hsesslingen.focusflowbackend.controller;
 
+import de.hsesslingen.focusflowbackend.dto.TaskBulkUpdateRequestDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskChangesDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskCountsDTO;
 import de.hsesslingen.focusflowbackend.dto.TaskCreationRequestDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskFilterDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskPageDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskSearchHitDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
 import de.hsesslingen.focusflowbackend.model.User;
 import de.hsesslingen.focusflowbackend.model.tasks.Task;
 import de.hsesslingen.focusflowbackend.repository.TaskRepository;
 import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import de.hsesslingen.focusflowbackend.search.TaskSearchService;
+import de.hsesslingen.focusflowbackend.security.SessionPrincipal;
+import de.hsesslingen.focusflowbackend.service.TaskCounterService;
+import de.hsesslingen.focusflowbackend.service.TaskExportService;
 import de.hsesslingen.focusflowbackend.service.TaskService;
+import de.hsesslingen.focusflowbackend.sync.TaskSyncService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -20,12 +36,18 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import de.hsesslingen.focusflowbackend.dto.TaskUpdateRequestDTO;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -38,8 +60,13 @@ import java.util.NoSuchElementException;
 public class TaskController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TaskController.class);
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskSearchService taskSearchService;
+    private final TaskCounterService taskCounterService;
+    private final TaskSyncService taskSyncService;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
 
@@ -48,7 +75,7 @@ public class TaskController {
     public ResponseEntity<Map<String, Object>> createTask(@RequestBody TaskCreationRequestDTO requestDto) {
         Map<String, Object> responseBody = new HashMap<>();
         try {
-            User creator = userRepository.findByIdWithTeams(requestDto.getCreatorId())
+            User creator = userRepository.findById(requestDto.getCreatorId())
                     .orElseThrow(() -> new NoSuchElementException("Creator user not found with ID: " + requestDto.getCreatorId()));
 
             Task createdTask = taskService.createTask(requestDto, creator);
@@ -78,42 +105,210 @@ public class TaskController {
         }
     }
 
-    // GET: All tasks for a specific user
+    // POST: Create many tasks at once (e.g. from a migration script)
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> createTasks(@RequestBody List<TaskCreationRequestDTO> requestDtos) {
+        Map<String, Object> responseBody = new HashMap<>();
+        try {
+            List<Long> taskIds = taskService.createTasks(requestDtos);
+            responseBody.put("createdCount", taskIds.size());
+            responseBody.put("taskIds", taskIds);
+            responseBody.put("message", "Tasks created successfully");
+            return ResponseEntity.status(HttpStatus.CREATED).body(responseBody);
+
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Batch task creation failed (Bad Request): {}", e.getMessage());
+            responseBody.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+        } catch (NoSuchElementException e) {
+            LOGGER.warn("Batch task creation failed (Not Found): {}", e.getMessage());
+            responseBody.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseBody);
+        } catch (Exception e) {
+            LOGGER.error("Unexpected error during batch task creation: {}", e.getMessage(), e);
+            responseBody.put("error", "An unexpected server error occurred.");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(responseBody);
+        }
+    }
+
+    // GET: All tasks for a specific user (paged when "limit" is given); the session's own user needs no lookup
     @GetMapping("/user")
-    public ResponseEntity<List<Task>> getTasksForUser(@RequestParam Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
-        List<Task> tasks = taskService.getTasksForUser(user);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskViewDTO>> getTasksForUser(
+            Optional<SessionPrincipal> principal,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        Long assigneeId;
+        if (principal.isPresent() && (userId == null || userId.equals(principal.get().userId()))) {
+            assigneeId = principal.get().userId();
+        } else if (userId == null) {
+            return ResponseEntity.badRequest().build();
+        } else if (userRepository.existsById(userId)) {
+            assigneeId = userId;
+        } else {
+            throw new NoSuchElementException("User not found with ID: " + userId);
+        }
+        if (limit == null) {
+            return ResponseEntity.ok(taskService.getTasksForUser(assigneeId));
+        }
+        TaskFilterDTO filter = new TaskFilterDTO();
+        filter.setAssigneeId(assigneeId);
+        return pageAsList(taskService.listTasks(filter, after, limit));
     }
 
-    // GET: All tasks for all users
+    // GET: All tasks for all users (paged when "limit" is given)
     @GetMapping("/all")
-    public ResponseEntity<List<Task>> getAllTasks() {
-        List<Task> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskViewDTO>> getAllTasks(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (limit == null) {
+            return ResponseEntity.ok(taskService.getAllTasks());
+        }
+        return pageAsList(taskService.listTasks(null, after, limit));
+    }
+
+    // GET: Keyset-paginated, filterable task listing
+    @GetMapping("/page")
+    public ResponseEntity<TaskPageDTO> listTasks(
+            @ModelAttribute TaskFilterDTO filter,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(taskService.listTasks(filter, after, limit));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid task listing request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET: Full-text search over title and descriptions, optionally restricted to a team and/or an assignee
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskSearchHitDTO>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(required = false) Long teamId,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(taskSearchService.search(q, teamId, assigneeId, limit));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid task search request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
     }
 
-    // GET: Task by ID
+    // GET: Delta sync - tasks changed or deleted in the user's scope since the cursor (full scope without cursor)
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesDTO> getChanges(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(taskSyncService.getChanges(userId, since, limit));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid change feed request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // GET: Task counts by status and priority for a team or an assignee (dashboards)
+    @GetMapping("/counts")
+    public ResponseEntity<TaskCountsDTO> getTaskCounts(
+            @RequestParam(required = false) Long teamId,
+            @RequestParam(required = false) Long assigneeId) {
+        if ((teamId == null) == (assigneeId == null)) {
+            LOGGER.warn("Invalid task counts request: either teamId or assigneeId is required");
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(teamId != null
+                ? taskCounterService.getTeamCounts(teamId)
+                : taskCounterService.getAssigneeCounts(assigneeId));
+    }
+
+    // GET: Stream all tasks as NDJSON (default) or CSV, optionally gzip-compressed
+    @GetMapping("/export")
+    public void exportTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        TaskExportService.Format exportFormat;
+        try {
+            exportFormat = TaskExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unsupported export format: " + format);
+            return;
+        }
+
+        boolean csv = exportFormat == TaskExportService.Format.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + (csv ? "csv" : "ndjson") + "\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+        long count = taskExportService.exportTasks(exportFormat, out);
+        if (out instanceof GZIPOutputStream gzipOut) {
+            gzipOut.finish();
+        }
+        out.flush();
+        LOGGER.info("Exported {} tasks as {}{}", count, exportFormat, gzip ? " (gzip)" : "");
+    }
+
+    // Helper method: Return a page as a plain list and put the cursor into a header
+    private ResponseEntity<List<TaskViewDTO>> pageAsList(TaskPageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
+    }
+
+    // GET: Task by ID, with its version as ETag; answers 304 without loading the task if If-None-Match still matches
     @GetMapping
-    public ResponseEntity<Task> getTaskById(@RequestParam Long id) {
-        return taskRepository.findById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<TaskViewDTO> getTaskById(
+            @RequestParam Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = taskService.getTaskVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = ETags.ofVersion(version.get());
+            if (ETags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        return taskService.getTaskById(id)
+                .map(task -> ResponseEntity.ok().eTag(ETags.ofVersion(task.getVersion())).body(task))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // PUT: Update an existing task by ID
+    // PUT: Update an existing task by ID; with If-Match the update only happens if the ETag is still current
     @PutMapping("/{id}")
     public ResponseEntity<Void> updateTask(
             @PathVariable Long id,
-            @RequestBody TaskUpdateRequestDTO dto) {
+            @RequestBody TaskUpdateRequestDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             // load existing task
             Task existing = taskRepository.findById(id)
                     .orElseThrow(() -> new NoSuchElementException("Task not found: " + id));
 
-            taskService.updateTask(existing, dto);
-            return ResponseEntity.noContent().build();
+            String currentETag = ETags.ofVersion(existing.getVersion());
+            if (ifMatch != null && !ETags.matchesIfMatch(ifMatch, currentETag)) {
+                LOGGER.warn("Update of task {} rejected: If-Match {} does not match {}", id, ifMatch, currentETag);
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(currentETag).build();
+            }
+
+            Task updated = taskService.updateTask(existing, dto);
+            return ResponseEntity.noContent().eTag(ETags.ofVersion(updated.getVersion())).build();
+        } catch (OptimisticLockingFailureException e) {
+            LOGGER.warn("Update of task {} rejected: concurrent modification", id);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (NoSuchElementException e) {
             LOGGER.warn("Update failed, not found: {}", e.getMessage());
             return ResponseEntity.notFound().build();
@@ -126,6 +321,25 @@ public class TaskController {
         }
     }
 
+    // POST: Apply one change set to many tasks (selected by IDs or filter)
+    @PostMapping("/bulk-update")
+    public ResponseEntity<Map<String, Object>> bulkUpdateTasks(@RequestBody TaskBulkUpdateRequestDTO dto) {
+        Map<String, Object> responseBody = new HashMap<>();
+        try {
+            int updated = taskService.bulkUpdateTasks(dto);
+            responseBody.put("updatedCount", updated);
+            return ResponseEntity.ok(responseBody);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid bulk update: {}", e.getMessage());
+            responseBody.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(responseBody);
+        } catch (NoSuchElementException e) {
+            LOGGER.warn("Bulk update failed, not found: {}", e.getMessage());
+            responseBody.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseBody);
+        }
+    }
+
     // DELETE: Delete a task by ID
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
@@ -1,18 +1,27 @@
 package de.hsesslingen.focusflowbackend.controller;
 
+import de.hsesslingen.focusflowbackend.deletion.TeamDeletionService;
+import de.hsesslingen.focusflowbackend.dto.TeamDeletionJobDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamSummaryPageDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamViewDTO;
 import de.hsesslingen.focusflowbackend.model.Team;
+import de.hsesslingen.focusflowbackend.service.PreconditionFailedException;
 import de.hsesslingen.focusflowbackend.service.TeamService;
 import de.hsesslingen.focusflowbackend.dto.TeamCreationRequestDTO;
 import de.hsesslingen.focusflowbackend.dto.TeamMemberRequestDTO;
 import de.hsesslingen.focusflowbackend.dto.TeamUpdateRequestDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/teams")
@@ -25,18 +34,43 @@ import java.util.NoSuchElementException;
 public class TeamController {
 
     private final TeamService teamService;
+    private final TeamDeletionService teamDeletionService;
 
     // GET: Get all teams
     @GetMapping("/all")
-    public ResponseEntity<List<Team>> getAllTeams() {
-        return ResponseEntity.ok(teamService.getAllTeams());
+    public ResponseEntity<List<TeamViewDTO>> getAllTeams() {
+        return ResponseEntity.ok(teamService.getAllTeamViews());
     }
 
-    // GET: Get team by ID
+    // GET: Keyset-paginated team summaries (name, description, member and open-task counts), optionally of one user
+    @GetMapping("/summaries")
+    public ResponseEntity<TeamSummaryPageDTO> listTeamSummaries(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(teamService.listTeamSummaries(userId, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // GET: Get team by ID, with an ETag; answers 304 from one aggregate query if If-None-Match still matches
     @GetMapping()
-    public ResponseEntity<Team> getTeamById(@RequestParam Long id) {
-        return teamService.getTeamById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<TeamViewDTO> getTeamById(
+            @RequestParam Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> etag = teamService.getTeamETag(id);
+            if (etag.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (ETags.matchesIfNoneMatch(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
+        return teamService.getTeamViewById(id)
+                .map(team -> ResponseEntity.ok().eTag(teamService.getTeamETag(team)).body(team))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -68,8 +102,8 @@ public class TeamController {
 
     // GET: Get all teams for a user
     @GetMapping("/user")
-    public ResponseEntity<List<Team>> getUserTeams(@RequestParam Long userId) {
-        return ResponseEntity.ok(teamService.getTeamsForUser(userId));
+    public ResponseEntity<List<TeamViewDTO>> getUserTeams(@RequestParam Long userId) {
+        return ResponseEntity.ok(teamService.getTeamViewsForUser(userId));
     }
 
     // GET: Get all members of a team
@@ -84,35 +118,56 @@ public class TeamController {
             @PathVariable("id") Long teamId,
             @RequestBody TeamMemberRequestDTO request
     ) {
-        Team updated = teamService.addMembers(teamId, request.getMemberEmails());
+        int memberCount = teamService.addMembers(teamId, request.getMemberEmails());
         return ResponseEntity.ok(Map.of(
             "message", "Mitglieder hinzugefügt",
-            "teamId", updated.getId(),
-            "memberCount", updated.getMembers().size()
+            "teamId", teamId,
+            "memberCount", memberCount
         ));
     }
 
-    // Edit the Team Name and Description
+    // Edit the Team Name and Description; with If-Match only if the team's ETag is still current
     @PutMapping("/{id}")
-    public ResponseEntity<Team> updateTeam(
+    public ResponseEntity<TeamViewDTO> updateTeam(
             @PathVariable Long id,
-            @RequestBody TeamUpdateRequestDTO request) {
+            @RequestBody TeamUpdateRequestDTO request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Team updatedTeam = teamService.updateTeam(id, request.getName(), request.getDescription());
-            return ResponseEntity.ok(updatedTeam);
+            teamService.updateTeam(id, request.getName(), request.getDescription(),
+                    etag -> ifMatch == null || ETags.matchesIfMatch(ifMatch, etag));
+            return teamService.getTeamViewById(id)
+                    .map(team -> ResponseEntity.ok().eTag(teamService.getTeamETag(team)).body(team))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(e.getCurrentETag()).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // DELETE: Delete a team by ID
+    // DELETE: Delete a team by ID; 204 when done, 202 with a job to poll when a large team is deleted in the background
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteTeam(@PathVariable Long id) {
     try {
-        teamService.deleteTeam(id);
-        return ResponseEntity.noContent().build(); // 204 No Content
+        Optional<TeamDeletionJobDTO> job = teamDeletionService.deleteTeam(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.noContent().build(); // 204 No Content
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/teams/deletions/" + job.get().getId()))
+                .body(job.get());
     } catch (RuntimeException e) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
     }
 }
+
+    // GET: Progress of a background team deletion
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<TeamDeletionJobDTO> getDeletionJob(@PathVariable String jobId) {
+        return teamDeletionService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -2,15 +2,17 @@ package de.hsesslingen.focusflowbackend.controller;
 
 import de.hsesslingen.focusflowbackend.dto.AuthResponseDTO;
 import de.hsesslingen.focusflowbackend.dto.UserRegistrationRequestDTO;
+import de.hsesslingen.focusflowbackend.security.PasswordHashingRejectedException;
+import de.hsesslingen.focusflowbackend.security.SessionPrincipal;
+import de.hsesslingen.focusflowbackend.security.SessionTokenService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import de.hsesslingen.focusflowbackend.model.Team;
 import de.hsesslingen.focusflowbackend.model.User;
 import de.hsesslingen.focusflowbackend.repository.UserRepository;
-import de.hsesslingen.focusflowbackend.repository.TeamRepository;
 import de.hsesslingen.focusflowbackend.service.UserService;
 
 import java.util.NoSuchElementException;
@@ -27,8 +29,8 @@ import java.util.Optional;
 public class UserController {
 
     private final UserRepository userRepository;
-    private final TeamRepository teamRepository;
     private final UserService userService;
+    private final SessionTokenService sessionTokenService;
 
     @GetMapping()
     public ResponseEntity<User> getUserById(@RequestParam Long id) {
@@ -49,12 +51,12 @@ public class UserController {
         if (registrationRequest.getPasswordConfirm() == null ||
             !registrationRequest.getPassword().equals(registrationRequest.getPasswordConfirm())) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new AuthResponseDTO(null, null, null, null, null, "Password confirmation does not match"));
+                    .body(new AuthResponseDTO(null, null, null, null, null, "Password confirmation does not match", null));
         }
 
         if (userRepository.findByEmail(registrationRequest.getEmail()).isPresent()) {
             return ResponseEntity.status(HttpStatus.CONFLICT) 
-                    .body(new AuthResponseDTO(null, null, null, null, null, "Email already registered"));
+                    .body(new AuthResponseDTO(null, null, null, null, null, "Email already registered", null));
         }
 
         try {
@@ -73,41 +75,70 @@ public class UserController {
                 registeredUser.getFirstName(),
                 registeredUser.getLastName(),
                 registeredUser.getRole(),
-                "Registrierung erfolgreich!"
+                "Registrierung erfolgreich!",
+                null
             ));
 
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new AuthResponseDTO(null, null, null, null, null, e.getMessage()));
+                    .body(new AuthResponseDTO(null, null, null, null, null, e.getMessage(), null));
+        } catch (PasswordHashingRejectedException e) {
+            return hashingBusy();
         } catch (Exception e) {
             System.err.println("Unerwarteter Fehler während der Registrierung: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new AuthResponseDTO(null, null, null, null, null, "Ein unerwarteter Serverfehler ist aufgetreten."));
+                    .body(new AuthResponseDTO(null, null, null, null, null, "Ein unerwarteter Serverfehler ist aufgetreten.", null));
         }
     }
 
     @PostMapping("/login")
     public ResponseEntity<AuthResponseDTO> loginUser(@RequestParam String email, @RequestParam String password) {
-        boolean success = userService.loginUser(email, password);
-        if (success) {
-            User loggedInUser = userRepository.findByEmail(email)
-                                            .orElseThrow(() -> new NoSuchElementException("Benutzer nicht gefunden nach erfolgreichem Login: " + email));
+        Optional<User> loggedIn;
+        try {
+            loggedIn = userService.loginUser(email, password);
+        } catch (PasswordHashingRejectedException e) {
+            return hashingBusy();
+        }
+        if (loggedIn.isPresent()) {
+            User loggedInUser = loggedIn.get();
             return ResponseEntity.ok(new AuthResponseDTO(
                 loggedInUser.getId(),
                 loggedInUser.getEmail(),
                 loggedInUser.getFirstName(),
                 loggedInUser.getLastName(),
                 loggedInUser.getRole(),
-                "Login erfolgreich!"
+                "Login erfolgreich!",
+                sessionTokenService.issue(loggedInUser)
             ));
         } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new AuthResponseDTO(null, null, null, null, null, "Ungültige Anmeldedaten."));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new AuthResponseDTO(null, null, null, null, null, "Ungültige Anmeldedaten.", null));
         }
     }
 
+    // POST: Log out; the session token stops working
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logoutUser(SessionPrincipal principal) {
+        sessionTokenService.revoke(principal);
+        return ResponseEntity.noContent().build();
+    }
+
+    // GET: The user behind the session token, straight from the token
+    @GetMapping("/session")
+    public ResponseEntity<SessionPrincipal> getSession(SessionPrincipal principal) {
+        return ResponseEntity.ok(principal);
+    }
+
+    // PUT: Update the profile of the session's user (by primary key, so a cached entity), or of the user with the given email
     @PutMapping("/profile")
-    public ResponseEntity<User> updateProfile(@RequestParam String email, @RequestBody User updatedInfo) {
-        Optional<User> optionalUser = userRepository.findByEmail(email);
+    public ResponseEntity<User> updateProfile(Optional<SessionPrincipal> principal,
+                                              @RequestParam(required = false) String email,
+                                              @RequestBody User updatedInfo) {
+        if (principal.isEmpty() && email == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<User> optionalUser = principal.isPresent()
+                ? userRepository.findById(principal.get().userId())
+                : userRepository.findByEmail(email);
         if (optionalUser.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
@@ -128,50 +159,34 @@ public class UserController {
             return ResponseEntity.notFound().build();
         }
 
-        User user = optionalUser.get();
-        user.setRole(role);
-        userRepository.save(user);
+        User updated = userService.assignRole(optionalUser.get(), role);
 
-        return ResponseEntity.ok("User role updated to: " + role);
+        return ResponseEntity.ok("User role updated to: " + updated.getRole());
     }
 
     @PostMapping("/teams/add")
     public ResponseEntity<?> addUserToTeam(@RequestParam Long userId, @RequestParam Long teamId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        Optional<Team> teamOpt = teamRepository.findById(teamId);
-        if (userOpt.isEmpty() || teamOpt.isEmpty()) {
+        try {
+            userService.addUserToTeam(userId, teamId);
+            return ResponseEntity.ok("User added to team.");
+        } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
         }
-
-        User user = userOpt.get();
-        Team team = teamOpt.get();
-
-        user.getTeams().add(team);
-        team.getMembers().add(user);
-
-        userRepository.save(user);
-        teamRepository.save(team);
-
-        return ResponseEntity.ok("User added to team.");
     }
 
     @DeleteMapping("/teams/delete")
     public ResponseEntity<?> removeUserFromTeam(@RequestParam Long userId, @RequestParam Long teamId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        Optional<Team> teamOpt = teamRepository.findById(teamId);
-        if (userOpt.isEmpty() || teamOpt.isEmpty()) {
+        try {
+            userService.removeUserFromTeam(userId, teamId);
+            return ResponseEntity.ok("User removed from team.");
+        } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
         }
+    }
 
-        User user = userOpt.get();
-        Team team = teamOpt.get();
-
-        user.getTeams().remove(team);
-        team.getMembers().remove(user);
-
-        userRepository.save(user);
-        teamRepository.save(team);
-
-        return ResponseEntity.ok("User removed from team.");
+    // Helper method: Password hashing is saturated; shed the request instead of queueing it
+    private ResponseEntity<AuthResponseDTO> hashingBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new AuthResponseDTO(null, null, null, null, null, "Server ausgelastet, bitte später erneut versuchen.", null));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,270 @@
+package de.hsesslingen.focusflowbackend.deadline;
+
+import de.hsesslingen.focusflowbackend.dto.TaskDeadlineDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+/**
+ * DeadlineScheduler fires due-date reminders and overdue transitions from an in-memory timing wheel
+ * instead of scanning the task table. Only deadlines up to a horizon (now + reminder lead + window) are held;
+ * the horizon is extended periodically by loading the next range of due dates in index order.
+ * Committed task changes re-arm or cancel the affected entries, and on startup the wheel is rebuilt
+ * with the same loader. Fired deadlines are re-checked against the database by DeadlineService.
+ */
+public class DeadlineScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeadlineScheduler.class);
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int FIRE_BATCH_SIZE = 500;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    enum Kind {
+        REMINDER, OVERDUE
+    }
+
+    /** Wheel entry; atMillis is kept to decide which of two entries for the same task is earlier. */
+    record Deadline(Long taskId, Kind kind, long atMillis) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final DeadlineService deadlineService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${focusflow.deadlines.reminder-lead:PT24H}")
+    private Duration reminderLead = Duration.ofHours(24);
+
+    // How far beyond the reminder lead the wheel is filled; must be longer than the load interval
+    @Value("${focusflow.deadlines.window:PT6H}")
+    private Duration window = Duration.ofHours(6);
+
+    @Value("${focusflow.deadlines.load-interval:PT1H}")
+    private Duration loadInterval = Duration.ofHours(1);
+
+    @Value("${focusflow.deadlines.tick:PT1S}")
+    private Duration tick = Duration.ofSeconds(1);
+
+    @Value("${focusflow.deadlines.retry-delay:PT1M}")
+    private Duration retryDelay = Duration.ofMinutes(1);
+
+    // Guards the wheel and the handle maps
+    private final Object lock = new Object();
+    private final Map<Long, TimingWheel.Timeout<Deadline>> reminders = new HashMap<>();
+    private final Map<Long, TimingWheel.Timeout<Deadline>> overdues = new HashMap<>();
+    private TimingWheel<Deadline> wheel;
+    // Due dates up to here are in the wheel (or already handled); null until the first load started
+    private volatile LocalDateTime loadedUntil;
+    // One thread for ticks and loads, so a load never runs concurrently with itself
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        wheel = new TimingWheel<>(tick.toMillis(), System.currentTimeMillis());
+        Gauge.builder("focusflow.deadlines.scheduled", this, DeadlineScheduler::size)
+                .description("Reminders and overdue transitions waiting in the timing wheel").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("deadline-wheel").daemon().factory());
+        executor.scheduleWithFixedDelay(this::extendHorizon, 0, loadInterval.toMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleAtFixedRate(this::tick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // Method: Number of scheduled reminders and overdue transitions
+    public int size() {
+        synchronized (lock) {
+            return wheel.size();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskSnapshot after = event.after();
+        TaskSnapshot before = event.before();
+        Long taskId = event.taskId();
+        synchronized (lock) {
+            if (after == null || after.status() == TaskStatus.CLOSED || after.dueDate() == null) {
+                cancel(taskId);
+                return;
+            }
+            boolean rearm = before == null || !Objects.equals(before.dueDate(), after.dueDate())
+                    || before.status() == TaskStatus.CLOSED;
+            if (!rearm) {
+                return;
+            }
+            LocalDateTime horizon = loadedUntil;
+            if (horizon != null && !after.dueDate().isAfter(horizon)) {
+                schedule(taskId, Kind.REMINDER, after.dueDate().minus(reminderLead), false);
+                schedule(taskId, Kind.OVERDUE, after.dueDate(), false);
+            } else {
+                // Beyond the horizon: the loader picks it up when the horizon gets there
+                cancel(taskId);
+            }
+        }
+    }
+
+    // Method: Load the pending deadlines up to the next horizon (the whole backlog on the first run)
+    void extendHorizon() {
+        LocalDateTime previous = loadedUntil;
+        LocalDateTime target = LocalDateTime.now().plus(reminderLead).plus(window);
+        // Set first, so changes committed while loading are scheduled by the listener as well
+        loadedUntil = target;
+        try {
+            int loaded = load(previous != null ? previous : BEGINNING, previous != null ? Long.MAX_VALUE : 0L, target);
+            LOGGER.info("Loaded {} task deadlines up to {}, {} scheduled", loaded, target, size());
+        } catch (RuntimeException e) {
+            loadedUntil = previous;
+            LOGGER.error("Loading task deadlines up to {} failed, retrying with the next load: {}", target, e.getMessage(), e);
+        }
+    }
+
+    // Helper method: Keyset-paged load of (afterDue/afterId, until]; the page order matches idx_tasks_due_date
+    private int load(LocalDateTime afterDue, long afterId, LocalDateTime until) {
+        int loaded = 0;
+        while (true) {
+            List<TaskDeadlineDTO> page = taskRepository.findPendingDeadlines(until, afterDue, afterId,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            synchronized (lock) {
+                // Rows read before a concurrent change committed may be stale: keep the earlier entry,
+                // DeadlineService re-checks at fire time and hands a moved deadline back
+                page.forEach(deadline -> scheduleAll(deadline, true));
+            }
+            loaded += page.size();
+            if (page.size() < LOAD_BATCH_SIZE) {
+                return loaded;
+            }
+            TaskDeadlineDTO last = page.get(page.size() - 1);
+            afterDue = last.getDueDate();
+            afterId = last.getId();
+        }
+    }
+
+    // Method: Advance the wheel to now and carry out what fired
+    void tick() {
+        List<Deadline> fired;
+        synchronized (lock) {
+            fired = wheel.advanceTo(System.currentTimeMillis());
+            for (Deadline deadline : fired) {
+                handles(deadline.kind()).computeIfPresent(deadline.taskId(),
+                        (id, timeout) -> timeout.getPayload() == deadline ? null : timeout);
+            }
+        }
+        if (fired.isEmpty()) {
+            return;
+        }
+        List<Long> remind = new ArrayList<>();
+        List<Long> overdue = new ArrayList<>();
+        fired.forEach(deadline -> (deadline.kind() == Kind.REMINDER ? remind : overdue).add(deadline.taskId()));
+        fire(remind, Kind.REMINDER, ids -> deadlineService.sendReminders(ids, reminderLead));
+        fire(overdue, Kind.OVERDUE, deadlineService::markOverdue);
+    }
+
+    // Helper method: Process fired task IDs in batches; see process for failed batches
+    void fire(List<Long> taskIds, Kind kind, Function<List<Long>, List<TaskDeadlineDTO>> action) {
+        for (int from = 0; from < taskIds.size(); from += FIRE_BATCH_SIZE) {
+            process(taskIds.subList(from, Math.min(from + FIRE_BATCH_SIZE, taskIds.size())), kind, action);
+        }
+    }
+
+    // Helper method: Run one batch; a failed batch is split in halves until the failing tasks are isolated,
+    // so one broken task does not hold back the others. Only the failing tasks are tried again after the retry delay
+    private void process(List<Long> batch, Kind kind, Function<List<Long>, List<TaskDeadlineDTO>> action) {
+        try {
+            List<TaskDeadlineDTO> notDue = action.apply(batch);
+            synchronized (lock) {
+                notDue.forEach(deadline -> scheduleAll(deadline, false));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                LOGGER.warn("Processing {} {} deadlines failed, splitting the batch: {}", batch.size(), kind, e.getMessage());
+                int half = batch.size() / 2;
+                process(batch.subList(0, half), kind, action);
+                process(batch.subList(half, batch.size()), kind, action);
+                return;
+            }
+            LOGGER.error("Processing the {} deadline of task {} failed, retrying in {}: {}", kind, batch.get(0), retryDelay, e.getMessage(), e);
+            LocalDateTime retryAt = LocalDateTime.now().plus(retryDelay);
+            synchronized (lock) {
+                schedule(batch.get(0), kind, retryAt, true);
+            }
+        }
+    }
+
+    // Helper method: Schedule the actions that are still pending for a task
+    private void scheduleAll(TaskDeadlineDTO deadline, boolean keepEarlier) {
+        if (!deadline.isReminderSent()) {
+            schedule(deadline.getId(), Kind.REMINDER, deadline.getDueDate().minus(reminderLead), keepEarlier);
+        }
+        if (!deadline.isOverdue()) {
+            schedule(deadline.getId(), Kind.OVERDUE, deadline.getDueDate(), keepEarlier);
+        }
+    }
+
+    // Helper method: Replace the entry of a task, or keep the existing one if it is earlier and keepEarlier is set
+    private void schedule(Long taskId, Kind kind, LocalDateTime at, boolean keepEarlier) {
+        long atMillis = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Map<Long, TimingWheel.Timeout<Deadline>> handles = handles(kind);
+        TimingWheel.Timeout<Deadline> existing = handles.get(taskId);
+        if (existing != null) {
+            if (keepEarlier && existing.getPayload().atMillis() <= atMillis) {
+                return;
+            }
+            wheel.cancel(existing);
+        }
+        handles.put(taskId, wheel.schedule(new Deadline(taskId, kind, atMillis), atMillis));
+    }
+
+    private void cancel(Long taskId) {
+        wheel.cancel(reminders.remove(taskId));
+        wheel.cancel(overdues.remove(taskId));
+    }
+
+    private Map<Long, TimingWheel.Timeout<Deadline>> handles(Kind kind) {
+        return kind == Kind.REMINDER ? reminders : overdues;
+    }
+
+    // Method: IDs of tasks with a scheduled deadline of the given kind (for tests and diagnostics)
+    Collection<Long> scheduledTaskIds(Kind kind) {
+        synchronized (lock) {
+            return List.copyOf(handles(kind).keySet());
+        }
+    }
+}
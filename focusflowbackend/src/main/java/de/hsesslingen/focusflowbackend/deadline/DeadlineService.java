@@ -0,0 +1,88 @@
+package de.hsesslingen.focusflowbackend.deadline;
+
+import de.hsesslingen.focusflowbackend.dto.TaskDeadlineDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskReminderDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.notification.NotificationOutboxService;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.sync.TaskChangeSequence;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+/**
+ * DeadlineService carries out what the DeadlineScheduler fires: due-date reminders and the overdue flag.
+ * Every batch re-checks the tasks in the database, so a deadline that fired for a task that was closed,
+ * deleted or moved in the meantime does nothing. Moved deadlines are handed back to be scheduled again.
+ */
+public class DeadlineService {
+
+    private final TaskRepository taskRepository;
+    private final NotificationOutboxService notificationOutbox;
+    private final TaskChangeSequence changeSequence;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Method: Queue reminders for tasks due within the lead time; returns the tasks whose reminder is not due yet
+    @Transactional
+    public List<TaskDeadlineDTO> sendReminders(Collection<Long> taskIds, Duration lead) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> done = new ArrayList<>();
+        List<TaskDeadlineDTO> notDue = new ArrayList<>();
+        for (TaskReminderDTO task : taskRepository.findReminderCandidates(taskIds)) {
+            if (task.getDueDate() == null) {
+                continue;
+            }
+            if (task.getDueDate().isAfter(now.plus(lead))) {
+                notDue.add(new TaskDeadlineDTO(task.getId(), task.getDueDate(), false, true));
+                continue;
+            }
+            // Already past due (e.g. after a long downtime): the overdue flag says enough, no "due soon" mail
+            if (task.getDueDate().isAfter(now)) {
+                notificationOutbox.enqueue(NotificationOutboxService.TASK_DUE_SOON, task.getRecipient(),
+                        "Task due soon: " + task.getTitle(),
+                        "The task \"" + task.getTitle() + "\" is due on " + task.getDueDate().toLocalDate() + ".",
+                        task.getId());
+            }
+            done.add(task.getId());
+        }
+        if (!done.isEmpty()) {
+            taskRepository.markReminderSent(done);
+        }
+        return notDue;
+    }
+
+    // Method: Flag tasks whose due date has passed; returns the tasks that are not overdue yet
+    @Transactional
+    public List<TaskDeadlineDTO> markOverdue(Collection<Long> taskIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskSnapshot> overdue = new ArrayList<>();
+        List<TaskDeadlineDTO> notDue = new ArrayList<>();
+        for (TaskSnapshot task : taskRepository.findOverdueCandidates(taskIds)) {
+            if (task.dueDate() == null) {
+                continue;
+            }
+            if (task.dueDate().isAfter(now)) {
+                notDue.add(new TaskDeadlineDTO(task.id(), task.dueDate(), true, false));
+            } else {
+                overdue.add(task);
+            }
+        }
+        if (!overdue.isEmpty()) {
+            long changeSeq = changeSequence.next();
+            taskRepository.markOverdue(overdue.stream().map(TaskSnapshot::id).toList(), changeSeq, now);
+            // Status, assignee and due date stay the same; listeners (push, calendar) see an update of the task
+            overdue.forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.updated(task, task.withChangeSeq(changeSeq))));
+        }
+        return notDue;
+    }
+}
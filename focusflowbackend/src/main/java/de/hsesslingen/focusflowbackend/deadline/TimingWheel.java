@@ -0,0 +1,159 @@
+package de.hsesslingen.focusflowbackend.deadline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots each. A tick of level 0 is tickMillis,
+ * a slot of level n covers 64^n ticks, so the wheel spans 64^4 ticks (194 days at one second).
+ * Scheduling and cancelling are O(1); advancing by one tick expires one level-0 slot and every
+ * 64 ticks redistributes one slot of the next level. Deadlines beyond the span wait in the top level
+ * and are re-inserted when their slot comes around.
+ * Not thread-safe; the caller synchronizes.
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    /** Handle of a scheduled entry, used to cancel it. */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long expiryTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean active;
+
+        private Timeout(T payload, long expiryTick) {
+            this.payload = payload;
+            this.expiryTick = expiryTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+    private final long tickMillis;
+    // Sentinels of the slots' circular lists, per level (a list rather than a generic array, which Java cannot create)
+    private final List<List<Timeout<T>>> slots;
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.slots = new ArrayList<>(LEVELS);
+        for (int level = 0; level < LEVELS; level++) {
+            List<Timeout<T>> heads = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timeout<T> head = new Timeout<>(null, 0);
+                head.prev = head;
+                head.next = head;
+                heads.add(head);
+            }
+            slots.add(heads);
+        }
+    }
+
+    // Method: Schedule a payload; deadlines in the past fire on the next tick
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(payload, Math.max(deadlineMillis / tickMillis, currentTick + 1));
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    // Method: Remove a scheduled entry; no-op if it already fired or was cancelled
+    public void cancel(Timeout<T> timeout) {
+        if (timeout != null && timeout.active) {
+            unlink(timeout);
+            size--;
+        }
+    }
+
+    // Method: Move the wheel forward to the given time and return the payloads that expired on the way
+    public List<T> advanceTo(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            Timeout<T> head = slot(0, currentTick);
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                unlink(timeout);
+                size--;
+                expired.add(timeout.payload);
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    // Helper method: When the lower level wraps around, spread the next slot of this level over the lower levels
+    private void cascade(int level) {
+        if (level >= LEVELS || (currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        // Higher levels first: their entries may land in the slot of this level that is redistributed next
+        cascade(level + 1);
+        Timeout<T> head = slot(level, currentTick >> (SLOT_BITS * level));
+        Timeout<T> timeout = head.next;
+        head.prev = head;
+        head.next = head;
+        while (timeout != head) {
+            Timeout<T> next = timeout.next;
+            insert(timeout);
+            timeout = next;
+        }
+    }
+
+    // Helper method: Put an entry into the slot that matches its remaining delay
+    private void insert(Timeout<T> timeout) {
+        // Cascaded entries may be due in the current tick; its level-0 slot is expired right after the cascade
+        long expiry = Math.max(timeout.expiryTick, currentTick);
+        long delay = expiry - currentTick;
+        if (delay >= SPAN_TICKS) {
+            expiry = currentTick + SPAN_TICKS - 1;
+            delay = SPAN_TICKS - 1;
+        }
+        int level = 0;
+        while (delay >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        Timeout<T> head = slot(level, expiry >> (SLOT_BITS * level));
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+        timeout.active = true;
+    }
+
+    // Helper method: Sentinel of the slot of a level that a tick count (in that level's units) falls into
+    private Timeout<T> slot(int level, long ticks) {
+        return slots.get(level).get((int) (ticks & SLOT_MASK));
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.active = false;
+    }
+}
@@ -0,0 +1,75 @@
+package de.hsesslingen.focusflowbackend.deletion;
+
+import de.hsesslingen.focusflowbackend.dto.TeamDeletionJobDTO;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one team deletion. Written by the thread that runs the deletion,
+ * read by status requests at any time.
+ */
+class TeamDeletionJob {
+
+    enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final Long teamId;
+    private final long tasksTotal;
+    private final long membersTotal;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong tasksDeleted = new AtomicLong();
+    private final AtomicLong membersRemoved = new AtomicLong();
+    private volatile Status status = Status.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    TeamDeletionJob(String id, Long teamId, long tasksTotal, long membersTotal) {
+        this.id = id;
+        this.teamId = teamId;
+        this.tasksTotal = tasksTotal;
+        this.membersTotal = membersTotal;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Long getTeamId() {
+        return teamId;
+    }
+
+    boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    void tasksDeleted(int count) {
+        tasksDeleted.addAndGet(count);
+    }
+
+    void membersRemoved(int count) {
+        membersRemoved.addAndGet(count);
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        error = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    TeamDeletionJobDTO toDTO() {
+        return new TeamDeletionJobDTO(id, teamId, status.name(), tasksTotal, tasksDeleted.get(),
+                membersTotal, membersRemoved.get(), startedAt, finishedAt, error);
+    }
+}
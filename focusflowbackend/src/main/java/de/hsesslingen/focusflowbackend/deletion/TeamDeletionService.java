@@ -0,0 +1,236 @@
+package de.hsesslingen.focusflowbackend.deletion;
+
+import de.hsesslingen.focusflowbackend.dto.TaskDeletionCandidateDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamDeletionJobDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TeamChangedEvent;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipIndex;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipRepository;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskTombstone;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.repository.TaskTombstoneRepository;
+import de.hsesslingen.focusflowbackend.repository.TeamRepository;
+import de.hsesslingen.focusflowbackend.search.TaskSearchService;
+import de.hsesslingen.focusflowbackend.sync.TaskChangeSequence;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+/**
+ * TeamDeletionService deletes a team without loading its tasks or members.
+ * Tasks (with their tombstones and deletion events) and team_members rows are removed with set-based
+ * statements in chunks, each chunk in its own short transaction; the team row itself goes last.
+ * Every chunk locks the team row first, so concurrent deletions of one team take turns instead of
+ * tombstoning the same tasks twice. Small teams are deleted in the calling thread. Larger ones are deleted by a background job
+ * whose progress can be polled. A failed or interrupted deletion leaves a smaller team behind and
+ * can simply be started again.
+ */
+public class TeamDeletionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TeamDeletionService.class);
+
+    private final TeamRepository teamRepository;
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final TeamMembershipRepository membershipRepository;
+    private final TeamMembershipIndex membershipIndex;
+    private final TaskChangeSequence changeSequence;
+    private final TaskSearchService taskSearchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    // Rows (tasks or memberships) deleted per transaction
+    @Value("${focusflow.team-deletion.chunk-size:500}")
+    private int chunkSize = 500;
+
+    // Teams with more tasks plus members than this are deleted in the background
+    @Value("${focusflow.team-deletion.background-threshold:2000}")
+    private long backgroundThreshold = 2000;
+
+    // Finished jobs can be polled this long
+    @Value("${focusflow.team-deletion.job-retention:PT1H}")
+    private Duration jobRetention = Duration.ofHours(1);
+
+    private final Map<String, TeamDeletionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, TeamDeletionJob> runningByTeam = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean stopping;
+
+    // Method: Delete a team; empty if it was deleted right away, otherwise the job that deletes it in the background
+    public Optional<TeamDeletionJobDTO> deleteTeam(Long teamId) {
+        TeamDeletionJob running = runningByTeam.get(teamId);
+        if (running != null) {
+            return Optional.of(running.toDTO());
+        }
+        if (!teamRepository.existsById(teamId)) {
+            throw new NoSuchElementException("Team nicht gefunden: " + teamId);
+        }
+        long tasks = taskRepository.countByTeamId(teamId);
+        long members = membershipRepository.countMembers(teamId);
+        TeamDeletionJob job = new TeamDeletionJob(UUID.randomUUID().toString(), teamId, tasks, members);
+        TeamDeletionJob existing = runningByTeam.putIfAbsent(teamId, job);
+        if (existing != null) {
+            return Optional.of(existing.toDTO());
+        }
+        jobs.put(job.getId(), job);
+        if (tasks + members <= backgroundThreshold) {
+            try {
+                run(job);
+            } finally {
+                runningByTeam.remove(teamId, job);
+            }
+            return Optional.empty();
+        }
+        executor.execute(() -> {
+            try {
+                run(job);
+            } catch (RuntimeException e) {
+                LOGGER.error("Deleting team {} failed: {}", teamId, e.getMessage(), e);
+            } finally {
+                runningByTeam.remove(teamId, job);
+            }
+        });
+        LOGGER.info("Deleting team {} in the background ({} tasks, {} members), job {}", teamId, tasks, members, job.getId());
+        return Optional.of(job.toDTO());
+    }
+
+    // Method: Progress of a background deletion
+    public Optional<TeamDeletionJobDTO> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(TeamDeletionJob::toDTO);
+    }
+
+    // Forget finished jobs after the retention time
+    @Scheduled(fixedDelayString = "PT5M")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Helper method: Delete tasks and memberships chunk by chunk, then the team; repeated if rows were added meanwhile
+    void run(TeamDeletionJob job) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Set<Long> formerMembers = new HashSet<>();
+        try {
+            do {
+                while (deleteTaskChunk(tx, job)) {
+                    checkNotStopping();
+                }
+                while (removeMemberChunk(tx, job, formerMembers)) {
+                    checkNotStopping();
+                }
+            } while (!Boolean.TRUE.equals(tx.execute(status -> deleteTeamIfEmpty(job.getTeamId(), formerMembers))));
+            membershipIndex.removeTeam(job.getTeamId());
+            job.complete();
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            throw e;
+        }
+    }
+
+    // Helper method: One chunk of tasks; false once the team has no more tasks (or is gone)
+    private boolean deleteTaskChunk(TransactionTemplate tx, TeamDeletionJob job) {
+        TaskChunk chunk = tx.execute(status -> {
+            if (!membershipRepository.lockTeam(job.getTeamId())) {
+                return new TaskChunk(0, List.of());
+            }
+            List<TaskDeletionCandidateDTO> tasks = taskRepository.findDeletionCandidates(job.getTeamId(), PageRequest.of(0, chunkSize));
+            if (tasks.isEmpty()) {
+                return new TaskChunk(0, List.of());
+            }
+            // Tasks deleted one by one in the meantime are skipped: only rows locked here get a tombstone and an event
+            Set<Long> existing = new HashSet<>(taskRepository.lockExistingIds(tasks.stream().map(TaskDeletionCandidateDTO::getId).toList()));
+            List<Long> ids = new ArrayList<>(existing.size());
+            List<TaskChangedEvent> events = new ArrayList<>(existing.size());
+            List<TaskTombstone> tombstones = new ArrayList<>(existing.size());
+            for (TaskDeletionCandidateDTO task : tasks) {
+                if (existing.contains(task.getId())) {
+                    long changeSeq = changeSequence.next();
+                    ids.add(task.getId());
+                    tombstones.add(TaskTombstone.of(task.getId(), task.getCreatorId(), task.getAssigneeId(), task.getTeamId(), changeSeq));
+                    events.add(TaskChangedEvent.deleted(task.toSnapshot(changeSeq)));
+                }
+            }
+            if (!ids.isEmpty()) {
+                tombstoneRepository.saveAll(tombstones);
+                taskRepository.deleteByIds(ids);
+                events.forEach(eventPublisher::publishEvent);
+            }
+            return new TaskChunk(tasks.size(), ids);
+        });
+        // Committed: only now drop the tasks from the search index
+        taskSearchService.onTasksRemoved(chunk.deleted());
+        job.tasksDeleted(chunk.deleted().size());
+        return chunk.candidates() == chunkSize;
+    }
+
+    // Helper method: One chunk of memberships; false once the team has no more members
+    private boolean removeMemberChunk(TransactionTemplate tx, TeamDeletionJob job, Set<Long> formerMembers) {
+        Long teamId = job.getTeamId();
+        Set<Long> removed = tx.execute(status -> {
+            if (!membershipRepository.lockTeam(teamId)) {
+                return Set.<Long>of();
+            }
+            return membershipRepository.removeMembers(teamId, membershipRepository.findMemberIds(teamId, chunkSize));
+        });
+        removed.forEach(userId -> membershipIndex.removeMember(teamId, userId));
+        formerMembers.addAll(removed);
+        job.membersRemoved(removed.size());
+        return removed.size() == chunkSize;
+    }
+
+    // Helper method: Delete the team row under its lock, unless tasks or members were added in the meantime
+    private boolean deleteTeamIfEmpty(Long teamId, Set<Long> formerMembers) {
+        if (!membershipRepository.lockTeam(teamId)) {
+            // Deleted concurrently by someone else
+            return true;
+        }
+        if (taskRepository.countByTeamId(teamId) > 0 || membershipRepository.countMembers(teamId) > 0) {
+            return false;
+        }
+        teamRepository.deleteTeamById(teamId);
+        eventPublisher.publishEvent(new TeamChangedEvent(TeamChangedEvent.ChangeType.DELETED, teamId, Set.copyOf(formerMembers)));
+        return true;
+    }
+
+    // Candidates read for one chunk of tasks, and the IDs that were actually deleted
+    private record TaskChunk(int candidates, List<Long> deleted) {
+    }
+
+    private void checkNotStopping() {
+        if (stopping) {
+            throw new IllegalStateException("Interrupted by shutdown; delete the team again to finish");
+        }
+    }
+}
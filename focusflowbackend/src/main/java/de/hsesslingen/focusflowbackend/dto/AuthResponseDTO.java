@@ -15,4 +15,6 @@ public class AuthResponseDTO {
     private String lastName;
     private String role;
     private String message;    
+    // Signed session token, sent back as "Authorization: Bearer <token>"; only set on login
+    private String token;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * CalendarDayCountDTO is the number of tasks due on one day.
+ * Days without tasks are not listed.
+ */
+public class CalendarDayCountDTO {
+    private LocalDate date;
+    private Long count;
+}
@@ -0,0 +1,18 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * ChangeNotificationDTO is the payload of a push event.
+ * It only names what changed; clients reload the task or team (with If-None-Match) or call the delta-sync feed.
+ */
+public class ChangeNotificationDTO {
+    private String action;
+    private Long id;
+    private Long teamId;
+}
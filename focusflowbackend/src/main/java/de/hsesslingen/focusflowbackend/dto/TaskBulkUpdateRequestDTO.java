@@ -0,0 +1,22 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+/**
+ * TaskBulkUpdateRequestDTO selects tasks either by ID list or by filter and describes the change set.
+ * Only the non-null change fields are written; all selected tasks get the same values.
+ */
+public class TaskBulkUpdateRequestDTO {
+    private List<Long> taskIds;
+    private TaskFilterDTO filter;
+
+    private TaskStatus status;
+    private TaskPriority priority;
+    private Long assigneeId;
+    private Long teamId;
+}
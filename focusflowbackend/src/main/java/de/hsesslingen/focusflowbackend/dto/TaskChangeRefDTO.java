@@ -0,0 +1,16 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskChangeRefDTO names one committed change: the task and the change number of its last write or its deletion.
+ */
+public class TaskChangeRefDTO {
+    private Long taskId;
+    private Long changeSeq;
+}
@@ -0,0 +1,24 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskChangesDTO is one response of the delta-sync feed.
+ * changed holds inserted and updated tasks, deleted the IDs of removed tasks.
+ * nextCursor is passed as "since" in the next call; hasMore tells whether to call again right away.
+ * reset means changed is the user's full scope: the client replaces its copy instead of applying a delta.
+ */
+public class TaskChangesDTO {
+    private List<TaskViewDTO> changed;
+    private List<Long> deleted;
+    private String nextCursor;
+    private boolean hasMore;
+    private boolean reset;
+}
@@ -0,0 +1,22 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskCountRowDTO is one row of the GROUP BY that rebuilds the task counters:
+ * the number of tasks with a given team, assignee, status and priority.
+ */
+public class TaskCountRowDTO {
+    private Long teamId;
+    private Long assigneeId;
+    private TaskStatus status;
+    private TaskPriority priority;
+    private Long count;
+}
@@ -0,0 +1,21 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskCountsDTO holds the task counts of one team or one assignee for dashboards.
+ * byStatusAndPriority uses the priority names as keys, and "NONE" for tasks without priority.
+ */
+public class TaskCountsDTO {
+    private long total;
+    private Map<TaskStatus, Long> byStatus;
+    private Map<TaskStatus, Map<String, Long>> byStatusAndPriority;
+}
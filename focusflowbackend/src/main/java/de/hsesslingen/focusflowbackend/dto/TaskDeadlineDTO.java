@@ -0,0 +1,21 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskDeadlineDTO is what the deadline scheduler loads per open task: the due date
+ * and which of the two deadline actions (reminder, overdue flag) are still pending.
+ */
+public class TaskDeadlineDTO {
+    private Long id;
+    private LocalDateTime dueDate;
+    private boolean reminderSent;
+    private boolean overdue;
+}
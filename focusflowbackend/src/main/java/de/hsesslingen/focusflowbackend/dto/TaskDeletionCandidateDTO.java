@@ -0,0 +1,31 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskDeletionCandidateDTO holds what a set-based task deletion still needs to know about each task:
+ * the scope for its tombstone and the fields listeners route the deletion event by.
+ */
+public class TaskDeletionCandidateDTO {
+    private Long id;
+    private Long creatorId;
+    private Long assigneeId;
+    private Long teamId;
+    private TaskStatus status;
+    private TaskPriority priority;
+    private LocalDateTime dueDate;
+
+    public TaskSnapshot toSnapshot(Long changeSeq) {
+        return new TaskSnapshot(id, assigneeId, teamId, status, priority, dueDate, changeSeq);
+    }
+}
@@ -0,0 +1,26 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+/**
+ * TaskFilterDTO bundles the optional filters of the task listing.
+ * Every field that is null is ignored; the due-date range is inclusive on both ends.
+ */
+public class TaskFilterDTO {
+    private TaskStatus status;
+    private TaskPriority priority;
+    private Long teamId;
+    private Long assigneeId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;
+}
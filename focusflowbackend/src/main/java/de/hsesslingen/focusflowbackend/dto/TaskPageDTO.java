@@ -0,0 +1,19 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskPageDTO is one page of the keyset-paginated task listing.
+ * nextCursor is the ID to pass as "after" for the next page, or null on the last page.
+ */
+public class TaskPageDTO {
+    private List<TaskViewDTO> items;
+    private Long nextCursor;
+}
@@ -0,0 +1,21 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskReminderDTO holds what a due-date reminder needs: the task and whom to remind
+ * (the assignee, or the creator if the task is unassigned).
+ */
+public class TaskReminderDTO {
+    private Long id;
+    private String title;
+    private LocalDateTime dueDate;
+    private String recipient;
+}
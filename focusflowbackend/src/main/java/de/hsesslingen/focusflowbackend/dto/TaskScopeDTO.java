@@ -0,0 +1,16 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskScopeDTO is the team and assignee of a task (either may be null), i.e. who has to hear about a change of it.
+ */
+public class TaskScopeDTO {
+    private Long teamId;
+    private Long assigneeId;
+}
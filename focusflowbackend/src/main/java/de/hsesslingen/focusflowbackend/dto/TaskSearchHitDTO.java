@@ -0,0 +1,16 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskSearchHitDTO is one result of the full-text task search: the task and its relevance score.
+ */
+public class TaskSearchHitDTO {
+    private TaskViewDTO task;
+    private double score;
+}
@@ -0,0 +1,37 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskViewDTO is the read model of a task as the API returns it.
+ * It is filled directly by JPQL constructor expressions, so serializing it never touches the entity graph.
+ * The field order must match the constructor expressions in TaskRepository.
+ */
+public class TaskViewDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private String longDescription;
+    private LocalDateTime dueDate;
+    private TaskPriority priority;
+    private TaskStatus status;
+    private Long creatorId;
+    private Long assigneeId;
+    private Long teamId;
+    // Optimistic-locking version, also used as the ETag of the task
+    private Long version;
+    private LocalDateTime updatedAt;
+    // Position of the last change in the delta-sync feed
+    private Long changeSeq;
+    // Set by the deadline scheduler once the due date has passed
+    private boolean overdue;
+}
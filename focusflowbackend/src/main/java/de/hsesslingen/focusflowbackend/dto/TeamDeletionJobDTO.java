@@ -0,0 +1,28 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TeamDeletionJobDTO is the progress of a background team deletion.
+ * The totals are counted when the job starts; tasks or members added while it runs are deleted as well,
+ * so the deleted counts can end up above them.
+ */
+public class TeamDeletionJobDTO {
+    private String id;
+    private Long teamId;
+    private String status;
+    private long tasksTotal;
+    private long tasksDeleted;
+    private long membersTotal;
+    private long membersRemoved;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
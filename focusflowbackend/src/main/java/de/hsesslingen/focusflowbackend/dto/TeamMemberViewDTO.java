@@ -0,0 +1,25 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TeamMemberViewDTO is the read model of a team member inside a team response.
+ * teamId is only used to group the rows of a multi-team query and is not serialized;
+ * version only feeds the team's ETag.
+ */
+public class TeamMemberViewDTO {
+    @JsonIgnore
+    private Long teamId;
+    private Long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    @JsonIgnore
+    private Long version;
+}
@@ -0,0 +1,16 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TeamMembershipDTO is a single row of the team_members join table.
+ */
+public class TeamMembershipDTO {
+    private Long teamId;
+    private Long userId;
+}
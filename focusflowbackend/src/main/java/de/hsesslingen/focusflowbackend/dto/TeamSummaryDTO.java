@@ -0,0 +1,20 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TeamSummaryDTO is the compact team record for overviews: counts instead of the member and task lists.
+ * openTaskCount counts tasks that are not CLOSED.
+ */
+public class TeamSummaryDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private long memberCount;
+    private long openTaskCount;
+}
@@ -0,0 +1,19 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TeamSummaryPageDTO is one page of the keyset-paginated team summary listing.
+ * nextCursor is the ID to pass as "after" for the next page, or null on the last page.
+ */
+public class TeamSummaryPageDTO {
+    private List<TeamSummaryDTO> items;
+    private Long nextCursor;
+}
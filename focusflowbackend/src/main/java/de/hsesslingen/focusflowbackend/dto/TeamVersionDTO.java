@@ -0,0 +1,36 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TeamVersionDTO aggregates the versions of everything a team response contains:
+ * the team row, its tasks and its members. Any change to one of them changes the ETag.
+ * It is either computed by one aggregate query or from an already loaded TeamViewDTO; both give the same result.
+ */
+public class TeamVersionDTO {
+    private Long teamVersion;
+    private Long taskCount;
+    private Long taskVersionSum;
+    private Long maxTaskId;
+    private Long memberCount;
+    private Long memberVersionSum;
+
+    public static TeamVersionDTO of(TeamViewDTO team) {
+        return new TeamVersionDTO(team.getVersion(),
+                (long) team.getTasks().size(),
+                team.getTasks().stream().mapToLong(TaskViewDTO::getVersion).sum(),
+                team.getTasks().stream().mapToLong(TaskViewDTO::getId).max().orElse(0L),
+                (long) team.getMembers().size(),
+                team.getMembers().stream().mapToLong(TeamMemberViewDTO::getVersion).sum());
+    }
+
+    public String toETag() {
+        return "\"" + teamVersion + "-" + taskCount + "-" + taskVersionSum + "-" + maxTaskId
+                + "-" + memberCount + "-" + memberVersionSum + "\"";
+    }
+}
@@ -0,0 +1,33 @@
+package de.hsesslingen.focusflowbackend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+/**
+ * TeamViewDTO is the read model of a team as the API returns it.
+ * The team row comes from a constructor expression; members and tasks are attached
+ * afterwards from one query each for all teams of the response.
+ */
+public class TeamViewDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private LocalDateTime createdAt;
+    private Long version;
+    private List<TeamMemberViewDTO> members = new ArrayList<>();
+    private List<TaskViewDTO> tasks = new ArrayList<>();
+
+    public TeamViewDTO(Long id, String name, String description, LocalDateTime createdAt, Long version) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.createdAt = createdAt;
+        this.version = version;
+    }
+}
@@ -0,0 +1,35 @@
+package de.hsesslingen.focusflowbackend.event;
+
+/**
+ * Published by the services whenever a single task is created, updated or deleted.
+ * before is null for CREATED, after is null for DELETED.
+ * Listeners should use @TransactionalEventListener, so they only see committed changes.
+ */
+public record TaskChangedEvent(ChangeType type, TaskSnapshot before, TaskSnapshot after) {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static TaskChangedEvent created(TaskSnapshot after) {
+        return new TaskChangedEvent(ChangeType.CREATED, null, after);
+    }
+
+    public static TaskChangedEvent updated(TaskSnapshot before, TaskSnapshot after) {
+        return new TaskChangedEvent(ChangeType.UPDATED, before, after);
+    }
+
+    public static TaskChangedEvent deleted(TaskSnapshot before) {
+        return new TaskChangedEvent(ChangeType.DELETED, before, null);
+    }
+
+    // Method: ID of the changed task
+    public Long taskId() {
+        return after != null ? after.id() : before.id();
+    }
+
+    // Method: Change number of this change (the deletion's number for DELETED); null if none was taken
+    public Long changeSeq() {
+        return after != null ? after.changeSeq() : before.changeSeq();
+    }
+}
@@ -0,0 +1,29 @@
+package de.hsesslingen.focusflowbackend.event;
+
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copy of the fields of a task that listeners group and route by.
+ * Taken while the entity is attached, so listeners never touch lazy relations after commit.
+ * changeSeq is the change number (see TaskChangeSequence) of the change that led to this state;
+ * the snapshot in a DELETED event carries the number of the deletion. Null where no number was taken.
+ */
+public record TaskSnapshot(Long id, Long assigneeId, Long teamId,
+                           TaskStatus status, TaskPriority priority, LocalDateTime dueDate, Long changeSeq) {
+
+    public static TaskSnapshot of(Task task) {
+        return new TaskSnapshot(task.getId(),
+                task.getAssignee() != null ? task.getAssignee().getId() : null,
+                task.getTeam() != null ? task.getTeam().getId() : null,
+                task.getStatus(), task.getPriority(), task.getDueDate(), task.getChangeSeq());
+    }
+
+    // Method: The same state, attributed to another change (e.g. the deletion of the task)
+    public TaskSnapshot withChangeSeq(Long changeSeq) {
+        return new TaskSnapshot(id, assigneeId, teamId, status, priority, dueDate, changeSeq);
+    }
+}
@@ -0,0 +1,11 @@
+package de.hsesslingen.focusflowbackend.event;
+
+import java.util.Set;
+
+/**
+ * Published after a set-based bulk update. The statement does not load the tasks,
+ * so there are no per-task snapshots; listeners have to treat any task in the scope as possibly changed.
+ * The scope is every team and assignee a selected task had before or has after the update.
+ */
+public record TasksBulkUpdatedEvent(int updatedCount, Set<Long> teamIds, Set<Long> assigneeIds) {
+}
@@ -0,0 +1,15 @@
+package de.hsesslingen.focusflowbackend.event;
+
+import java.util.Set;
+
+/**
+ * Published whenever a team is created, renamed, gains or loses members or is deleted.
+ * memberIds are the users the change concerns: all members for CREATED and DELETED,
+ * the new members for MEMBERS_ADDED, the former members for MEMBERS_REMOVED and nobody extra for UPDATED.
+ */
+public record TeamChangedEvent(ChangeType type, Long teamId, Set<Long> memberIds) {
+
+    public enum ChangeType {
+        CREATED, UPDATED, MEMBERS_ADDED, MEMBERS_REMOVED, DELETED
+    }
+}
@@ -0,0 +1,206 @@
+package de.hsesslingen.focusflowbackend.membership;
+
+import de.hsesslingen.focusflowbackend.dto.TeamMembershipDTO;
+import de.hsesslingen.focusflowbackend.repository.TeamRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+/**
+ * TeamMembershipIndex keeps team membership in memory in both directions (user → teams, team → users)
+ * as sorted primitive long arrays, so membership checks need no database access.
+ * Arrays are never modified, only replaced, so readers need no lock.
+ * Mutations are applied when their transaction commits, so readers never see uncommitted memberships.
+ * Once loaded, every answer comes from the index; only before (or after a failed) load do queries go to the database.
+ */
+public class TeamMembershipIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TeamMembershipIndex.class);
+    private static final long[] NONE = new long[0];
+
+    private final TeamRepository teamRepository;
+
+    private final Object writeLock = new Object();
+    private volatile Map<Long, long[]> teamsByUser = new ConcurrentHashMap<>();
+    private volatile Map<Long, long[]> usersByTeam = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    // Mutations that happen while the index is loaded; replayed onto the loaded maps (guarded by writeLock)
+    private List<Runnable> duringLoad;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (writeLock) {
+            duringLoad = new ArrayList<>();
+        }
+        try {
+            Map<Long, List<Long>> teams = new HashMap<>();
+            Map<Long, List<Long>> users = new HashMap<>();
+            for (TeamMembershipDTO row : teamRepository.findAllMemberships()) {
+                teams.computeIfAbsent(row.getUserId(), id -> new ArrayList<>()).add(row.getTeamId());
+                users.computeIfAbsent(row.getTeamId(), id -> new ArrayList<>()).add(row.getUserId());
+            }
+            synchronized (writeLock) {
+                teamsByUser = toSortedArrays(teams);
+                usersByTeam = toSortedArrays(users);
+                duringLoad.forEach(Runnable::run);
+                duringLoad = null;
+                loaded = true;
+            }
+            LOGGER.info("Loaded team membership index: {} users, {} teams", teams.size(), users.size());
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                duringLoad = null;
+            }
+            LOGGER.error("Loading the team membership index failed, answering from the database: {}", e.getMessage(), e);
+        }
+    }
+
+    // Method: Do the two users have at least one team in common
+    public boolean shareAnyTeam(Long userId, Long otherUserId) {
+        if (!loaded) {
+            return teamRepository.existsSharedTeam(userId, otherUserId);
+        }
+        return intersects(teamsByUser.getOrDefault(userId, NONE), teamsByUser.getOrDefault(otherUserId, NONE));
+    }
+
+    // Method: IDs of the teams of a user, ascending
+    public long[] getTeamIds(Long userId) {
+        if (!loaded) {
+            return teamRepository.findTeamIdsByMemberId(userId).stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        return teamsByUser.getOrDefault(userId, NONE).clone();
+    }
+
+    // Method: IDs of the members of a team, ascending
+    public long[] getMemberIds(Long teamId) {
+        if (!loaded) {
+            return teamRepository.findMemberIdsByTeamId(teamId).stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        return usersByTeam.getOrDefault(teamId, NONE).clone();
+    }
+
+    // Method: Record that a user joined a team (call inside the transaction that writes team_members)
+    public void addMember(Long teamId, Long userId) {
+        afterCommit(() -> add(teamId, userId));
+    }
+
+    // Method: Record that a user left a team
+    public void removeMember(Long teamId, Long userId) {
+        afterCommit(() -> remove(teamId, userId));
+    }
+
+    // Method: Record that a team and all its memberships are gone
+    public void removeTeam(Long teamId) {
+        afterCommit(() -> {
+            for (long userId : usersByTeam.getOrDefault(teamId, NONE)) {
+                remove(teamId, userId);
+            }
+        });
+    }
+
+    // Helper method: Apply a change once the surrounding transaction has committed (right away without one)
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    // Helper method: Apply a change under the write lock and remember it for replay if a load is running
+    private void apply(Runnable change) {
+        synchronized (writeLock) {
+            change.run();
+            if (duringLoad != null) {
+                duringLoad.add(change);
+            }
+        }
+    }
+
+    private void add(Long teamId, Long userId) {
+        teamsByUser.put(userId, insert(teamsByUser.getOrDefault(userId, NONE), teamId));
+        usersByTeam.put(teamId, insert(usersByTeam.getOrDefault(teamId, NONE), userId));
+    }
+
+    private void remove(Long teamId, Long userId) {
+        replace(teamsByUser, userId, delete(teamsByUser.getOrDefault(userId, NONE), teamId));
+        replace(usersByTeam, teamId, delete(usersByTeam.getOrDefault(teamId, NONE), userId));
+    }
+
+    // Helper method: Store the new array, or drop the key if it is empty
+    private static void replace(Map<Long, long[]> map, Long key, long[] values) {
+        if (values.length == 0) {
+            map.remove(key);
+        } else {
+            map.put(key, values);
+        }
+    }
+
+    // Helper method: Copy with the value inserted in order; the same array if it is already there
+    static long[] insert(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index >= 0) {
+            return sorted;
+        }
+        int at = -index - 1;
+        long[] result = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(sorted, at, result, at + 1, sorted.length - at);
+        return result;
+    }
+
+    // Helper method: Copy without the value; the same array if it is not there
+    static long[] delete(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return sorted;
+        }
+        long[] result = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, index);
+        System.arraycopy(sorted, index + 1, result, index, sorted.length - index - 1);
+        return result;
+    }
+
+    // Helper method: Merge-style walk over two sorted arrays
+    static boolean intersects(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                return true;
+            }
+            if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+
+    private static Map<Long, long[]> toSortedArrays(Map<Long, List<Long>> lists) {
+        Map<Long, long[]> arrays = new ConcurrentHashMap<>(Math.max(16, lists.size() * 4 / 3 + 1));
+        lists.forEach((key, values) -> arrays.put(key, values.stream().mapToLong(Long::longValue).sorted().distinct().toArray()));
+        return arrays;
+    }
+}
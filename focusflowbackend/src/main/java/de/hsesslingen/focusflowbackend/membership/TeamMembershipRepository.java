@@ -0,0 +1,132 @@
+package de.hsesslingen.focusflowbackend.membership;
+
+import de.hsesslingen.focusflowbackend.model.Team;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+/**
+ * TeamMembershipRepository writes rows of the team_members join table directly with batched statements,
+ * so adding or removing a member never loads the team's member collection.
+ * Every statement is keyed by (team_id, user_id) or locks the single team row, so its cost depends on
+ * the number of users changed, not on the size of the team.
+ * It must run inside the caller's transaction; the team row lock serializes concurrent changes of one team.
+ * Changed teams are evicted from the second-level cache, which these statements bypass.
+ */
+public class TeamMembershipRepository {
+
+    // Keeps IN lists well below the bind parameter limits of PostgreSQL and H2
+    private static final int IN_CHUNK_SIZE = 500;
+
+    // Collection role of Team.members in the second-level cache
+    private static final String MEMBERS_ROLE = Team.class.getName() + ".members";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // Method: Lock the team row until the transaction ends; false if the team does not exist
+    public boolean lockTeam(Long teamId) {
+        return !jdbcTemplate.queryForList("SELECT id FROM teams WHERE id = ? FOR UPDATE", Long.class, teamId).isEmpty();
+    }
+
+    // Method: Insert the users that are not members yet; returns the IDs that were actually added
+    public Set<Long> addMembers(Long teamId, Collection<Long> userIds) {
+        Set<Long> added = new LinkedHashSet<>(userIds);
+        added.removeAll(findExistingMembers(teamId, added));
+        if (!added.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO team_members (team_id, user_id) VALUES (?, ?)",
+                    added.stream().map(userId -> new Object[] {teamId, userId}).toList());
+            evictTeam(teamId);
+        }
+        return added;
+    }
+
+    // Method: Delete the membership rows of the given users; returns the IDs that were actually removed
+    public Set<Long> removeMembers(Long teamId, Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(userIds));
+        Set<Long> removed = new LinkedHashSet<>();
+        if (ids.isEmpty()) {
+            return removed;
+        }
+        int[] counts = jdbcTemplate.batchUpdate("DELETE FROM team_members WHERE team_id = ? AND user_id = ?",
+                ids.stream().map(userId -> new Object[] {teamId, userId}).toList());
+        for (int i = 0; i < counts.length; i++) {
+            // Drivers may report SUCCESS_NO_INFO (-2) for batched statements; treat it as removed
+            if (counts[i] != 0) {
+                removed.add(ids.get(i));
+            }
+        }
+        if (!removed.isEmpty()) {
+            evictTeam(teamId);
+        }
+        return removed;
+    }
+
+    // Method: The first members of a team in user ID order, for removing a team's memberships in chunks
+    public List<Long> findMemberIds(Long teamId, int limit) {
+        return jdbcTemplate.queryForList("SELECT user_id FROM team_members WHERE team_id = ? ORDER BY user_id LIMIT ?",
+                Long.class, teamId, limit);
+    }
+
+    // Method: Bump the team's optimistic-locking version, as Hibernate would for a changed member collection
+    public void incrementVersion(Long teamId) {
+        jdbcTemplate.update("UPDATE teams SET version = version + 1 WHERE id = ?", teamId);
+        evictTeam(teamId);
+    }
+
+    // Method: Number of members of a team (an index range count on the join table's primary key)
+    public int countMembers(Long teamId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM team_members WHERE team_id = ?", Integer.class, teamId);
+        return count == null ? 0 : count;
+    }
+
+    // Helper method: Which of the given users are already members of the team
+    private Set<Long> findExistingMembers(Long teamId, Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        Set<Long> existing = new LinkedHashSet<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(teamId);
+            args.addAll(chunk);
+            existing.addAll(jdbcTemplate.queryForList(
+                    "SELECT user_id FROM team_members WHERE team_id = ? AND user_id IN (" + placeholders + ")",
+                    Long.class, args.toArray()));
+        }
+        return existing;
+    }
+
+    // Helper method: These statements bypass Hibernate, so drop the cached team and its member collection.
+    // Evicted again after the transaction, as a concurrent load may have cached the old rows in between.
+    private void evictTeam(Long teamId) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Runnable evict = () -> {
+            cache.evictEntityData(Team.class, teamId);
+            cache.evictCollectionData(MEMBERS_ROLE, teamId);
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+}
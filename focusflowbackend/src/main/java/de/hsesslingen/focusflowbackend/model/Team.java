@@ -4,6 +4,9 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -11,12 +14,20 @@ import de.hsesslingen.focusflowbackend.model.tasks.Task;
 
 @Entity
 @Data
-@EqualsAndHashCode(exclude = {"members","tasks"})
+@EqualsAndHashCode(exclude = {"members","tasks","version"})
 @Table(name = "teams")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teams")
 public class Team {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic locking; also the source of the ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @Column(nullable = false, unique = true)
     private String name;
     private String description;
@@ -30,6 +41,7 @@ public class Team {
       inverseJoinColumns = @JoinColumn(name = "user_id")
     )
     @JsonManagedReference("team-members")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team-members")
     private Set<User> members = new HashSet<>();
 
     // Team → Task (Inverse Side)
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -11,12 +14,20 @@ import de.hsesslingen.focusflowbackend.model.tasks.Task;
 
 @Entity
 @Data
-@EqualsAndHashCode(exclude = {"teams", "tasks"})
+@EqualsAndHashCode(exclude = {"teams", "tasks", "version"})
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic locking; also the source of the ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -35,7 +46,7 @@ public class User {
     private String lastName;
 
     private LocalDateTime createdAt = LocalDateTime.now();
-    private LocalDateTime lastLogin;
+    // users.last_login is mapped by UserLastLogin, not here, so login bookkeeping leaves the cached entity alone
 
     @ManyToMany(mappedBy = "members")
     @JsonIgnore
@@ -0,0 +1,26 @@
+package de.hsesslingen.focusflowbackend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Data
+@Table(name = "users")
+/**
+ * UserLastLogin is a read-only view of users.last_login. The column is written in batches by the LastLoginBuffer;
+ * keeping it out of the User entity keeps it out of the second-level cache, so those writes never evict a cached user.
+ */
+public class UserLastLogin {
+    @Id
+    private Long id;
+
+    @Column(name = "last_login")
+    private LocalDateTime lastLogin;
+}
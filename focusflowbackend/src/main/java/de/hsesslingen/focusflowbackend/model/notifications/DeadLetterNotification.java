@@ -0,0 +1,59 @@
+package de.hsesslingen.focusflowbackend.model.notifications;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "notification_dead_letters")
+// This class keeps a notification that could not be delivered after all retries, for inspection or manual replay
+public class DeadLetterNotification {
+    // Same ID as the outbox row it was moved from
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = OutboxNotification.SUBJECT_LENGTH)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    private Long taskId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+
+    public static DeadLetterNotification of(OutboxNotification notification) {
+        DeadLetterNotification deadLetter = new DeadLetterNotification();
+        deadLetter.setId(notification.getId());
+        deadLetter.setType(notification.getType());
+        deadLetter.setRecipient(notification.getRecipient());
+        deadLetter.setSubject(notification.getSubject());
+        deadLetter.setBody(notification.getBody());
+        deadLetter.setTaskId(notification.getTaskId());
+        deadLetter.setAttempts(notification.getAttempts());
+        deadLetter.setLastError(notification.getLastError());
+        deadLetter.setCreatedAt(notification.getCreatedAt());
+        deadLetter.setFailedAt(LocalDateTime.now());
+        return deadLetter;
+    }
+}
@@ -0,0 +1,53 @@
+package de.hsesslingen.focusflowbackend.model.notifications;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "notification_outbox", indexes = {
+    // The relay picks the due rows in this order
+    @Index(name = "idx_notification_outbox_due", columnList = "next_attempt_at, id")
+})
+// This class is a notification waiting to be delivered; it is written in the transaction of the change it announces
+public class OutboxNotification {
+    // Subjects are cut to this length; they contain task titles, which may fill a column of the same size alone
+    public static final int SUBJECT_LENGTH = 255;
+
+    // Pooled sequence, so outbox rows of a batch of tasks are inserted in JDBC batches as well
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = SUBJECT_LENGTH)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    private Long taskId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Also used as lease: a claimed row is pushed into the future until the relay reports back
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
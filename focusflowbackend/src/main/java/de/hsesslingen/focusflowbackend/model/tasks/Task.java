@@ -2,22 +2,50 @@ package de.hsesslingen.focusflowbackend.model.tasks;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import de.hsesslingen.focusflowbackend.model.Team;
 import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.search.TaskSearchIndexListener;
+import de.hsesslingen.focusflowbackend.sync.TaskChangeTrackingListener;
 
 @Entity
+@EntityListeners({TaskSearchIndexListener.class, TaskChangeTrackingListener.class})
 @Data
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    // Keyset pagination walks the primary key; these cover the filtered listings
+    @Index(name = "idx_tasks_assignee_id", columnList = "assignee_id, id"),
+    @Index(name = "idx_tasks_team_id", columnList = "team_id, id"),
+    @Index(name = "idx_tasks_status_id", columnList = "status, id"),
+    // Open-task counts per team (team summaries) without reading the task rows
+    @Index(name = "idx_tasks_team_status", columnList = "team_id, status"),
+    // Calendar range queries per assignee / team
+    @Index(name = "idx_tasks_assignee_due", columnList = "assignee_id, due_date"),
+    @Index(name = "idx_tasks_team_due", columnList = "team_id, due_date"),
+    // Delta-sync feed walks the change sequence
+    @Index(name = "idx_tasks_change_seq", columnList = "change_seq, id"),
+    // Deadline scheduler loads upcoming due dates in this order
+    @Index(name = "idx_tasks_due_date", columnList = "due_date, id")
+})
 // This class represents a task in the system
 public class Task {
+    // Pooled sequence instead of IDENTITY, so inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
+    // Optimistic locking; also the source of the ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "creator_id", nullable = false)
     @JsonBackReference("user-created-tasks")
@@ -50,5 +78,23 @@ public class Task {
     @JoinColumn(name = "team_id")
     @JsonBackReference("team-tasks")
     // The task can be assigned to a team, but it's not mandatory
-    private Team team;   
+    private Team team;
+
+    // Change tracking for the delta-sync feed, set by TaskChangeTrackingListener on every insert and update
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime updatedAt;
+
+    @EqualsAndHashCode.Exclude
+    private Long changeSeq;
+
+    // Deadline state, set by the deadline scheduler and reset when the due date changes
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    private boolean reminderSent;
+
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    private boolean overdue;
 }
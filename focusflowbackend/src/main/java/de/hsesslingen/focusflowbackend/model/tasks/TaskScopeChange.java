@@ -0,0 +1,38 @@
+package de.hsesslingen.focusflowbackend.model.tasks;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "task_scope_changes", indexes = {
+    @Index(name = "idx_task_scope_changes_user", columnList = "user_id, change_seq"),
+    @Index(name = "idx_task_scope_changes_changed_at", columnList = "changed_at")
+})
+// This class records that a user joined or left a team, which changes the user's delta-sync scope; its change number is the primary key
+public class TaskScopeChange {
+    @Id
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long teamId;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    public static TaskScopeChange of(Long userId, Long teamId, long changeSeq) {
+        TaskScopeChange scopeChange = new TaskScopeChange();
+        scopeChange.setChangeSeq(changeSeq);
+        scopeChange.setUserId(userId);
+        scopeChange.setTeamId(teamId);
+        scopeChange.setChangedAt(LocalDateTime.now());
+        return scopeChange;
+    }
+}
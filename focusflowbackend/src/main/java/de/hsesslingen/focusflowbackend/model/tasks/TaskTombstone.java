@@ -0,0 +1,50 @@
+package de.hsesslingen.focusflowbackend.model.tasks;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "task_tombstones", indexes = {
+    @Index(name = "idx_task_tombstones_removed_at", columnList = "removed_at")
+})
+// This class records a deleted task for the delta-sync feed; its change number is the primary key
+public class TaskTombstone {
+    @Id
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    // Scope of the task when it was deleted (plain IDs, the user or team may be gone as well)
+    private Long creatorId;
+    private Long assigneeId;
+    private Long teamId;
+
+    @Column(nullable = false)
+    private LocalDateTime removedAt;
+
+    public static TaskTombstone of(Task task, long changeSeq) {
+        return of(task.getId(),
+                task.getCreator() != null ? task.getCreator().getId() : null,
+                task.getAssignee() != null ? task.getAssignee().getId() : null,
+                task.getTeam() != null ? task.getTeam().getId() : null,
+                changeSeq);
+    }
+
+    // For deletions that never load the task entity
+    public static TaskTombstone of(Long taskId, Long creatorId, Long assigneeId, Long teamId, long changeSeq) {
+        TaskTombstone tombstone = new TaskTombstone();
+        tombstone.setChangeSeq(changeSeq);
+        tombstone.setTaskId(taskId);
+        tombstone.setCreatorId(creatorId);
+        tombstone.setAssigneeId(assigneeId);
+        tombstone.setTeamId(teamId);
+        tombstone.setRemovedAt(LocalDateTime.now());
+        return tombstone;
+    }
+}
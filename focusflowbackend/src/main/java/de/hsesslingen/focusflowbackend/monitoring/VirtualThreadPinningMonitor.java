@@ -0,0 +1,93 @@
+package de.hsesslingen.focusflowbackend.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+/**
+ * VirtualThreadPinningMonitor reports virtual threads that block while pinned to their carrier thread, e.g. inside
+ * a synchronized block of a JDBC driver, which takes a carrier away from all other virtual threads.
+ * It streams the JFR event jdk.VirtualThreadPinned in-process into the timer focusflow.virtual_threads.pinned
+ * and logs each distinct pinning location once. Only active in virtual-thread mode.
+ */
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    // Locations logged so far; bounded so a pathological case cannot grow it forever
+    private static final int MAX_LOGGED_LOCATIONS = 100;
+
+    private final Timer pinned;
+    private final Set<String> loggedLocations = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    // Pinning shorter than this is not recorded (the JDK default is 20 ms)
+    @Value("${focusflow.virtual-threads.pinned-threshold:PT0.02S}")
+    private Duration threshold = Duration.ofMillis(20);
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinned = Timer.builder("focusflow.virtual_threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Virtual thread pinning is not monitored, JFR streaming is not available: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    // Helper method: Count the event and log where it happened, once per location
+    void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        String location = location(event);
+        if (loggedLocations.size() < MAX_LOGGED_LOCATIONS && loggedLocations.add(location)) {
+            LOGGER.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), location);
+        }
+    }
+
+    // Helper method: The innermost frame outside the JDK, which is usually the code holding the monitor
+    private static String location(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frames.get(0).getMethod().getType().getName() + "." + frames.get(0).getMethod().getName();
+    }
+}
@@ -0,0 +1,36 @@
+package de.hsesslingen.focusflowbackend.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Stand-in sender for tests and local runs: appends every notification as one JSON line to a file
+@Component
+@ConditionalOnProperty(name = "focusflow.notifications.sender", havingValue = "file")
+public class FileNotificationSender implements NotificationSender {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public FileNotificationSender(ObjectMapper objectMapper,
+                                  @Value("${focusflow.notifications.file:${java.io.tmpdir}/focusflow-notifications.ndjson}") Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void send(Notification notification) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, objectMapper.writeValueAsString(notification) + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
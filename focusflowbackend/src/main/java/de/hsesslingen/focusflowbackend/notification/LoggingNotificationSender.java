@@ -0,0 +1,20 @@
+package de.hsesslingen.focusflowbackend.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Stand-in sender (default): writes notifications to the log instead of delivering them
+@Component
+@ConditionalOnProperty(name = "focusflow.notifications.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationSender implements NotificationSender {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingNotificationSender.class);
+
+    @Override
+    public void send(Notification notification) {
+        LOGGER.info("Notification {} ({}) to {}: {}", notification.id(), notification.type(),
+                notification.recipient(), notification.subject());
+    }
+}
@@ -0,0 +1,15 @@
+package de.hsesslingen.focusflowbackend.notification;
+
+import de.hsesslingen.focusflowbackend.model.notifications.OutboxNotification;
+
+/**
+ * A notification handed to a NotificationSender, detached from the outbox row.
+ * Delivery is at least once; id stays the same across retries, so receivers can drop duplicates.
+ */
+public record Notification(Long id, String type, String recipient, String subject, String body, Long taskId, int attempt) {
+
+    public static Notification of(OutboxNotification row) {
+        return new Notification(row.getId(), row.getType(), row.getRecipient(), row.getSubject(), row.getBody(),
+                row.getTaskId(), row.getAttempts());
+    }
+}
@@ -0,0 +1,113 @@
+package de.hsesslingen.focusflowbackend.notification;
+
+import de.hsesslingen.focusflowbackend.model.notifications.DeadLetterNotification;
+import de.hsesslingen.focusflowbackend.model.notifications.OutboxNotification;
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import de.hsesslingen.focusflowbackend.repository.DeadLetterNotificationRepository;
+import de.hsesslingen.focusflowbackend.repository.OutboxNotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+/**
+ * NotificationOutboxService writes notifications into the outbox table and manages their delivery state.
+ * Writing happens in the caller's transaction, so a notification exists exactly if the change it announces was committed.
+ * Each state change of the relay is a short transaction of its own; no transaction is open while a notification is sent.
+ */
+public class NotificationOutboxService {
+
+    public static final String TASK_ASSIGNED = "TASK_ASSIGNED";
+    public static final String TASK_DUE_SOON = "TASK_DUE_SOON";
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OutboxNotificationRepository outboxRepository;
+    private final DeadLetterNotificationRepository deadLetterRepository;
+
+    // Method: Queue the notification for the assignee of a new task (only inside the transaction that saves the task)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueTaskAssigned(Task task) {
+        enqueue(TASK_ASSIGNED, task.getAssignee().getEmail(), "New task assigned: " + task.getTitle(),
+                task.getCreator().getEmail() + " assigned you the task \"" + task.getTitle() + "\""
+                        + (task.getDueDate() != null ? ", due " + task.getDueDate().toLocalDate() : "") + ".",
+                task.getId());
+    }
+
+    // Method: Queue any notification as part of the caller's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String type, String recipient, String subject, String body, Long taskId) {
+        OutboxNotification notification = new OutboxNotification();
+        notification.setType(type);
+        notification.setRecipient(recipient);
+        notification.setSubject(abbreviate(subject, OutboxNotification.SUBJECT_LENGTH));
+        notification.setBody(body);
+        notification.setTaskId(taskId);
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setNextAttemptAt(notification.getCreatedAt());
+        outboxRepository.save(notification);
+    }
+
+    // Method: Claim up to batchSize due notifications; they are hidden from other relays until the lease runs out
+    @Transactional
+    public List<Notification> claimDue(int batchSize, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxNotification> due = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+        for (OutboxNotification notification : due) {
+            notification.setAttempts(notification.getAttempts() + 1);
+            notification.setNextAttemptAt(now.plus(lease));
+        }
+        return due.stream().map(Notification::of).toList();
+    }
+
+    // Method: Remove delivered notifications with one statement
+    @Transactional
+    public void markDelivered(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(ids);
+        }
+    }
+
+    // Method: Record a failed attempt and schedule the next one
+    @Transactional
+    public void reschedule(Long id, String error, LocalDateTime nextAttemptAt) {
+        outboxRepository.findById(id).ifPresent(notification -> {
+            notification.setLastError(truncate(error));
+            notification.setNextAttemptAt(nextAttemptAt);
+        });
+    }
+
+    // Method: Give up on a notification and move it to the dead-letter table
+    @Transactional
+    public void moveToDeadLetter(Long id, String error) {
+        outboxRepository.findById(id).ifPresent(notification -> {
+            notification.setLastError(truncate(error));
+            deadLetterRepository.save(DeadLetterNotification.of(notification));
+            outboxRepository.delete(notification);
+        });
+    }
+
+    public long countPending() {
+        return outboxRepository.count();
+    }
+
+    public long countDeadLetters() {
+        return deadLetterRepository.count();
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    // Helper method: Cut text to maxLength, marking the cut with "..."
+    private static String abbreviate(String text, int maxLength) {
+        return text != null && text.length() > maxLength ? text.substring(0, maxLength - 3) + "..." : text;
+    }
+}
@@ -0,0 +1,159 @@
+package de.hsesslingen.focusflowbackend.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+/**
+ * NotificationRelay drains the outbox in the background and hands notifications to the NotificationSender.
+ * A batch is sent in parallel on virtual threads, so one slow delivery does not hold up the others.
+ * Failed attempts are retried with exponential backoff and jitter; after max-attempts the
+ * notification moves to the dead-letter table. Task creation never waits for any of this.
+ */
+public class NotificationRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationRelay.class);
+    // Upper bound of batches per run, so a large backlog does not keep one scheduler thread busy forever
+    private static final int MAX_BATCHES_PER_RUN = 50;
+
+    private final NotificationOutboxService outboxService;
+    private final NotificationSender sender;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer sendTimer;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong deadLetters = new AtomicLong();
+
+    @Value("${focusflow.notifications.batch-size:50}")
+    private int batchSize = 50;
+
+    // Longer than any send may take; a row whose relay crashed is picked up again after this
+    @Value("${focusflow.notifications.lease:PT5M}")
+    private Duration lease = Duration.ofMinutes(5);
+
+    @Value("${focusflow.notifications.max-attempts:8}")
+    private int maxAttempts = 8;
+
+    @Value("${focusflow.notifications.retry-backoff:PT10S}")
+    private Duration retryBackoff = Duration.ofSeconds(10);
+
+    @Value("${focusflow.notifications.max-retry-backoff:PT1H}")
+    private Duration maxRetryBackoff = Duration.ofHours(1);
+
+    public NotificationRelay(NotificationOutboxService outboxService, NotificationSender sender, MeterRegistry meterRegistry) {
+        this.outboxService = outboxService;
+        this.sender = sender;
+        this.sendTimer = Timer.builder("focusflow.notifications.send")
+                .description("Time spent in the notification sender per attempt").register(meterRegistry);
+        this.delivered = Counter.builder("focusflow.notifications.delivered").register(meterRegistry);
+        this.retried = Counter.builder("focusflow.notifications.retried").register(meterRegistry);
+        this.deadLettered = Counter.builder("focusflow.notifications.dead_lettered").register(meterRegistry);
+        Gauge.builder("focusflow.notifications.outbox.size", pending, AtomicLong::get)
+                .description("Notifications waiting for delivery").register(meterRegistry);
+        Gauge.builder("focusflow.notifications.dead_letter.size", deadLetters, AtomicLong::get)
+                .description("Notifications that could not be delivered").register(meterRegistry);
+    }
+
+    // Method: Deliver everything that is due, batch by batch
+    @Scheduled(fixedDelayString = "${focusflow.notifications.poll-interval:PT1S}")
+    public void relay() {
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            List<Notification> claimed = outboxService.claimDue(batchSize, lease);
+            if (claimed.isEmpty()) {
+                return;
+            }
+            deliver(claimed);
+            if (claimed.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    // The counts need a query each, so the gauges are refreshed on their own schedule instead of per scrape
+    @Scheduled(fixedDelayString = "${focusflow.notifications.metrics-interval:PT30S}")
+    public void refreshBacklogMetrics() {
+        pending.set(outboxService.countPending());
+        deadLetters.set(outboxService.countDeadLetters());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+
+    // Helper method: Send a batch in parallel, then record the outcome of every notification
+    void deliver(List<Notification> notifications) {
+        List<Future<?>> sends = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            sends.add(senders.submit(() -> {
+                sendTimer.recordCallable(() -> {
+                    sender.send(notification);
+                    return null;
+                });
+                return null;
+            }));
+        }
+
+        List<Long> deliveredIds = new ArrayList<>();
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            try {
+                sends.get(i).get();
+                deliveredIds.add(notification.id());
+            } catch (InterruptedException e) {
+                // Shutting down: the lease runs out and the rows are claimed again later
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                failed(notification, e.getCause());
+            }
+        }
+        outboxService.markDelivered(deliveredIds);
+        delivered.increment(deliveredIds.size());
+    }
+
+    // Helper method: Retry later, or give up after the last attempt
+    private void failed(Notification notification, Throwable error) {
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        if (notification.attempt() >= maxAttempts) {
+            LOGGER.error("Notification {} to {} failed {} times, moving it to the dead-letter table: {}",
+                    notification.id(), notification.recipient(), notification.attempt(), message);
+            outboxService.moveToDeadLetter(notification.id(), message);
+            deadLettered.increment();
+        } else {
+            Duration delay = backoff(notification.attempt());
+            LOGGER.warn("Notification {} to {} failed (attempt {}), retrying in {}: {}",
+                    notification.id(), notification.recipient(), notification.attempt(), delay, message);
+            outboxService.reschedule(notification.id(), message, LocalDateTime.now().plus(delay));
+            retried.increment();
+        }
+    }
+
+    // Helper method: retry-backoff doubled per attempt, capped, with +/-20 % jitter so failed rows do not retry in lockstep
+    Duration backoff(int attempt) {
+        long capped = Math.min(retryBackoff.toMillis() << Math.min(attempt - 1, 30), maxRetryBackoff.toMillis());
+        return Duration.ofMillis((long) (capped * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+    }
+}
@@ -0,0 +1,11 @@
+package de.hsesslingen.focusflowbackend.notification;
+
+/**
+ * Delivery channel used by the NotificationRelay (mail, chat, push, ...).
+ * Exactly one implementation is active, selected with focusflow.notifications.sender.
+ * Any exception counts as a failed attempt and is retried with backoff.
+ */
+public interface NotificationSender {
+
+    void send(Notification notification) throws Exception;
+}
@@ -0,0 +1,132 @@
+package de.hsesslingen.focusflowbackend.overload;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+/**
+ * AdaptiveConcurrencyLimiter caps the number of API requests in progress at a limit that follows the observed latency
+ * and connection waits in the pool or the BulkheadDataSource (see GradientLimit), instead of letting requests queue
+ * for connections until they time out.
+ * Reads may use the whole limit, writes most of it and bulk or admin requests only half, so under overload
+ * the expensive traffic is turned away first. A request over its share is rejected at once.
+ * Only reads and writes feed the latency samples: bulk requests are slow by nature and would shrink the limit
+ * for everyone else.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    public enum Priority {
+        READ(1.0), WRITE(0.9), BULK(0.5);
+
+        // Share of the limit requests of this priority may fill
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private final GradientLimit gradientLimit;
+    private final ObjectProvider<DataSource> dataSource;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+    private volatile int limit;
+    private volatile BulkheadDataSource bulkhead;
+    private volatile HikariPoolMXBean pool;
+
+    public AdaptiveConcurrencyLimiter(ObjectProvider<DataSource> dataSource, MeterRegistry meterRegistry,
+                                      @Value("${focusflow.concurrency-limit.initial-limit:50}") int initialLimit,
+                                      @Value("${focusflow.concurrency-limit.min-limit:10}") int minLimit,
+                                      @Value("${focusflow.concurrency-limit.max-limit:400}") int maxLimit,
+                                      @Value("${focusflow.concurrency-limit.smoothing:0.2}") double smoothing) {
+        this.gradientLimit = new GradientLimit(initialLimit, minLimit, maxLimit, smoothing);
+        this.limit = initialLimit;
+        this.dataSource = dataSource;
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("focusflow.concurrency_limit.rejected").tag("priority", priority.name().toLowerCase())
+                    .description("Requests rejected because the concurrency limit was reached").register(meterRegistry));
+        }
+    }
+
+    // The gauges observe this object, so they are registered once it is constructed (Spring binds MeterBinder beans)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("focusflow.concurrency_limit.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current concurrency limit").register(registry);
+        Gauge.builder("focusflow.concurrency_limit.inflight", inflight, AtomicInteger::get)
+                .description("Requests in progress").register(registry);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // Method: Admit a request; false if its priority's share of the limit is used up. Admitted requests must call release
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                rejected.get(priority).increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Method: A request of the given priority admitted by tryAcquire has finished after rttNanos
+    public void release(Priority priority, long rttNanos) {
+        int current = inflight.getAndDecrement();
+        if (priority == Priority.BULK) {
+            return;
+        }
+        boolean poolWaiting = poolWaiting();
+        synchronized (gradientLimit) {
+            limit = gradientLimit.onSample(rttNanos, current, poolWaiting);
+        }
+    }
+
+    // Helper method: Whether requests wait for a database connection right now, in the bulkhead or in the pool
+    private boolean poolWaiting() {
+        if (pool == null) {
+            findPool();
+        }
+        BulkheadDataSource bulkheadDataSource = bulkhead;
+        HikariPoolMXBean hikariPool = pool;
+        return (bulkheadDataSource != null && bulkheadDataSource.getWaiting() > 0)
+                || (hikariPool != null && hikariPool.getThreadsAwaitingConnection() > 0);
+    }
+
+    // Helper method: The bulkhead and the Hikari pool behind the data source; the pool is null until it has started
+    private void findPool() {
+        DataSource source = dataSource.getIfAvailable();
+        if (source == null) {
+            return;
+        }
+        try {
+            if (source.isWrapperFor(BulkheadDataSource.class)) {
+                bulkhead = source.unwrap(BulkheadDataSource.class);
+            }
+            if (source.isWrapperFor(HikariDataSource.class)) {
+                pool = source.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            // Not a Hikari pool: latency alone drives the limit
+        }
+    }
+}
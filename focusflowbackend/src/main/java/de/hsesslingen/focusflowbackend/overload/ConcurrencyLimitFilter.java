@@ -0,0 +1,76 @@
+package de.hsesslingen.focusflowbackend.overload;
+
+import de.hsesslingen.focusflowbackend.overload.AdaptiveConcurrencyLimiter.Priority;
+import de.hsesslingen.focusflowbackend.security.RateLimitFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+@Component
+@Order(RateLimitFilter.ORDER + 1)
+@RequiredArgsConstructor
+/**
+ * ConcurrencyLimitFilter puts every API request through the AdaptiveConcurrencyLimiter and answers the ones
+ * it rejects with 503 right away. The push stream is left out: its requests stay open for minutes
+ * and hold no database connection.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    // Expensive requests that are shed first: batch and bulk writes, exports, team deletion, password hashing
+    private static final List<String> BULK_PATHS = List.of("/api/tasks/batch", "/api/tasks/bulk-update", "/api/tasks/export",
+            "/api/user/login", "/api/user/register");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Value("${focusflow.concurrency-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || !uri.startsWith("/api/") || uri.startsWith("/api/push/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = priority(request);
+        if (!limiter.tryAcquire(priority)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(priority, System.nanoTime() - start);
+        }
+    }
+
+    // Helper method: Reads before writes before bulk and admin requests
+    static Priority priority(HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        if (BULK_PATHS.stream().anyMatch(uri::startsWith)
+                || ("DELETE".equals(method) && uri.startsWith("/api/teams/"))
+                || uri.startsWith("/api/user/role")) {
+            return Priority.BULK;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return Priority.READ;
+        }
+        return Priority.WRITE;
+    }
+}
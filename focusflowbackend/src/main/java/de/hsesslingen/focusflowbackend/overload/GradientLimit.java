@@ -0,0 +1,78 @@
+package de.hsesslingen.focusflowbackend.overload;
+
+/**
+ * Concurrency limit estimated from latency, in the style of the gradient algorithm: a long-term average round-trip
+ * time stands for the uncongested latency, a short-term one for the current latency. Their ratio (the gradient)
+ * shrinks the limit as soon as requests get slower, while a headroom of sqrt(limit) lets it grow while they do not.
+ * Waiting for a database connection counts as congestion even before it shows in the latency. A single sample
+ * counts as at most MAX_SAMPLE_FACTOR times the long-term average, so one slow request cannot collapse the limit,
+ * while latency that stays high still drives the gradient to its minimum. Not thread-safe;
+ * AdaptiveConcurrencyLimiter serializes the updates.
+ */
+class GradientLimit {
+
+    // Latency may exceed the long-term average by this factor before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+    // Lower bound of the gradient, so one slow sample at most halves the limit
+    private static final double MIN_GRADIENT = 0.5;
+    // Gradient while requests wait for a pooled connection
+    private static final double POOL_WAIT_GRADIENT = 0.9;
+    // Samples count as at most this multiple of the long-term average; high enough to still reach MIN_GRADIENT
+    private static final double MAX_SAMPLE_FACTOR = 4.0;
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+
+    private double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    // Method: Take one completed request into account; returns the new limit
+    int onSample(long rttNanos, int inflight, boolean poolWaiting) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+        } else {
+            double sample = Math.min(rttNanos, MAX_SAMPLE_FACTOR * longRtt);
+            shortRtt += (sample - shortRtt) / SHORT_WINDOW;
+            longRtt += (sample - longRtt) / LONG_WINDOW;
+        }
+        // After a long overload the long-term average has drifted up with it; pull it back towards the current latency
+        if (longRtt > 2 * shortRtt) {
+            longRtt = longRtt * 0.95 + shortRtt * 0.05;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double newLimit;
+        if (poolWaiting) {
+            // No headroom: the pool is already the bottleneck
+            newLimit = limit * Math.min(gradient, POOL_WAIT_GRADIENT);
+        } else {
+            newLimit = limit * gradient + Math.sqrt(limit);
+        }
+        // Far below the limit the latency says nothing about whether more would fit: do not grow
+        if (newLimit > limit && inflight < limit / 2) {
+            return (int) limit;
+        }
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        return (int) limit;
+    }
+}
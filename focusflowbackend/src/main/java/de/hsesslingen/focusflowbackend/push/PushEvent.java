@@ -0,0 +1,10 @@
+package de.hsesslingen.focusflowbackend.push;
+
+/**
+ * One queued server-sent event. The payload is serialized once and shared by all connections it is sent to.
+ * A null name marks a heartbeat, which is written as an SSE comment.
+ */
+record PushEvent(String name, String json) {
+
+    static final PushEvent HEARTBEAT = new PushEvent(null, null);
+}
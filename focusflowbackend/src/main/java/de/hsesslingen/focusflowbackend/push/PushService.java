@@ -0,0 +1,267 @@
+package de.hsesslingen.focusflowbackend.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.hsesslingen.focusflowbackend.dto.ChangeNotificationDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.event.TasksBulkUpdatedEvent;
+import de.hsesslingen.focusflowbackend.event.TeamChangedEvent;
+import de.hsesslingen.focusflowbackend.repository.TeamRepository;
+import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+/**
+ * PushService keeps the open SSE connections and fans committed task and team changes out to them.
+ * Connections are indexed by user and by team. Each one has a bounded buffer; a client that falls
+ * so far behind that its buffer is full is disconnected and has to reconnect and catch up
+ * with the delta-sync feed. Buffers are written on virtual threads, so a slow socket blocks only its own writer.
+ */
+public class PushService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PushService.class);
+
+    private final UserRepository userRepository;
+    private final TeamRepository teamRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${focusflow.push.buffer-size:64}")
+    private int bufferSize = 64;
+
+    @Value("${focusflow.push.timeout:PT30M}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    private final Map<Long, Set<PushSubscription>> byUser = new ConcurrentHashMap<>();
+    private final Map<Long, Set<PushSubscription>> byTeam = new ConcurrentHashMap<>();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong evicted = new AtomicLong();
+
+    // Method: Open a connection for a user; without team IDs it covers all teams of the user (and follows new ones)
+    public SseEmitter subscribe(Long userId, Collection<Long> teamIds) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with ID: " + userId);
+        }
+        Set<Long> memberOf = new HashSet<>(teamRepository.findTeamIdsByMemberId(userId));
+        boolean allTeams = teamIds == null || teamIds.isEmpty();
+        if (!allTeams && !memberOf.containsAll(teamIds)) {
+            throw new IllegalArgumentException("User " + userId + " is not a member of all requested teams");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        PushSubscription subscription = new PushSubscription(userId, allTeams ? memberOf : new HashSet<>(teamIds),
+                allTeams, emitter, bufferSize);
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(error -> unregister(subscription));
+        register(subscription);
+
+        deliver(List.of(subscription), new PushEvent("subscribed",
+                toJson(Map.of("userId", userId, "teamIds", subscription.getTeamIds()))));
+        return emitter;
+    }
+
+    // Method: Number of open connections
+    public int getConnectionCount() {
+        return byUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Method: Number of connections closed because their buffer was full
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    // Method: Open connections of a user
+    Set<PushSubscription> getSubscriptions(Long userId) {
+        return byUser.getOrDefault(userId, Set.of());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        Set<Long> users = new HashSet<>();
+        Set<Long> teams = new HashSet<>();
+        for (TaskSnapshot task : new TaskSnapshot[] {event.before(), event.after()}) {
+            if (task != null) {
+                addIfPresent(users, task.assigneeId());
+                addIfPresent(teams, task.teamId());
+            }
+        }
+        TaskSnapshot current = event.after() != null ? event.after() : event.before();
+        PushEvent push = new PushEvent("task",
+                toJson(new ChangeNotificationDTO(event.type().name(), event.taskId(), current.teamId())));
+        deliver(targets(users, teams), push);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeamChanged(TeamChangedEvent event) {
+        Set<Long> members = event.memberIds() != null ? event.memberIds() : Set.of();
+        if (event.type() == TeamChangedEvent.ChangeType.CREATED || event.type() == TeamChangedEvent.ChangeType.MEMBERS_ADDED) {
+            followIntoTeam(event.teamId(), members);
+        }
+        PushEvent push = new PushEvent("team",
+                toJson(new ChangeNotificationDTO(event.type().name(), event.teamId(), event.teamId())));
+        deliver(targets(members, Set.of(event.teamId())), push);
+        if (event.type() == TeamChangedEvent.ChangeType.DELETED) {
+            Set<PushSubscription> removed = byTeam.remove(event.teamId());
+            if (removed != null) {
+                removed.forEach(subscription -> subscription.getTeamIds().remove(event.teamId()));
+            }
+        }
+        if (event.type() == TeamChangedEvent.ChangeType.MEMBERS_REMOVED) {
+            leaveTeam(event.teamId(), members);
+        }
+    }
+
+    // A bulk update does not say which tasks it touched, so the clients in its scope are told to catch up with the delta-sync feed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksBulkUpdated(TasksBulkUpdatedEvent event) {
+        if (event.updatedCount() > 0) {
+            deliver(targets(event.assigneeIds(), event.teamIds()),
+                    new PushEvent("resync", toJson(Map.of("updatedCount", event.updatedCount()))));
+        }
+    }
+
+    // Keeps idle connections open through proxies and finds clients that stopped reading
+    @Scheduled(fixedDelayString = "${focusflow.push.heartbeat-interval:PT30S}")
+    public void sendHeartbeats() {
+        deliver(allSubscriptions(), PushEvent.HEARTBEAT);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (PushSubscription subscription : allSubscriptions()) {
+            subscription.close();
+            subscription.getEmitter().complete();
+        }
+        writers.shutdown();
+    }
+
+    // Helper method: Queue an event on each connection and start a writer where none is running
+    private void deliver(Collection<PushSubscription> subscriptions, PushEvent event) {
+        for (PushSubscription subscription : subscriptions) {
+            if (!subscription.offer(event)) {
+                if (!subscription.isClosed()) {
+                    evict(subscription);
+                }
+            } else if (subscription.tryStartDrain()) {
+                writers.execute(() -> drain(subscription));
+            }
+        }
+    }
+
+    // Helper method: Runs on a virtual thread; a failed write means the client is gone
+    private void drain(PushSubscription subscription) {
+        try {
+            subscription.drain();
+        } catch (Exception e) {
+            subscription.close();
+            unregister(subscription);
+        }
+    }
+
+    // Helper method: Disconnect a client whose buffer is full; the emitter is completed off the publishing thread
+    private void evict(PushSubscription subscription) {
+        subscription.close();
+        unregister(subscription);
+        evicted.incrementAndGet();
+        LOGGER.info("Closed push connection of user {}: buffer of {} events full", subscription.getUserId(), bufferSize);
+        writers.execute(() -> subscription.getEmitter().complete());
+    }
+
+    // Helper method: Connections of the given users and teams, each at most once
+    private Set<PushSubscription> targets(Collection<Long> userIds, Collection<Long> teamIds) {
+        Set<PushSubscription> targets = new HashSet<>();
+        userIds.forEach(userId -> targets.addAll(byUser.getOrDefault(userId, Set.of())));
+        teamIds.forEach(teamId -> targets.addAll(byTeam.getOrDefault(teamId, Set.of())));
+        return targets;
+    }
+
+    private Set<PushSubscription> allSubscriptions() {
+        Set<PushSubscription> all = new HashSet<>();
+        byUser.values().forEach(all::addAll);
+        return all;
+    }
+
+    // Helper method: Connections that cover all teams of their user also cover a team the user just joined
+    private void followIntoTeam(Long teamId, Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            for (PushSubscription subscription : byUser.getOrDefault(userId, Set.of())) {
+                if (subscription.followsMembership() && subscription.getTeamIds().add(teamId)) {
+                    addTo(byTeam, teamId, subscription);
+                }
+            }
+        }
+    }
+
+    // Helper method: Users who left a team stop hearing about it, whether they subscribed to it explicitly or not
+    private void leaveTeam(Long teamId, Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            for (PushSubscription subscription : byUser.getOrDefault(userId, Set.of())) {
+                if (subscription.getTeamIds().remove(teamId)) {
+                    removeFrom(byTeam, teamId, subscription);
+                }
+            }
+        }
+    }
+
+    private void register(PushSubscription subscription) {
+        addTo(byUser, subscription.getUserId(), subscription);
+        subscription.getTeamIds().forEach(teamId -> addTo(byTeam, teamId, subscription));
+    }
+
+    private void unregister(PushSubscription subscription) {
+        removeFrom(byUser, subscription.getUserId(), subscription);
+        subscription.getTeamIds().forEach(teamId -> removeFrom(byTeam, teamId, subscription));
+    }
+
+    // compute() keeps adding and removing the last entry of a set atomically, so no connection lands in a dropped set
+    private static void addTo(Map<Long, Set<PushSubscription>> index, Long key, PushSubscription subscription) {
+        index.compute(key, (k, set) -> {
+            Set<PushSubscription> subscriptions = set != null ? set : ConcurrentHashMap.newKeySet();
+            subscriptions.add(subscription);
+            return subscriptions;
+        });
+    }
+
+    private static void removeFrom(Map<Long, Set<PushSubscription>> index, Long key, PushSubscription subscription) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize push event", e);
+        }
+    }
+}
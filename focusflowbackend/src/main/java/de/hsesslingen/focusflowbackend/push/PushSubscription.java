@@ -0,0 +1,106 @@
+package de.hsesslingen.focusflowbackend.push;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One open SSE connection. Events are queued in a bounded buffer and written by at most one drain task,
+ * so a slow client never blocks the thread that publishes the change. While nothing is queued
+ * the connection holds no thread at all (async servlet request).
+ */
+class PushSubscription {
+
+    private final Long userId;
+    private final Set<Long> teamIds = ConcurrentHashMap.newKeySet();
+    // Subscribed without explicit team IDs: follows the user into teams they join later
+    private final boolean followsMembership;
+    private final SseEmitter emitter;
+    private final BlockingQueue<PushEvent> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong queued = new AtomicLong();
+    private volatile boolean closed;
+
+    PushSubscription(Long userId, Set<Long> teamIds, boolean followsMembership, SseEmitter emitter, int bufferSize) {
+        this.userId = userId;
+        this.teamIds.addAll(teamIds);
+        this.followsMembership = followsMembership;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    Set<Long> getTeamIds() {
+        return teamIds;
+    }
+
+    boolean followsMembership() {
+        return followsMembership;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    // Method: Number of events queued so far
+    long queuedCount() {
+        return queued.get();
+    }
+
+    // Method: Queue an event; false if the buffer is full (slow consumer) or the connection is closed
+    boolean offer(PushEvent event) {
+        if (closed || !buffer.offer(event)) {
+            return false;
+        }
+        queued.incrementAndGet();
+        return true;
+    }
+
+    // Method: true if the caller has to start a drain task because none is running
+    boolean tryStartDrain() {
+        return draining.compareAndSet(false, true);
+    }
+
+    // Method: Write queued events until the buffer stays empty, then release the drain flag
+    void drain() throws IOException {
+        while (true) {
+            PushEvent event;
+            while (!closed && (event = buffer.poll()) != null) {
+                send(event);
+            }
+            draining.set(false);
+            // An event queued after the last poll but before the flag was released would otherwise wait for the next one
+            if (closed || buffer.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    // Method: Stop accepting events and drop the queued ones
+    void close() {
+        closed = true;
+        buffer.clear();
+    }
+
+    private void send(PushEvent event) throws IOException {
+        if (event.name() == null) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+            emitter.send(SseEmitter.event().name(event.name()).data(event.json(), MediaType.APPLICATION_JSON));
+        }
+    }
+}
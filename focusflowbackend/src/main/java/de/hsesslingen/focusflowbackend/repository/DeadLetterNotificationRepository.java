@@ -0,0 +1,8 @@
+package de.hsesslingen.focusflowbackend.repository;
+
+import de.hsesslingen.focusflowbackend.model.notifications.DeadLetterNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+// This interface provides access to notifications that could not be delivered
+public interface DeadLetterNotificationRepository extends JpaRepository<DeadLetterNotification, Long> {
+}
@@ -0,0 +1,24 @@
+package de.hsesslingen.focusflowbackend.repository;
+
+import de.hsesslingen.focusflowbackend.model.notifications.OutboxNotification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// This interface provides access to the notification outbox
+public interface OutboxNotificationRepository extends JpaRepository<OutboxNotification, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): several relays never claim the same row and never wait for each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM OutboxNotification n WHERE n.nextAttemptAt <= :now ORDER BY n.nextAttemptAt ASC, n.id ASC")
+    List<OutboxNotification> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -1,15 +1,208 @@
 package de.hsesslingen.focusflowbackend.repository;
 
+import de.hsesslingen.focusflowbackend.dto.CalendarDayCountDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskChangeRefDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskCountRowDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskDeadlineDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskDeletionCandidateDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskReminderDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
 import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.search.TaskDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 // This interface provides access to task-related database operations
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+    // Select clause of the task read model; the joins only resolve the foreign keys
+    String TASK_VIEW_SELECT = "SELECT new de.hsesslingen.focusflowbackend.dto.TaskViewDTO("
+            + "t.id, t.title, t.description, t.longDescription, t.dueDate, t.priority, t.status,"
+            + " c.id, a.id, tm.id, t.version, t.updatedAt, t.changeSeq, t.overdue)"
+            + " FROM Task t JOIN t.creator c LEFT JOIN t.assignee a LEFT JOIN t.team tm";
 
     List<Task> findByAssigneeId(Long assigneeId);
     List<Task> findByTeamId(Long teamId);
-}
\ No newline at end of file
+
+    @Query(TASK_VIEW_SELECT + " ORDER BY t.id ASC")
+    List<TaskViewDTO> findAllViews();
+
+    // Cursor-backed stream for exports; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(TASK_VIEW_SELECT + " ORDER BY t.id ASC")
+    Stream<TaskViewDTO> streamAllViews();
+
+    @Query(TASK_VIEW_SELECT + " WHERE t.id = :id")
+    Optional<TaskViewDTO> findViewById(@Param("id") Long id);
+
+    @Query(TASK_VIEW_SELECT + " WHERE a.id = :assigneeId ORDER BY t.id ASC")
+    List<TaskViewDTO> findViewsByAssigneeId(@Param("assigneeId") Long assigneeId);
+
+    @Query(TASK_VIEW_SELECT + " WHERE tm.id IN :teamIds ORDER BY t.id ASC")
+    List<TaskViewDTO> findViewsByTeamIds(@Param("teamIds") Collection<Long> teamIds);
+
+    // Keyset page: tasks with an ID greater than the cursor, ordered by ID.
+    // Null filters are ignored; the page size comes from the Pageable.
+    @Query(TASK_VIEW_SELECT + " WHERE t.id > :afterId"
+            + " AND (:status IS NULL OR t.status = :status)"
+            + " AND (:priority IS NULL OR t.priority = :priority)"
+            + " AND (:teamId IS NULL OR tm.id = :teamId)"
+            + " AND (:assigneeId IS NULL OR a.id = :assigneeId)"
+            + " AND (:dueFrom IS NULL OR t.dueDate >= :dueFrom)"
+            + " AND (:dueTo IS NULL OR t.dueDate < :dueTo)"
+            + " ORDER BY t.id ASC")
+    List<TaskViewDTO> findPage(@Param("afterId") long afterId,
+                               @Param("status") TaskStatus status,
+                               @Param("priority") TaskPriority priority,
+                               @Param("teamId") Long teamId,
+                               @Param("assigneeId") Long assigneeId,
+                               @Param("dueFrom") LocalDateTime dueFrom,
+                               @Param("dueTo") LocalDateTime dueTo,
+                               Pageable pageable);
+
+    // Delta sync: tasks the user created, is assigned to, or that belong to one of the user's teams
+    String IN_SCOPE_OF_USER = " (a.id = :userId OR c.id = :userId"
+            + " OR tm.id IN (SELECT mt.id FROM Team mt JOIN mt.members m WHERE m.id = :userId))";
+
+    @Query(TASK_VIEW_SELECT + " WHERE" + IN_SCOPE_OF_USER + " ORDER BY t.id ASC")
+    List<TaskViewDTO> findViewsForUserScope(@Param("userId") Long userId);
+
+    // Delta sync: changes after the cursor (seq, id) and below the watermark, ordered like the feed
+    @Query(TASK_VIEW_SELECT + " WHERE (t.changeSeq > :seq OR (t.changeSeq = :seq AND t.id > :afterId))"
+            + " AND t.changeSeq < :watermark AND" + IN_SCOPE_OF_USER
+            + " ORDER BY t.changeSeq ASC, t.id ASC")
+    List<TaskViewDTO> findChangedViewsForUserScope(@Param("userId") Long userId,
+                                                   @Param("seq") long seq,
+                                                   @Param("afterId") long afterId,
+                                                   @Param("watermark") long watermark,
+                                                   Pageable pageable);
+
+    // Search hits in one query; team and assignee filters are optional
+    @Query(TASK_VIEW_SELECT + " WHERE t.id IN :ids"
+            + " AND (:teamId IS NULL OR tm.id = :teamId)"
+            + " AND (:assigneeId IS NULL OR a.id = :assigneeId)")
+    List<TaskViewDTO> findViewsByIdIn(@Param("ids") Collection<Long> ids,
+                                      @Param("teamId") Long teamId,
+                                      @Param("assigneeId") Long assigneeId);
+
+    // Searchable text of all tasks, used to (re)build the search index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new de.hsesslingen.focusflowbackend.search.TaskDocument(t.id, t.title, t.description, t.longDescription)"
+            + " FROM Task t ORDER BY t.id ASC")
+    Stream<TaskDocument> streamSearchDocuments();
+
+    // Every insert and update stamps the next change number, so this moves whenever a task changes
+    @Query("SELECT MAX(t.changeSeq) FROM Task t")
+    Long findMaxChangeSeq();
+
+    // Calendar: tasks due in [from, to) for one assignee or one team
+    @Query(TASK_VIEW_SELECT + " WHERE a.id = :assigneeId AND t.dueDate >= :from AND t.dueDate < :to"
+            + " ORDER BY t.dueDate ASC, t.id ASC")
+    List<TaskViewDTO> findViewsDueForAssignee(@Param("assigneeId") Long assigneeId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    @Query(TASK_VIEW_SELECT + " WHERE tm.id = :teamId AND t.dueDate >= :from AND t.dueDate < :to"
+            + " ORDER BY t.dueDate ASC, t.id ASC")
+    List<TaskViewDTO> findViewsDueForTeam(@Param("teamId") Long teamId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+
+    // Calendar: number of tasks due per day, counted by the database
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.CalendarDayCountDTO(cast(t.dueDate as LocalDate), COUNT(t))"
+            + " FROM Task t WHERE t.assignee.id = :assigneeId AND t.dueDate >= :from AND t.dueDate < :to"
+            + " GROUP BY cast(t.dueDate as LocalDate) ORDER BY cast(t.dueDate as LocalDate)")
+    List<CalendarDayCountDTO> countDueByDayForAssignee(@Param("assigneeId") Long assigneeId,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to);
+
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.CalendarDayCountDTO(cast(t.dueDate as LocalDate), COUNT(t))"
+            + " FROM Task t WHERE t.team.id = :teamId AND t.dueDate >= :from AND t.dueDate < :to"
+            + " GROUP BY cast(t.dueDate as LocalDate) ORDER BY cast(t.dueDate as LocalDate)")
+    List<CalendarDayCountDTO> countDueByDayForTeam(@Param("teamId") Long teamId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to);
+
+    // Counters: one grouped scan yields both the per-team and the per-assignee counts
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.TaskCountRowDTO(tm.id, a.id, t.status, t.priority, COUNT(t))"
+            + " FROM Task t LEFT JOIN t.team tm LEFT JOIN t.assignee a"
+            + " GROUP BY tm.id, a.id, t.status, t.priority")
+    List<TaskCountRowDTO> countByTeamAssigneeStatusAndPriority();
+
+    // Last change numbers at or above the watermark, i.e. the recent writes a snapshot contains
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.TaskChangeRefDTO(t.id, t.changeSeq)"
+            + " FROM Task t WHERE t.changeSeq >= :watermark")
+    List<TaskChangeRefDTO> findChangesFrom(@Param("watermark") long watermark);
+
+    // Version only, to answer conditional requests without loading the task
+    @Query("SELECT t.version FROM Task t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Deadlines: tasks that are not closed and still wait for a reminder or the overdue flag
+    String OPEN_DEADLINE = " (t.status IS NULL OR t.status <> de.hsesslingen.focusflowbackend.model.tasks.TaskStatus.CLOSED)";
+
+    // One keyset page of pending deadlines up to a due date, in index order (due_date, id)
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.TaskDeadlineDTO(t.id, t.dueDate, t.reminderSent, t.overdue)"
+            + " FROM Task t WHERE t.dueDate <= :until"
+            + " AND (t.dueDate > :afterDue OR (t.dueDate = :afterDue AND t.id > :afterId))"
+            + " AND (t.reminderSent = false OR t.overdue = false) AND" + OPEN_DEADLINE
+            + " ORDER BY t.dueDate ASC, t.id ASC")
+    List<TaskDeadlineDTO> findPendingDeadlines(@Param("until") LocalDateTime until,
+                                               @Param("afterDue") LocalDateTime afterDue,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.TaskReminderDTO(t.id, t.title, t.dueDate, COALESCE(a.email, c.email))"
+            + " FROM Task t JOIN t.creator c LEFT JOIN t.assignee a"
+            + " WHERE t.id IN :ids AND t.reminderSent = false AND" + OPEN_DEADLINE)
+    List<TaskReminderDTO> findReminderCandidates(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new de.hsesslingen.focusflowbackend.event.TaskSnapshot(t.id, a.id, tm.id, t.status, t.priority, t.dueDate, t.changeSeq)"
+            + " FROM Task t LEFT JOIN t.assignee a LEFT JOIN t.team tm"
+            + " WHERE t.id IN :ids AND t.overdue = false AND" + OPEN_DEADLINE)
+    List<TaskSnapshot> findOverdueCandidates(@Param("ids") Collection<Long> ids);
+
+    // The reminder flag is internal, so it does not count as a change of the task
+    @Modifying
+    @Query("UPDATE Task t SET t.reminderSent = true WHERE t.id IN :ids")
+    int markReminderSent(@Param("ids") Collection<Long> ids);
+
+    // The overdue flag is part of the read model: new version (ETag) and a place in the delta-sync feed
+    @Modifying
+    @Query("UPDATE Task t SET t.overdue = true, t.version = t.version + 1, t.changeSeq = :changeSeq, t.updatedAt = :now"
+            + " WHERE t.id IN :ids")
+    int markOverdue(@Param("ids") Collection<Long> ids, @Param("changeSeq") long changeSeq, @Param("now") LocalDateTime now);
+
+    // One chunk of a team's tasks for set-based deletion, in index order (team_id, id)
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.TaskDeletionCandidateDTO(t.id, c.id, a.id, tm.id, t.status, t.priority, t.dueDate)"
+            + " FROM Task t JOIN t.creator c LEFT JOIN t.assignee a JOIN t.team tm"
+            + " WHERE tm.id = :teamId ORDER BY t.id ASC")
+    List<TaskDeletionCandidateDTO> findDeletionCandidates(@Param("teamId") Long teamId, Pageable pageable);
+
+    long countByTeamId(Long teamId);
+
+    // Locks the given task rows until the transaction ends; returns the IDs that still exist
+    @Query(value = "SELECT id FROM tasks WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,17 @@
+package de.hsesslingen.focusflowbackend.repository;
+
+import de.hsesslingen.focusflowbackend.dto.TaskBulkUpdateRequestDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskScopeDTO;
+
+import java.util.List;
+
+// This interface declares task operations that are built dynamically instead of derived from method names
+public interface TaskRepositoryCustom {
+
+    // Apply the change set of the request to all selected tasks with a single UPDATE statement;
+    // all updated rows get the given change sequence number
+    int bulkUpdate(TaskBulkUpdateRequestDTO request, long changeSeq);
+
+    // The distinct (team, assignee) pairs of the tasks a bulk update request selects
+    List<TaskScopeDTO> findBulkUpdateScopes(TaskBulkUpdateRequestDTO request);
+}
@@ -0,0 +1,107 @@
+package de.hsesslingen.focusflowbackend.repository;
+
+import de.hsesslingen.focusflowbackend.dto.TaskBulkUpdateRequestDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskFilterDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskScopeDTO;
+import de.hsesslingen.focusflowbackend.model.Team;
+import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// This class implements the custom task operations with the Criteria API
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int bulkUpdate(TaskBulkUpdateRequestDTO request, long changeSeq) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+
+        if (request.getStatus() != null) {
+            update.set(task.<TaskStatus>get("status"), request.getStatus());
+        }
+        if (request.getPriority() != null) {
+            update.set(task.<TaskPriority>get("priority"), request.getPriority());
+        }
+        if (request.getAssigneeId() != null) {
+            update.set(task.<User>get("assignee"), entityManager.getReference(User.class, request.getAssigneeId()));
+        }
+        if (request.getTeamId() != null) {
+            update.set(task.<Team>get("team"), entityManager.getReference(Team.class, request.getTeamId()));
+        }
+
+        // The statement bypasses Hibernate's optimistic locking, so bump the version (and thereby the ETag) explicitly
+        Path<Long> version = task.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.set(task.<Long>get("changeSeq"), changeSeq);
+        update.set(task.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+
+        update.where(selection(cb, task, request));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<TaskScopeDTO> findBulkUpdateScopes(TaskBulkUpdateRequestDTO request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskScopeDTO> query = cb.createQuery(TaskScopeDTO.class);
+        Root<Task> task = query.from(Task.class);
+        // Foreign key paths: no joins needed
+        query.select(cb.construct(TaskScopeDTO.class, task.get("team").get("id"), task.get("assignee").get("id")))
+                .distinct(true)
+                .where(selection(cb, task, request));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // Helper method: The tasks a bulk update request selects, by IDs or by filter
+    private Predicate[] selection(CriteriaBuilder cb, Root<Task> task, TaskBulkUpdateRequestDTO request) {
+        List<Predicate> where = new ArrayList<>();
+        if (request.getTaskIds() != null && !request.getTaskIds().isEmpty()) {
+            where.add(task.<Long>get("id").in(request.getTaskIds()));
+        }
+        if (request.getFilter() != null) {
+            where.addAll(filterPredicates(cb, task, request.getFilter()));
+        }
+        return where.toArray(new Predicate[0]);
+    }
+
+    // Helper method: Translate the listing filter into predicates (same semantics as TaskRepository.findPage)
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Task> task, TaskFilterDTO filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(task.get("status"), filter.getStatus()));
+        }
+        if (filter.getPriority() != null) {
+            predicates.add(cb.equal(task.get("priority"), filter.getPriority()));
+        }
+        if (filter.getTeamId() != null) {
+            predicates.add(cb.equal(task.get("team").get("id"), filter.getTeamId()));
+        }
+        if (filter.getAssigneeId() != null) {
+            predicates.add(cb.equal(task.get("assignee").get("id"), filter.getAssigneeId()));
+        }
+        if (filter.getDueFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.<LocalDateTime>get("dueDate"), filter.getDueFrom().atStartOfDay()));
+        }
+        if (filter.getDueTo() != null) {
+            predicates.add(cb.lessThan(task.<LocalDateTime>get("dueDate"), filter.getDueTo().plusDays(1).atStartOfDay()));
+        }
+        return predicates;
+    }
+}
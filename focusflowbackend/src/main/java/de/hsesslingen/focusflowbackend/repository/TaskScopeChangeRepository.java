@@ -0,0 +1,28 @@
+package de.hsesslingen.focusflowbackend.repository;
+
+import de.hsesslingen.focusflowbackend.model.tasks.TaskScopeChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+// This interface provides access to the team membership changes of the delta-sync feed
+public interface TaskScopeChangeRepository extends JpaRepository<TaskScopeChange, Long> {
+
+    // Whether the user joined or left a team after the change number seq and below the watermark
+    @Query("SELECT COUNT(sc) > 0 FROM TaskScopeChange sc"
+            + " WHERE sc.userId = :userId AND sc.changeSeq > :seq AND sc.changeSeq < :watermark")
+    boolean existsChangeForUser(@Param("userId") Long userId,
+                                @Param("seq") long seq,
+                                @Param("watermark") long watermark);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TaskScopeChange sc WHERE sc.changedAt < :before")
+    int deleteChangedBefore(@Param("before") LocalDateTime before);
+}
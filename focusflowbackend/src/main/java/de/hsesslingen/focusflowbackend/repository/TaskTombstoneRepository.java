@@ -0,0 +1,42 @@
+package de.hsesslingen.focusflowbackend.repository;
+
+import de.hsesslingen.focusflowbackend.dto.TaskChangeRefDTO;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+// This interface provides access to the tombstones of deleted tasks
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    // Deletions after the cursor (seq, taskId) and below the watermark, visible to the user
+    @Query("SELECT ts FROM TaskTombstone ts"
+            + " WHERE (ts.changeSeq > :seq OR (ts.changeSeq = :seq AND ts.taskId > :afterId))"
+            + " AND ts.changeSeq < :watermark"
+            + " AND (ts.assigneeId = :userId OR ts.creatorId = :userId"
+            + " OR ts.teamId IN (SELECT mt.id FROM Team mt JOIN mt.members m WHERE m.id = :userId))"
+            + " ORDER BY ts.changeSeq ASC, ts.taskId ASC")
+    List<TaskTombstone> findChangesForUser(@Param("userId") Long userId,
+                                           @Param("seq") long seq,
+                                           @Param("afterId") long afterId,
+                                           @Param("watermark") long watermark,
+                                           Pageable pageable);
+
+    // Deletions at or above the watermark, i.e. the recent deletions a snapshot contains
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.TaskChangeRefDTO(ts.taskId, ts.changeSeq)"
+            + " FROM TaskTombstone ts WHERE ts.changeSeq >= :watermark")
+    List<TaskChangeRefDTO> findChangesFrom(@Param("watermark") long watermark);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TaskTombstone ts WHERE ts.removedAt < :before")
+    int deleteRemovedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,8 +1,85 @@
 package de.hsesslingen.focusflowbackend.repository;
 
+import de.hsesslingen.focusflowbackend.dto.TeamMemberViewDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamMembershipDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamSummaryDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamVersionDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamViewDTO;
 import de.hsesslingen.focusflowbackend.model.Team;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 // This interface provides access to team-related database operations
-public interface TeamRepository extends JpaRepository<Team, Long> { 
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    // Select clause of the team read model (without members and tasks)
+    String TEAM_VIEW_SELECT = "SELECT new de.hsesslingen.focusflowbackend.dto.TeamViewDTO("
+            + "tm.id, tm.name, tm.description, tm.createdAt, tm.version) FROM Team tm";
+
+    @Query(TEAM_VIEW_SELECT + " ORDER BY tm.id ASC")
+    List<TeamViewDTO> findAllViews();
+
+    @Query(TEAM_VIEW_SELECT + " WHERE tm.id = :id")
+    Optional<TeamViewDTO> findViewById(@Param("id") Long id);
+
+    @Query(TEAM_VIEW_SELECT + " JOIN tm.members m WHERE m.id = :userId ORDER BY tm.id ASC")
+    List<TeamViewDTO> findViewsByMemberId(@Param("userId") Long userId);
+
+    // Select clause of the team summary: one row per team, both counts as correlated subqueries
+    String TEAM_SUMMARY_SELECT = "SELECT new de.hsesslingen.focusflowbackend.dto.TeamSummaryDTO("
+            + "tm.id, tm.name, tm.description,"
+            + " (SELECT COUNT(m) FROM Team mt JOIN mt.members m WHERE mt.id = tm.id),"
+            + " (SELECT COUNT(t) FROM Task t WHERE t.team.id = tm.id"
+            + " AND (t.status IS NULL OR t.status <> de.hsesslingen.focusflowbackend.model.tasks.TaskStatus.CLOSED)))"
+            + " FROM Team tm";
+
+    @Query(TEAM_SUMMARY_SELECT + " WHERE tm.id > :afterId ORDER BY tm.id ASC")
+    List<TeamSummaryDTO> findSummaryPage(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(TEAM_SUMMARY_SELECT + " JOIN tm.members m WHERE m.id = :userId AND tm.id > :afterId ORDER BY tm.id ASC")
+    List<TeamSummaryDTO> findSummaryPageByMemberId(@Param("userId") Long userId, @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT tm.id FROM Team tm JOIN tm.members m WHERE m.id = :userId")
+    List<Long> findTeamIdsByMemberId(@Param("userId") Long userId);
+
+    @Query("SELECT m.id FROM Team tm JOIN tm.members m WHERE tm.id = :teamId")
+    List<Long> findMemberIdsByTeamId(@Param("teamId") Long teamId);
+
+    // Whole join table, to build the membership index
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.TeamMembershipDTO(tm.id, m.id) FROM Team tm JOIN tm.members m")
+    List<TeamMembershipDTO> findAllMemberships();
+
+    @Query("SELECT CASE WHEN COUNT(tm) > 0 THEN true ELSE false END"
+            + " FROM Team tm JOIN tm.members a JOIN tm.members b WHERE a.id = :userId AND b.id = :otherUserId")
+    boolean existsSharedTeam(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
+
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.TeamMemberViewDTO(tm.id, m.id, m.email, m.firstName, m.lastName, m.version)"
+            + " FROM Team tm JOIN tm.members m WHERE tm.id IN :teamIds ORDER BY m.id ASC")
+    List<TeamMemberViewDTO> findMemberViewsByTeamIds(@Param("teamIds") Collection<Long> teamIds);
+
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.TeamMembershipDTO(tm.id, m.id)"
+            + " FROM Team tm JOIN tm.members m WHERE m.id IN :userIds")
+    List<TeamMembershipDTO> findMembershipsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Everything the ETag of a team response depends on, in one statement
+    @Query("SELECT new de.hsesslingen.focusflowbackend.dto.TeamVersionDTO(tm.version,"
+            + " (SELECT COUNT(t) FROM Task t WHERE t.team.id = tm.id),"
+            + " (SELECT COALESCE(SUM(t.version), 0L) FROM Task t WHERE t.team.id = tm.id),"
+            + " (SELECT COALESCE(MAX(t.id), 0L) FROM Task t WHERE t.team.id = tm.id),"
+            + " (SELECT COUNT(m) FROM Team mt JOIN mt.members m WHERE mt.id = tm.id),"
+            + " (SELECT COALESCE(SUM(m.version), 0L) FROM Team mt JOIN mt.members m WHERE mt.id = tm.id))"
+            + " FROM Team tm WHERE tm.id = :id")
+    Optional<TeamVersionDTO> findVersionById(@Param("id") Long id);
+
+    // Bulk delete without loading the team; its tasks and memberships have to be gone already
+    @Modifying
+    @Query("DELETE FROM Team t WHERE t.id = :id")
+    int deleteTeamById(@Param("id") Long id);
 }
@@ -3,10 +3,15 @@ package de.hsesslingen.focusflowbackend.repository;
 import de.hsesslingen.focusflowbackend.model.User;
 import de.hsesslingen.focusflowbackend.model.Team;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -15,12 +20,19 @@ import org.springframework.data.jpa.repository.JpaRepository;
 // This interface provides access to user-related database operations
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Cached: the query cache holds the ID, the entity comes from the second-level cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
+    List<User> findByEmailIn(Collection<String> emails);
     List<User> findByRole(String role);
     List<User> findByTeams(Team team);
 
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.teams WHERE u.id = :id")
     Optional<User> findByIdWithTeams(@Param("id") Long id);
+
+    // Straight from the table: the last login is not part of the cached User
+    @Query("SELECT l.lastLogin FROM UserLastLogin l WHERE l.id = :id")
+    Optional<LocalDateTime> findLastLogin(@Param("id") Long id);
 }
 
 
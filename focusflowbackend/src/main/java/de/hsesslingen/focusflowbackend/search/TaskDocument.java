@@ -0,0 +1,24 @@
+package de.hsesslingen.focusflowbackend.search;
+
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * TaskDocument holds the searchable text of one task.
+ * It is a copy, so it can be indexed after the transaction that changed the task has committed.
+ */
+public class TaskDocument {
+    private Long id;
+    private String title;
+    private String description;
+    private String longDescription;
+
+    public static TaskDocument of(Task task) {
+        return new TaskDocument(task.getId(), task.getTitle(), task.getDescription(), task.getLongDescription());
+    }
+}
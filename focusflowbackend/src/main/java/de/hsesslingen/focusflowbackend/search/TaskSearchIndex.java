@@ -0,0 +1,250 @@
+package de.hsesslingen.focusflowbackend.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the text of tasks, ranked with BM25.
+ * Title terms count twice, so a match in the title outranks the same match in the description.
+ * The index is thread-safe; reads share a lock, writes are exclusive.
+ */
+public class TaskSearchIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x46465358; // "FFSX"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int TITLE_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /** A search result: task ID and relevance score. */
+    public record Hit(long taskId, double score) { }
+
+    // term -> (task ID -> weighted term frequency)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    // task ID -> weighted term frequencies of the task, needed to update and remove it
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    // task ID -> document length (sum of weighted term frequencies)
+    private final Map<Long, Integer> lengths = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    // Method: Add a task or replace its previous text
+    public void upsert(TaskDocument document) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        addTerms(terms, document.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, document.getDescription(), 1);
+        addTerms(terms, document.getLongDescription(), 1);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.getId());
+            putLocked(document.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Method: Remove a task from the index (no-op if it is unknown)
+    public void remove(long taskId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Method: Replace the whole content of this index with the content of another one
+    public void replaceWith(TaskSearchIndex other) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            lengths.clear();
+            totalLength = 0;
+            other.lock.readLock().lock();
+            try {
+                other.documents.forEach(this::putLocked);
+            } finally {
+                other.lock.readLock().unlock();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Method: Return the best matching tasks for a free-text query, highest score first
+    public List<Hit> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query).stream().distinct().toList();
+        if (queryTerms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            double avgLength = docCount == 0 ? 0 : (double) totalLength / docCount;
+            for (String term : queryTerms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    int length = lengths.get(entry.getKey());
+                    double tf = entry.getValue();
+                    double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Keep only the top hits instead of sorting every match
+        PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(new Hit(entry.getKey(), entry.getValue()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::taskId));
+        return hits;
+    }
+
+    // Method: Number of indexed tasks
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Method: Highest indexed task ID, or 0 if the index is empty
+    public long maxTaskId() {
+        lock.readLock().lock();
+        try {
+            return documents.keySet().stream().mapToLong(Long::longValue).max().orElse(0L);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Method: Write the index to a stream (the postings are rebuilt when reading)
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(documents.size());
+            for (Map.Entry<Long, Map<String, Integer>> document : documents.entrySet()) {
+                out.writeLong(document.getKey());
+                out.writeInt(document.getValue().size());
+                for (Map.Entry<String, Integer> term : document.getValue().entrySet()) {
+                    out.writeUTF(term.getKey());
+                    out.writeInt(term.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Method: Read an index written by writeTo
+    public static TaskSearchIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Not a task search index snapshot of version " + SNAPSHOT_VERSION);
+        }
+        TaskSearchIndex index = new TaskSearchIndex();
+        int docCount = in.readInt();
+        for (int i = 0; i < docCount; i++) {
+            long taskId = in.readLong();
+            int termCount = in.readInt();
+            Map<String, Integer> terms = new LinkedHashMap<>();
+            for (int j = 0; j < termCount; j++) {
+                terms.put(in.readUTF(), in.readInt());
+            }
+            index.putLocked(taskId, terms);
+        }
+        return index;
+    }
+
+    // Helper method: Split text into lower-case terms of letters and digits
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start > 1) {
+                    tokens.add(lower.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static int documentLength(Map<String, Integer> terms) {
+        int length = 0;
+        for (int tf : terms.values()) {
+            length += tf;
+        }
+        return length;
+    }
+
+    private void putLocked(long taskId, Map<String, Integer> terms) {
+        int length = documentLength(terms);
+        documents.put(taskId, terms);
+        lengths.put(taskId, length);
+        totalLength += length;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(taskId, term.getValue());
+        }
+    }
+
+    private void removeLocked(long taskId) {
+        Map<String, Integer> terms = documents.remove(taskId);
+        if (terms == null) {
+            return;
+        }
+        totalLength -= lengths.remove(taskId);
+        for (String term : terms.keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(taskId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
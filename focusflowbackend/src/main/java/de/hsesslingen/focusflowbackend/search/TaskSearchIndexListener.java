@@ -0,0 +1,34 @@
+package de.hsesslingen.focusflowbackend.search;
+
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA entity listener that forwards task changes to the search index.
+ * Hibernate creates it through Spring; when the search service is not part of the
+ * context (e.g. in JPA slice tests) the listener does nothing.
+ */
+public class TaskSearchIndexListener {
+
+    @Autowired
+    private ObjectProvider<TaskSearchService> searchService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Task task) {
+        if (searchService != null) {
+            searchService.ifAvailable(service -> service.onTaskSaved(task));
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(Task task) {
+        if (searchService != null) {
+            searchService.ifAvailable(service -> service.onTaskRemoved(task.getId()));
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package de.hsesslingen.focusflowbackend.search;
+
+import de.hsesslingen.focusflowbackend.dto.TaskSearchHitDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@RequiredArgsConstructor
+/**
+ * TaskSearchService owns the in-process full-text index over task titles and descriptions.
+ * The index is kept current by TaskSearchIndexListener (changes are applied after commit),
+ * written to local disk on shutdown and loaded from there on the next start.
+ * Team and assignee filters are applied by the query that loads the hits, so they are always current;
+ * a filtered search widens its window of ranked candidates until enough of them pass or the matches run out.
+ */
+public class TaskSearchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskSearchService.class);
+    private static final String SNAPSHOT_FILE = "tasks.idx";
+    public static final int DEFAULT_RESULTS = 20;
+    public static final int MAX_RESULTS = 100;
+    // Filtered searches rank this many candidates first and four times as many on every further round;
+    // the filter query loads at most this many at once
+    private static final int FILTER_CANDIDATES = 1000;
+    private static final int WIDENING_FACTOR = 4;
+    private static final Duration MAX_LOAD_RETRY_DELAY = Duration.ofMinutes(5);
+
+    private final TaskRepository taskRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${focusflow.search.index-dir:${java.io.tmpdir}/focusflow-search}")
+    private Path indexDir;
+
+    // Wait after a failed load; doubled after every further failure up to MAX_LOAD_RETRY_DELAY
+    @Value("${focusflow.search.load-retry-delay:PT5S}")
+    private Duration loadRetryDelay = Duration.ofSeconds(5);
+
+    private final TaskSearchIndex index = new TaskSearchIndex();
+    // Changes committed while a load attempt runs; replayed once it is done. Not collected between attempts,
+    // since every attempt reads the database again
+    private final Map<Long, TaskDocument> pendingWhileLoading = new LinkedHashMap<>();
+    private final Object loadLock = new Object();
+    private boolean loading = true;
+    private boolean buffering;
+
+    // Method: Search tasks by relevance, optionally restricted to a team and/or an assignee
+    public List<TaskSearchHitDTO> search(String query, Long teamId, Long assigneeId, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        if (!isReady()) {
+            throw new IllegalStateException("Search index is still loading");
+        }
+        int maxResults = limit == null ? DEFAULT_RESULTS : Math.min(limit, MAX_RESULTS);
+        boolean filtered = teamId != null || assigneeId != null;
+
+        List<TaskSearchHitDTO> results = new ArrayList<>();
+        Set<Long> checked = new HashSet<>();
+        int candidates = filtered ? FILTER_CANDIDATES : maxResults;
+        while (true) {
+            List<TaskSearchIndex.Hit> hits = index.search(query, candidates);
+            // The better ranked hits were checked in an earlier round
+            List<TaskSearchIndex.Hit> unchecked = hits.stream().filter(hit -> checked.add(hit.taskId())).toList();
+            for (int from = 0; from < unchecked.size(); from += FILTER_CANDIDATES) {
+                if (addVisibleHits(results, unchecked.subList(from, Math.min(from + FILTER_CANDIDATES, unchecked.size())),
+                        teamId, assigneeId, maxResults)) {
+                    return results;
+                }
+            }
+            if (!filtered || hits.size() < candidates) {
+                return results;
+            }
+            candidates = (int) Math.min((long) candidates * WIDENING_FACTOR, Integer.MAX_VALUE);
+        }
+    }
+
+    // Helper method: Add the hits that still exist and pass the filters, in rank order; true once maxResults are found
+    private boolean addVisibleHits(List<TaskSearchHitDTO> results, List<TaskSearchIndex.Hit> hits,
+                                   Long teamId, Long assigneeId, int maxResults) {
+        List<Long> ids = hits.stream().map(TaskSearchIndex.Hit::taskId).toList();
+        Map<Long, TaskViewDTO> views = taskRepository.findViewsByIdIn(ids, teamId, assigneeId).stream()
+                .collect(Collectors.toMap(TaskViewDTO::getId, Function.identity()));
+        for (TaskSearchIndex.Hit hit : hits) {
+            TaskViewDTO view = views.get(hit.taskId());
+            if (view != null) {
+                results.add(new TaskSearchHitDTO(view, hit.score()));
+                if (results.size() == maxResults) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Method: Check whether the index has been loaded
+    public boolean isReady() {
+        synchronized (loadLock) {
+            return !loading;
+        }
+    }
+
+    // Called by the entity listener when a task was inserted or updated
+    void onTaskSaved(Task task) {
+        enqueue(task.getId(), TaskDocument.of(task));
+    }
+
+    // Called by the entity listener when a task was deleted
+    void onTaskRemoved(Long taskId) {
+        enqueue(taskId, null);
+    }
+
+    // Method: Remove tasks deleted by a bulk statement, which bypasses the entity listener
+    public void onTasksRemoved(Collection<Long> taskIds) {
+        taskIds.forEach(this::onTaskRemoved);
+    }
+
+    // Helper method: Collect changes per transaction and apply them after commit
+    private void enqueue(Long taskId, TaskDocument document) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(taskId, document);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, TaskDocument> changes = (Map<Long, TaskDocument>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Map<Long, TaskDocument> newChanges = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, newChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TaskSearchService.this);
+                    if (status == STATUS_COMMITTED) {
+                        newChanges.forEach(TaskSearchService.this::apply);
+                    }
+                }
+            });
+            changes = newChanges;
+        }
+        changes.put(taskId, document);
+    }
+
+    // Helper method: Apply one change; a null document removes the task
+    private void apply(Long taskId, TaskDocument document) {
+        synchronized (loadLock) {
+            if (loading && buffering) {
+                pendingWhileLoading.put(taskId, document);
+            }
+            if (document == null) {
+                index.remove(taskId);
+            } else {
+                index.upsert(document);
+            }
+        }
+    }
+
+    // Load the index in the background, so startup does not wait for it
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndexInBackground() {
+        Thread loader = new Thread(this::loadIndexWithRetries, "task-search-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Helper method: Retry failed loads with a growing delay, so search recovers without a restart
+    private void loadIndexWithRetries() {
+        Duration delay = loadRetryDelay;
+        while (!loadIndex()) {
+            LOGGER.warn("Retrying to load the task search index in {}", delay);
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Duration doubled = delay.multipliedBy(2);
+            delay = doubled.compareTo(MAX_LOAD_RETRY_DELAY) < 0 ? doubled : MAX_LOAD_RETRY_DELAY;
+        }
+    }
+
+    // Helper method: Load the snapshot if it still matches the database, otherwise rebuild from the database;
+    // false if the attempt failed
+    boolean loadIndex() {
+        long start = System.currentTimeMillis();
+        synchronized (loadLock) {
+            pendingWhileLoading.clear();
+            buffering = true;
+        }
+        try {
+            TaskSearchIndex loaded = readSnapshotIfCurrent();
+            String source = "snapshot";
+            if (loaded == null) {
+                loaded = rebuildFromDatabase();
+                source = "database";
+            }
+            synchronized (loadLock) {
+                index.replaceWith(loaded);
+                pendingWhileLoading.forEach((id, document) -> {
+                    if (document == null) {
+                        index.remove(id);
+                    } else {
+                        index.upsert(document);
+                    }
+                });
+                pendingWhileLoading.clear();
+                loading = false;
+            }
+            LOGGER.info("Task search index loaded from {} with {} tasks in {} ms",
+                    source, index.size(), System.currentTimeMillis() - start);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.error("Loading the task search index failed: {}", e.getMessage(), e);
+            synchronized (loadLock) {
+                pendingWhileLoading.clear();
+                buffering = false;
+            }
+            return false;
+        }
+    }
+
+    // Helper method: Read the snapshot and check that no task was inserted, changed or deleted since it was written
+    private TaskSearchIndex readSnapshotIfCurrent() {
+        Path file = indexDir.resolve(SNAPSHOT_FILE);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            long snapshotChangeSeq = in.readLong();
+            TaskSearchIndex snapshot = TaskSearchIndex.readFrom(in);
+            // Inserts and updates raise the highest change number; deletions lower the count
+            if (snapshot.size() != taskRepository.count() || snapshotChangeSeq != maxChangeSeq()) {
+                LOGGER.info("Task search snapshot is outdated, rebuilding the index");
+                return null;
+            }
+            return snapshot;
+        } catch (IOException e) {
+            LOGGER.warn("Task search snapshot could not be read, rebuilding the index: {}", e.getMessage());
+            return null;
+        } finally {
+            // The snapshot only describes the state at the last clean shutdown
+            deleteQuietly(file);
+        }
+    }
+
+    // Helper method: Build a fresh index by streaming all tasks
+    private TaskSearchIndex rebuildFromDatabase() {
+        TaskSearchIndex rebuilt = new TaskSearchIndex();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            try (Stream<TaskDocument> documents = taskRepository.streamSearchDocuments()) {
+                documents.forEach(rebuilt::upsert);
+            }
+        });
+        return rebuilt;
+    }
+
+    // Write the index to disk on a clean shutdown
+    @PreDestroy
+    public void writeSnapshot() {
+        if (!isReady()) {
+            return;
+        }
+        try {
+            Files.createDirectories(indexDir);
+            Path tmp = indexDir.resolve(SNAPSHOT_FILE + ".tmp");
+            // Read before the index is written: a change that slips in between makes the snapshot look outdated, never current
+            long changeSeq = maxChangeSeq();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+                out.writeLong(changeSeq);
+                index.writeTo(out);
+            }
+            Files.move(tmp, indexDir.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("Task search snapshot with {} tasks written to {}", index.size(), indexDir);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Task search snapshot could not be written: {}", e.getMessage());
+        }
+    }
+
+    private long maxChangeSeq() {
+        Long maxChangeSeq = taskRepository.findMaxChangeSeq();
+        return maxChangeSeq != null ? maxChangeSeq : 0L;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+}
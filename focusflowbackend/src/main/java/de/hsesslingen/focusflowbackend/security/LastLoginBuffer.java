@@ -0,0 +1,115 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+/**
+ * LastLoginBuffer takes the last-login bookkeeping off the login path. Logins only record the time in
+ * memory, keeping the latest one per user; the buffer is written with batched UPDATEs every flush-interval,
+ * as soon as batch-size users are waiting, and on shutdown. Repeated logins of one user between two
+ * flushes cost a single UPDATE. A crash loses at most the last interval of timestamps.
+ * users.last_login is written only here. It is mapped by the read-only UserLastLogin rather than the cached
+ * User entity, so a flush leaves the second-level cache untouched.
+ */
+public class LastLoginBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LastLoginBuffer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${focusflow.last-login.batch-size:500}")
+    private int batchSize = 500;
+
+    public LastLoginBuffer(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("focusflow.last_login.pending", pending, Map::size)
+                .description("Users whose last login is not written yet").register(meterRegistry);
+    }
+
+    // Method: Remember a login; written with the next flush
+    public void record(Long userId, LocalDateTime loginTime) {
+        pending.merge(userId, loginTime, (previous, current) -> current.isAfter(previous) ? current : previous);
+        if (pending.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    // Method: Write everything recorded so far; returns the number of users written
+    @Scheduled(fixedDelayString = "${focusflow.last-login.flush-interval:PT5S}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        flushLock.lock();
+        try {
+            int written = 0;
+            List<Long> userIds = new ArrayList<>(pending.keySet());
+            for (int from = 0; from < userIds.size(); from += batchSize) {
+                written += writeBatch(userIds.subList(from, Math.min(from + batchSize, userIds.size())));
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+
+    // Helper method: Take one batch out of the buffer and write it; on failure it goes back for the next flush
+    private int writeBatch(List<Long> userIds) {
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            // A login recorded after this point stays in the buffer for the next flush
+            LocalDateTime loginTime = pending.remove(userId);
+            if (loginTime != null) {
+                Timestamp timestamp = Timestamp.valueOf(loginTime);
+                rows.add(new Object[] {timestamp, userId, timestamp});
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            // Never moves a timestamp backwards, e.g. when a failed batch is retried after a newer one
+            jdbcTemplate.batchUpdate("UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)", rows);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Writing last login of {} users failed, retrying with the next flush: {}", rows.size(), e.getMessage());
+            for (Object[] row : rows) {
+                pending.merge((Long) row[1], ((Timestamp) row[0]).toLocalDateTime(),
+                        (previous, current) -> current.isAfter(previous) ? current : previous);
+            }
+            return 0;
+        }
+        return rows.size();
+    }
+}
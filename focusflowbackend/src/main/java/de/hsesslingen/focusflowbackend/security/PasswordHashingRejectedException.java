@@ -0,0 +1,13 @@
+package de.hsesslingen.focusflowbackend.security;
+
+/**
+ * Thrown when the password hashing pool is saturated; the request should be retried later.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,122 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+/**
+ * PasswordHashingService runs BCrypt hashing and verification on a pool of its own, one thread per CPU
+ * by default, so a burst of logins or registrations cannot take every request thread with it.
+ * Work waits in a bounded queue; when the queue is full, or a request has waited longer than max-wait,
+ * it is rejected right away with a PasswordHashingRejectedException instead of piling up.
+ */
+public class PasswordHashingService {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor hashers;
+    private final Duration maxWait;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(BCryptPasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                  @Value("${focusflow.password-hashing.threads:0}") int threads,
+                                  @Value("${focusflow.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${focusflow.password-hashing.max-wait:PT2S}") Duration maxWait) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWait = maxWait;
+        // BCrypt is pure CPU work: more threads than cores only make every hash slower
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.hashers = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), hasherThreads(), new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        this.waitTimer = Timer.builder("focusflow.password_hashing.wait")
+                .description("Time a hash request waited in the queue").register(meterRegistry);
+        this.rejected = Counter.builder("focusflow.password_hashing.rejected")
+                .description("Hash requests rejected because the pool was saturated").register(meterRegistry);
+        Gauge.builder("focusflow.password_hashing.queue.depth", hashers, pool -> pool.getQueue().size())
+                .description("Hash requests waiting for a thread").register(meterRegistry);
+        Gauge.builder("focusflow.password_hashing.active", hashers, ThreadPoolExecutor::getActiveCount)
+                .description("Hash requests being computed").register(meterRegistry);
+    }
+
+    // Method: Hash a password for storing
+    public String encode(String rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    // Method: Check a password against its stored hash
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashers.shutdownNow();
+    }
+
+    // Helper method: Run on the pool and wait for the result; the caller's thread only blocks, it does not hash
+    private <T> T run(Timer hashTimer, Callable<T> hash) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = hashers.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full");
+        }
+        try {
+            return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Still queued: drop it, nobody is waiting for the result any more
+            future.cancel(false);
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing took longer than " + maxWait);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("focusflow.password_hashing.duration")
+                .description("CPU time of one BCrypt operation")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory hasherThreads() {
+        return Thread.ofPlatform().name("password-hasher-", 0).daemon(true).factory();
+    }
+}
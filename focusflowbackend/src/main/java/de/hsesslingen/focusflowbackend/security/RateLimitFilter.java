@@ -0,0 +1,100 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Order(RateLimitFilter.ORDER)
+/**
+ * RateLimitFilter applies the per-route token buckets of RateLimitProperties before a request reaches a controller,
+ * so a burst on one route is turned away before it takes database connections from the others.
+ * Clients are told apart by their session user, otherwise by remote address. A refused request gets
+ * 429 with Retry-After. Requests on routes without a limit only pay for a few prefix comparisons.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Right after the SessionTokenFilter, whose principal keys the buckets
+    public static final int ORDER = SessionTokenFilter.ORDER + 1;
+
+    private record LimitedRoute(String path, Set<String> methods, TokenBucketLimiter limiter, Counter rejected) {
+
+        boolean matches(String method, String uri) {
+            return uri.startsWith(path) && (methods.isEmpty() || methods.contains(method));
+        }
+    }
+
+    private final List<LimitedRoute> routes = new ArrayList<>();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        properties.getRoutes().forEach((name, route) -> {
+            TokenBucketLimiter limiter = new TokenBucketLimiter(name, route.getCapacity(), route.getRefillPerSecond(),
+                    properties.getMaxClients());
+            Counter rejected = Counter.builder("focusflow.rate_limit.rejected").tag("route", name)
+                    .description("Requests refused with 429").register(meterRegistry);
+            Gauge.builder("focusflow.rate_limit.clients", limiter, TokenBucketLimiter::size).tag("route", name)
+                    .description("Clients with a bucket that is not full").register(meterRegistry);
+            routes.add(new LimitedRoute(route.getPath(), Set.copyOf(route.getMethods()), limiter, rejected));
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        for (LimitedRoute route : routes) {
+            if (route.matches(method, uri)) {
+                long waitNanos = route.limiter().tryAcquire(clientKey(request), System.nanoTime());
+                if (waitNanos > 0) {
+                    route.rejected().increment();
+                    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+                    return;
+                }
+                break;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Forget clients whose buckets have refilled
+    @Scheduled(fixedDelayString = "${focusflow.rate-limit.sweep-interval:PT30S}")
+    public void sweep() {
+        long now = System.nanoTime();
+        routes.forEach(route -> route.limiter().sweep(now));
+    }
+
+    // Helper method: The session user if the request has a verified token, the remote address otherwise
+    private static Object clientKey(HttpServletRequest request) {
+        Object principal = request.getAttribute(SessionPrincipal.ATTRIBUTE);
+        if (principal instanceof SessionPrincipal sessionPrincipal) {
+            return sessionPrincipal.userId();
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,40 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "focusflow.rate-limit")
+/**
+ * Rate limits per route (focusflow.rate-limit.routes.<name>.*): every client, i.e. session user or
+ * remote address, gets a bucket of capacity requests that refills at refill-per-second.
+ */
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Clients tracked per route; further clients share one bucket until idle ones have been dropped
+    private int maxClients = 100_000;
+
+    // How often buckets that have refilled completely are dropped
+    private Duration sweepInterval = Duration.ofSeconds(30);
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+        // Request path prefix, e.g. /api/tasks
+        private String path;
+        // HTTP methods limited on that path; all methods if empty
+        private Set<String> methods = Set.of();
+        private long capacity;
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,15 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * The authenticated user of a request, as carried by a verified session token; resolving it needs no database access.
+ * teamIds are the user's teams when the token was issued. They are good for scoping queries, but a check that must
+ * see membership changes made since the login asks the TeamMembershipIndex instead.
+ */
+public record SessionPrincipal(String tokenId, Long userId, String role, Set<Long> teamIds, Instant issuedAt, Instant expiresAt) {
+
+    // Request attribute the SessionTokenFilter stores the principal under
+    public static final String ATTRIBUTE = SessionPrincipal.class.getName();
+}
@@ -0,0 +1,38 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+/**
+ * Hands the SessionPrincipal verified by the SessionTokenFilter to controller methods that declare one.
+ * A handler with a SessionPrincipal parameter requires a token: without one the request is answered with 401.
+ * An Optional&lt;SessionPrincipal&gt; parameter is empty instead, for endpoints that also serve requests without a token.
+ */
+public class SessionPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return SessionPrincipal.class.equals(parameter.nestedIfOptional().getNestedParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object principal = webRequest.getAttribute(SessionPrincipal.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (Optional.class.equals(parameter.getParameterType())) {
+            return Optional.ofNullable(principal);
+        }
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Session token required");
+        }
+        return principal;
+    }
+}
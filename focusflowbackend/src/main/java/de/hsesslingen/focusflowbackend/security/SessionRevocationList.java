@@ -0,0 +1,53 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+/**
+ * SessionRevocationList holds the session tokens that are no longer valid before they expire:
+ * single tokens (logout) and all tokens of a user issued up to a point in time (role change).
+ * Entries are only needed until the tokens they cover have expired, so the list stays small.
+ * It lives in memory; with several instances each one must be told about revocations.
+ */
+public class SessionRevocationList {
+
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> revokedUsers = new ConcurrentHashMap<>();
+
+    @Value("${focusflow.session.ttl:PT12H}")
+    private Duration ttl = Duration.ofHours(12);
+
+    // Method: Revoke one token, e.g. on logout
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        revokedTokens.put(tokenId, expiresAt);
+    }
+
+    // Method: Revoke every token of the user issued until now, e.g. after a role change
+    public void revokeUser(Long userId) {
+        revokedUsers.put(userId, Instant.now());
+    }
+
+    // Method: Whether a verified token has been revoked since it was issued
+    public boolean isRevoked(SessionPrincipal principal) {
+        if (revokedTokens.containsKey(principal.tokenId())) {
+            return true;
+        }
+        Instant revokedAt = revokedUsers.get(principal.userId());
+        return revokedAt != null && !principal.issuedAt().isAfter(revokedAt);
+    }
+
+    // Drop entries whose tokens have expired anyway
+    @Scheduled(fixedDelayString = "PT5M")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        revokedUsers.values().removeIf(revokedAt -> revokedAt.plus(ttl).isBefore(now));
+    }
+}
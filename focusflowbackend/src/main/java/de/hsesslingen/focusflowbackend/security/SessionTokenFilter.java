@@ -0,0 +1,53 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+@Component
+@Order(SessionTokenFilter.ORDER)
+@RequiredArgsConstructor
+/**
+ * SessionTokenFilter verifies the bearer token of API requests and stores the SessionPrincipal as a request attribute,
+ * where controllers get it from (see SessionPrincipalArgumentResolver). Requests without a token pass unchanged;
+ * a token that does not verify is answered with 401 right here.
+ */
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    // After Spring's own filters; the rate limit filter runs right after this one and keys by the principal
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+    private static final String BEARER = "Bearer ";
+
+    private final SessionTokenService sessionTokenService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            Optional<SessionPrincipal> principal = sessionTokenService.verify(authorization.substring(BEARER.length()).trim());
+            if (principal.isEmpty()) {
+                response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+            request.setAttribute(SessionPrincipal.ATTRIBUTE, principal.get());
+        }
+        chain.doFilter(request, response);
+    }
+}
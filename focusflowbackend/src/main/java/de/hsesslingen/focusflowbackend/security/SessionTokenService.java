@@ -0,0 +1,145 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipIndex;
+import de.hsesslingen.focusflowbackend.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+/**
+ * SessionTokenService issues and verifies the stateless session tokens handed out on login.
+ * A token is base64url(payload) + "." + base64url(HMAC-SHA256 of the encoded payload), where the payload carries
+ * a token ID, the user ID, issue and expiry time, the user's team IDs and role. Verifying one needs the key and
+ * the revocation list only, never the database. The key comes from focusflow.session.secret (base64, at least
+ * 32 bytes); without one a random key is used and tokens do not survive a restart.
+ */
+public class SessionTokenService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionTokenService.class);
+    private static final String VERSION = "1";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final TeamMembershipIndex membershipIndex;
+    private final SessionRevocationList revocationList;
+    private final SecretKeySpec key;
+    private final Duration ttl;
+
+    public SessionTokenService(TeamMembershipIndex membershipIndex, SessionRevocationList revocationList,
+                               @Value("${focusflow.session.secret:}") String secret,
+                               @Value("${focusflow.session.ttl:PT12H}") Duration ttl) {
+        this.membershipIndex = membershipIndex;
+        this.revocationList = revocationList;
+        this.key = new SecretKeySpec(keyBytes(secret), ALGORITHM);
+        this.ttl = ttl;
+    }
+
+    // Method: Issue a token for a user who has just logged in
+    public String issue(User user) {
+        Instant issuedAt = Instant.now();
+        String teamIds = Arrays.stream(membershipIndex.getTeamIds(user.getId()))
+                .mapToObj(Long::toString).collect(Collectors.joining(","));
+        String payload = String.join("|", VERSION, randomTokenId(), user.getId().toString(),
+                Long.toString(issuedAt.toEpochMilli()), Long.toString(issuedAt.plus(ttl).toEpochMilli()), teamIds, user.getRole());
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    // Method: The principal of a token; empty if it is malformed, forged, expired or revoked
+    public Optional<SessionPrincipal> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        String encodedPayload = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(sign(encodedPayload), DECODER.decode(token.substring(dot + 1)))) {
+                return Optional.empty();
+            }
+            SessionPrincipal principal = parse(new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8));
+            if (principal == null || !principal.expiresAt().isAfter(Instant.now()) || revocationList.isRevoked(principal)) {
+                return Optional.empty();
+            }
+            return Optional.of(principal);
+        } catch (IllegalArgumentException e) {
+            // Not base64 or not numbers where numbers belong
+            return Optional.empty();
+        }
+    }
+
+    // Method: Invalidate the token of this principal (logout)
+    public void revoke(SessionPrincipal principal) {
+        revocationList.revokeToken(principal.tokenId(), principal.expiresAt());
+    }
+
+    // Method: Invalidate all tokens issued to a user so far, e.g. because the role they carry changed
+    public void revokeAll(Long userId) {
+        revocationList.revokeUser(userId);
+    }
+
+    // Helper method: Payload fields in issue order; the role comes last and may contain anything
+    private static SessionPrincipal parse(String payload) {
+        String[] fields = payload.split("\\|", 7);
+        if (fields.length != 7 || !VERSION.equals(fields[0])) {
+            return null;
+        }
+        Set<Long> teamIds = new LinkedHashSet<>();
+        if (!fields[5].isEmpty()) {
+            for (String teamId : fields[5].split(",")) {
+                teamIds.add(Long.parseLong(teamId));
+            }
+        }
+        return new SessionPrincipal(fields[1], Long.parseLong(fields[2]), fields[6], Set.copyOf(teamIds),
+                Instant.ofEpochMilli(Long.parseLong(fields[3])), Instant.ofEpochMilli(Long.parseLong(fields[4])));
+    }
+
+    private byte[] sign(String encodedPayload) {
+        try {
+            // Mac instances are not thread-safe and cheap to create
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static String randomTokenId() {
+        byte[] id = new byte[12];
+        RANDOM.nextBytes(id);
+        return ENCODER.encodeToString(id);
+    }
+
+    private static byte[] keyBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            LOGGER.warn("focusflow.session.secret is not set; using a random key, sessions end with every restart");
+            byte[] random = new byte[32];
+            RANDOM.nextBytes(random);
+            return random;
+        }
+        byte[] bytes = Base64.getDecoder().decode(secret.trim());
+        if (bytes.length < 32) {
+            throw new IllegalStateException("focusflow.session.secret must be at least 32 bytes (base64 encoded)");
+        }
+        return bytes;
+    }
+}
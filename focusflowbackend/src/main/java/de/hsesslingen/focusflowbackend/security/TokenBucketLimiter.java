@@ -0,0 +1,68 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for one route, one per client, without locks. Each bucket is a single AtomicLong holding the time
+ * at which it will be full again (the "theoretical arrival time" of the generic cell rate algorithm, which is
+ * equivalent to a token bucket): a request takes one token by moving that time one refill interval ahead, and
+ * is refused when the time would end up more than capacity intervals in the future. Taking a token is one CAS.
+ * A bucket whose time has passed is full and carries no information, so sweep() can drop it; at most maxClients
+ * buckets are kept, later clients share one overflow bucket until the next sweep.
+ */
+class TokenBucketLimiter {
+
+    private final String name;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxClients;
+    private final Map<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucketLimiter(String name, long capacity, double refillPerSecond, int maxClients) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a capacity >= 1 and a positive refill rate");
+        }
+        this.name = name;
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.maxClients = maxClients;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    // Method: Take a token for the client; 0 if granted, otherwise the nanoseconds until the next token
+    long tryAcquire(Object clientKey, long nowNanos) {
+        AtomicLong bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            bucket = buckets.size() < maxClients
+                    ? buckets.computeIfAbsent(clientKey, key -> new AtomicLong(Long.MIN_VALUE))
+                    : overflow;
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            // Long.MIN_VALUE: new bucket, full
+            long next = (fullAt == Long.MIN_VALUE || fullAt - nowNanos < 0 ? nowNanos : fullAt) + intervalNanos;
+            long excess = next - nowNanos - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Method: Drop buckets that are full again; a request racing with the removal may get one extra token
+    void sweep(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.get() == Long.MIN_VALUE || bucket.get() - nowNanos <= 0);
+    }
+}
@@ -0,0 +1,212 @@
+package de.hsesslingen.focusflowbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.hsesslingen.focusflowbackend.dto.CalendarDayCountDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.event.TasksBulkUpdatedEvent;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+@RequiredArgsConstructor
+/**
+ * CalendarService answers date-range questions about due tasks and renders the per-user iCal feed.
+ * Feeds are rendered once and cached until a task of the user changes; the least recently used feeds are dropped
+ * when the cache is full.
+ */
+public class CalendarService {
+
+    public static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_CACHED_FEEDS = 10_000;
+    private static final int GENERATION_STRIPES = 1024;
+    private static final DateTimeFormatter ICAL_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter ICAL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    /** A rendered iCal feed and its strong ETag. */
+    public record CalendarFeed(String body, String etag) { }
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+
+    private final Cache<Long, CalendarFeed> feeds = Caffeine.newBuilder().maximumSize(MAX_CACHED_FEEDS).build();
+    // Bumped when a user's feed is invalidated, so a feed rendered from older data is not cached;
+    // striped by user ID, so invalidating one user only rarely affects another
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    // Method: Tasks due between from and to (both inclusive) for one user or one team
+    public List<TaskViewDTO> getTasksDue(Long userId, Long teamId, LocalDate from, LocalDate to) {
+        validateRange(userId, teamId, from, to);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        return userId != null
+                ? taskRepository.findViewsDueForAssignee(userId, start, end)
+                : taskRepository.findViewsDueForTeam(teamId, start, end);
+    }
+
+    // Method: Number of tasks due per day between from and to (both inclusive) for one user or one team
+    public List<CalendarDayCountDTO> getDailyCounts(Long userId, Long teamId, LocalDate from, LocalDate to) {
+        validateRange(userId, teamId, from, to);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        return userId != null
+                ? taskRepository.countDueByDayForAssignee(userId, start, end)
+                : taskRepository.countDueByDayForTeam(teamId, start, end);
+    }
+
+    // Helper method: Exactly one scope and a bounded, ordered date range are required
+    private void validateRange(Long userId, Long teamId, LocalDate from, LocalDate to) {
+        if ((userId == null) == (teamId == null)) {
+            throw new IllegalArgumentException("Either userId or teamId is required");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("The range may span at most " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    // Method: iCal feed of the open tasks assigned to a user, served from the cache when possible
+    public CalendarFeed getFeed(Long userId) {
+        CalendarFeed cached = feeds.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with ID: " + userId);
+        }
+        int stripe = stripe(userId);
+        long renderedAt = generations.get(stripe);
+        String body = renderFeed(taskRepository.findViewsByAssigneeId(userId));
+        CalendarFeed feed = new CalendarFeed(body,
+                "\"" + DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8)) + "\"");
+        // Checked under the entry's lock: an invalidation bumps the generation first and then removes the entry,
+        // which waits for this compute, so a stale feed is either not stored or removed right after
+        feeds.asMap().compute(userId, (id, current) -> generations.get(stripe) == renderedAt ? feed : current);
+        return feed;
+    }
+
+    // Drop the feeds of the old and the new assignee once a task change is committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        invalidate(event.before());
+        invalidate(event.after());
+    }
+
+    // Drop the feeds of every assignee the bulk update's tasks had before or have after it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksBulkUpdated(TasksBulkUpdatedEvent event) {
+        event.assigneeIds().forEach(this::invalidate);
+    }
+
+    private void invalidate(TaskSnapshot task) {
+        if (task != null && task.assigneeId() != null) {
+            invalidate(task.assigneeId());
+        }
+    }
+
+    private void invalidate(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        feeds.invalidate(userId);
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), GENERATION_STRIPES);
+    }
+
+    // Helper method: Render tasks as an RFC 5545 calendar; closed tasks and tasks without due date are left out
+    static String renderFeed(List<TaskViewDTO> tasks) {
+        StringBuilder ics = new StringBuilder();
+        appendLine(ics, "BEGIN:VCALENDAR");
+        appendLine(ics, "VERSION:2.0");
+        appendLine(ics, "PRODID:-//FocusFlow//Tasks//EN");
+        appendLine(ics, "CALSCALE:GREGORIAN");
+        appendLine(ics, "X-WR-CALNAME:FocusFlow");
+        for (TaskViewDTO task : tasks) {
+            if (task.getDueDate() == null || task.getStatus() == TaskStatus.CLOSED) {
+                continue;
+            }
+            appendLine(ics, "BEGIN:VEVENT");
+            appendLine(ics, "UID:task-" + task.getId() + "@focusflow");
+            appendLine(ics, "DTSTAMP:" + stamp(task));
+            if (task.getDueDate().toLocalTime().equals(LocalTime.MIDNIGHT)) {
+                appendLine(ics, "DTSTART;VALUE=DATE:" + task.getDueDate().format(ICAL_DATE));
+            } else {
+                appendLine(ics, "DTSTART:" + task.getDueDate().format(ICAL_DATE_TIME));
+            }
+            appendLine(ics, "SUMMARY:" + escapeText(task.getTitle()));
+            if (task.getDescription() != null && !task.getDescription().isBlank()) {
+                appendLine(ics, "DESCRIPTION:" + escapeText(task.getDescription()));
+            }
+            if (task.getPriority() != null) {
+                appendLine(ics, "CATEGORIES:" + task.getPriority());
+            }
+            appendLine(ics, "END:VEVENT");
+        }
+        appendLine(ics, "END:VCALENDAR");
+        return ics.toString();
+    }
+
+    // Helper method: DTSTAMP from the last change of the task in UTC, so the same tasks always render the same body and ETag
+    private static String stamp(TaskViewDTO task) {
+        if (task.getUpdatedAt() == null) {
+            // Tasks last written before change tracking existed
+            return "19700101T000000Z";
+        }
+        return task.getUpdatedAt().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC)
+                .toLocalDateTime().format(ICAL_DATE_TIME) + "Z";
+    }
+
+    // Helper method: Escape backslashes, separators and line breaks in a TEXT value
+    static String escapeText(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+
+    // Helper method: Append a content line, folded at 75 octets as RFC 5545 requires
+    private static void appendLine(StringBuilder ics, String line) {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > 75) {
+                ics.append("\r\n ");
+                octets = 1;
+            }
+            ics.appendCodePoint(codePoint);
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        ics.append("\r\n");
+    }
+}
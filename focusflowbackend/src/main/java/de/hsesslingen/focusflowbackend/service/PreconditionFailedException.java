@@ -0,0 +1,20 @@
+package de.hsesslingen.focusflowbackend.service;
+
+/**
+ * Thrown when a conditional update finds the resource changed; carries the current ETag for the 412 response.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String currentETag;
+
+    public PreconditionFailedException(String currentETag) {
+        super("Precondition failed, current ETag is " + currentETag);
+        this.currentETag = currentETag;
+    }
+
+    public String getCurrentETag() {
+        return currentETag;
+    }
+}
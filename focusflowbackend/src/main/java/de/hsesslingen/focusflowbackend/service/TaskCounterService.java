@@ -0,0 +1,266 @@
+package de.hsesslingen.focusflowbackend.service;
+
+import de.hsesslingen.focusflowbackend.dto.TaskChangeRefDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskCountRowDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskCountsDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.event.TasksBulkUpdatedEvent;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.repository.TaskTombstoneRepository;
+import de.hsesslingen.focusflowbackend.sync.TaskChangeSequence;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+@RequiredArgsConstructor
+/**
+ * TaskCounterService keeps per-team and per-assignee task counts by status and priority in memory.
+ * Committed task changes adjust the counts incrementally; a periodic GROUP BY rebuilds them,
+ * so changes that bypass the events (or get lost) cannot make the counts drift for long.
+ * Changes whose listeners run while the GROUP BY runs are replayed onto its result, unless the GROUP BY already
+ * counted them. That is decided in the same snapshot: the scan also reads the change numbers at or above the
+ * watermark taken before it (below, the transaction had completed), and a change it finds there is not replayed.
+ */
+public class TaskCounterService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskCounterService.class);
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+    // One extra priority slot for tasks without priority
+    private static final int PRIORITY_SLOTS = PRIORITIES.length + 1;
+    private static final int SLOTS = STATUSES.length * PRIORITY_SLOTS;
+    public static final String NO_PRIORITY = "NONE";
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final TaskChangeSequence changeSequence;
+    private final TaskScheduler taskScheduler;
+
+    // Bulk updates within this delay are counted again by one rebuild
+    @Value("${focusflow.counters.bulk-reconcile-delay:PT2S}")
+    private Duration bulkReconcileDelay = Duration.ofSeconds(2);
+
+    private record Counters(Map<Long, AtomicLongArray> byTeam, Map<Long, AtomicLongArray> byAssignee) {
+        static Counters empty() {
+            return new Counters(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private record Delta(TaskSnapshot task, int sign, Long changeSeq) { }
+
+    // The GROUP BY and the recent changes it contains, read from one snapshot
+    private record Scan(List<TaskCountRowDTO> rows, Map<Long, Long> changeSeqByTask) {
+
+        // Method: Whether the scan already counts this change: the task's row or tombstone carries it or a later one
+        boolean contains(Delta delta, long watermark) {
+            if (delta.changeSeq() < watermark) {
+                return true;
+            }
+            Long visible = changeSeqByTask.get(delta.task().id());
+            return visible != null && visible >= delta.changeSeq();
+        }
+    }
+
+    private volatile Counters counters = Counters.empty();
+    // Serializes updates; reads go to the current counters without locking
+    private final Object updateLock = new Object();
+    // Deltas applied while a reconciliation runs, replayed onto the rebuilt counters (guarded by updateLock)
+    private List<Delta> deltasDuringReconcile;
+    // Set when a rebuild is requested while one is running; the running one then starts over (guarded by updateLock)
+    private boolean reconcileAgain;
+    // Set while a rebuild for bulk updates is scheduled
+    private final AtomicBoolean bulkReconcileScheduled = new AtomicBoolean();
+
+    // Method: Task counts of a team
+    public TaskCountsDTO getTeamCounts(Long teamId) {
+        return toDto(counters.byTeam().get(teamId));
+    }
+
+    // Method: Task counts of an assignee
+    public TaskCountsDTO getAssigneeCounts(Long assigneeId) {
+        return toDto(counters.byAssignee().get(assigneeId));
+    }
+
+    // Adjust the counts once a task change is committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        Delta removed = new Delta(event.before(), -1, event.changeSeq());
+        Delta added = new Delta(event.after(), 1, event.changeSeq());
+        synchronized (updateLock) {
+            apply(counters, removed);
+            apply(counters, added);
+            if (deltasDuringReconcile != null) {
+                deltasDuringReconcile.add(removed);
+                deltasDuringReconcile.add(added);
+            }
+        }
+    }
+
+    // A bulk update does not say which tasks changed, so count again; on the scheduler, not on the committing thread,
+    // and once for all bulk updates that arrive within the delay
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksBulkUpdated(TasksBulkUpdatedEvent event) {
+        if (bulkReconcileScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                // Cleared first: a bulk update committed while this rebuild runs schedules the next one
+                bulkReconcileScheduled.set(false);
+                reconcile();
+            }, Instant.now().plus(bulkReconcileDelay));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    // Method: Rebuild all counters from the database
+    @Scheduled(fixedDelayString = "${focusflow.counters.reconcile-interval:PT10M}",
+            initialDelayString = "${focusflow.counters.reconcile-interval:PT10M}")
+    public void reconcile() {
+        synchronized (updateLock) {
+            if (deltasDuringReconcile != null) {
+                reconcileAgain = true;
+                return;
+            }
+            deltasDuringReconcile = new ArrayList<>();
+        }
+        try {
+            // Taken after deltasDuringReconcile is set, so every delta at or above it is collected
+            long watermark = changeSequence.watermark();
+            Scan scan = scan(watermark);
+            Counters rebuilt = Counters.empty();
+            for (TaskCountRowDTO row : scan.rows()) {
+                if (row.getStatus() == null) {
+                    continue;
+                }
+                int slot = slot(row.getStatus(), row.getPriority());
+                if (row.getTeamId() != null) {
+                    cell(rebuilt.byTeam(), row.getTeamId()).addAndGet(slot, row.getCount());
+                }
+                if (row.getAssigneeId() != null) {
+                    cell(rebuilt.byAssignee(), row.getAssigneeId()).addAndGet(slot, row.getCount());
+                }
+            }
+            synchronized (updateLock) {
+                for (Delta delta : deltasDuringReconcile) {
+                    if (delta.task() == null) {
+                        continue;
+                    }
+                    if (delta.changeSeq() == null) {
+                        // Cannot tell whether the scan counted it: keep the rebuilt counts, but count once more
+                        reconcileAgain = true;
+                    } else if (!scan.contains(delta, watermark)) {
+                        apply(rebuilt, delta);
+                    }
+                }
+                counters = rebuilt;
+            }
+            LOGGER.debug("Task counters rebuilt for {} teams and {} assignees",
+                    rebuilt.byTeam().size(), rebuilt.byAssignee().size());
+        } catch (RuntimeException e) {
+            LOGGER.error("Rebuilding the task counters failed: {}", e.getMessage(), e);
+        } finally {
+            boolean again;
+            synchronized (updateLock) {
+                deltasDuringReconcile = null;
+                again = reconcileAgain;
+                reconcileAgain = false;
+            }
+            if (again) {
+                reconcile();
+            }
+        }
+    }
+
+    // Helper method: The GROUP BY and the changes from the watermark on, in one repeatable-read snapshot
+    private Scan scan(long watermark) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        return tx.execute(status -> {
+            List<TaskCountRowDTO> rows = taskRepository.countByTeamAssigneeStatusAndPriority();
+            Map<Long, Long> changeSeqByTask = new HashMap<>();
+            for (TaskChangeRefDTO change : taskRepository.findChangesFrom(watermark)) {
+                changeSeqByTask.merge(change.getTaskId(), change.getChangeSeq(), Math::max);
+            }
+            for (TaskChangeRefDTO change : tombstoneRepository.findChangesFrom(watermark)) {
+                changeSeqByTask.merge(change.getTaskId(), change.getChangeSeq(), Math::max);
+            }
+            return new Scan(rows, changeSeqByTask);
+        });
+    }
+
+    // Helper method: Add or remove one task from the counts of its team and assignee
+    private static void apply(Counters target, Delta delta) {
+        TaskSnapshot task = delta.task();
+        if (task == null || task.status() == null) {
+            return;
+        }
+        int slot = slot(task.status(), task.priority());
+        if (task.teamId() != null) {
+            cell(target.byTeam(), task.teamId()).addAndGet(slot, delta.sign());
+        }
+        if (task.assigneeId() != null) {
+            cell(target.byAssignee(), task.assigneeId()).addAndGet(slot, delta.sign());
+        }
+    }
+
+    private static AtomicLongArray cell(Map<Long, AtomicLongArray> map, Long ownerId) {
+        return map.computeIfAbsent(ownerId, id -> new AtomicLongArray(SLOTS));
+    }
+
+    private static int slot(TaskStatus status, TaskPriority priority) {
+        return status.ordinal() * PRIORITY_SLOTS + (priority != null ? priority.ordinal() : PRIORITIES.length);
+    }
+
+    // Helper method: Turn one counter cell into the response shape (all statuses and priorities are listed)
+    private static TaskCountsDTO toDto(AtomicLongArray cell) {
+        long total = 0;
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        Map<TaskStatus, Map<String, Long>> byStatusAndPriority = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : STATUSES) {
+            long statusTotal = 0;
+            Map<String, Long> byPriority = new LinkedHashMap<>();
+            for (TaskPriority priority : PRIORITIES) {
+                long count = cell != null ? cell.get(slot(status, priority)) : 0;
+                byPriority.put(priority.name(), count);
+                statusTotal += count;
+            }
+            long withoutPriority = cell != null ? cell.get(slot(status, null)) : 0;
+            byPriority.put(NO_PRIORITY, withoutPriority);
+            statusTotal += withoutPriority;
+            byStatus.put(status, statusTotal);
+            byStatusAndPriority.put(status, byPriority);
+            total += statusTotal;
+        }
+        return new TaskCountsDTO(total, byStatus, byStatusAndPriority);
+    }
+}
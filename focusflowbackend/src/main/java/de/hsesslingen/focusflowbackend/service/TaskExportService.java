@@ -0,0 +1,88 @@
+package de.hsesslingen.focusflowbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+// This service writes all tasks to a stream row by row, so memory use does not grow with the number of tasks
+public class TaskExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER =
+            "id,title,description,longDescription,dueDate,priority,status,creatorId,assigneeId,teamId";
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    // Method: Export all tasks in the given format; the caller owns (and closes) the output stream
+    @Transactional(readOnly = true)
+    public long exportTasks(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(TaskViewDTO.class);
+        long count = 0;
+
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<TaskViewDTO> rows = taskRepository.streamAllViews()) {
+            Iterator<TaskViewDTO> it = rows.iterator();
+            while (it.hasNext()) {
+                TaskViewDTO row = it.next();
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(row));
+                }
+                writer.write('\n');
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    // Helper method: Write one task as a CSV line (without line break)
+    private void writeCsvRow(Writer writer, TaskViewDTO row) throws IOException {
+        Object[] values = {
+            row.getId(), row.getTitle(), row.getDescription(), row.getLongDescription(),
+            row.getDueDate() != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.getDueDate()) : null,
+            row.getPriority(), row.getStatus(), row.getCreatorId(), row.getAssigneeId(), row.getTeamId()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvValue(values[i]));
+        }
+    }
+
+    // Helper method: Quote a CSV value if it contains separators, quotes or line breaks
+    static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,50 +1,78 @@
 package de.hsesslingen.focusflowbackend.service;
 
+import de.hsesslingen.focusflowbackend.dto.TaskBulkUpdateRequestDTO;
 import de.hsesslingen.focusflowbackend.dto.TaskCreationRequestDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskFilterDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskPageDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskScopeDTO;
 import de.hsesslingen.focusflowbackend.dto.TaskUpdateRequestDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamMembershipDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.event.TasksBulkUpdatedEvent;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipIndex;
 import de.hsesslingen.focusflowbackend.model.Team;
 import de.hsesslingen.focusflowbackend.model.User;
 import de.hsesslingen.focusflowbackend.model.tasks.Task;
 import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskTombstone;
+import de.hsesslingen.focusflowbackend.notification.NotificationOutboxService;
 import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.repository.TaskTombstoneRepository;
 import de.hsesslingen.focusflowbackend.repository.TeamRepository;
 import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import de.hsesslingen.focusflowbackend.sync.TaskChangeSequence;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed("focusflow.service")
 // This service class is responsible for handling task-related operations
 public class TaskService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 5000;
+    private static final int BATCH_FLUSH_SIZE = 500;
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final TeamRepository teamRepository;
-    
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final TaskChangeSequence changeSequence;
+    private final NotificationOutboxService notificationOutbox;
+    private final TeamMembershipIndex membershipIndex;
+
     // Method: Create a new task with basic validations
+    @Transactional
     public Task createTask(TaskCreationRequestDTO request, User creator) {
-        // Basic Validations
-        if (request.getTitle() == null || request.getTitle().trim().length() < 3) {
-            throw new IllegalArgumentException("Task title must be at least 3 characters long");
-        }
-
-        if (request.getDueDate() == null) {
-            throw new IllegalArgumentException("Due date is required.");
-        }
-
-        if (request.getDueDate().isBefore(LocalDate.now())) {
-            throw new IllegalArgumentException("Due date cannot be in the past");
-        }
+        validateTaskRequest(request);
 
         // Assignee and Team Logic
         User assignee = null;
-        if (request.getAssigneeEmail() != null && !request.getAssigneeEmail().trim().isEmpty()) {
+        if (hasAssigneeEmail(request)) {
             assignee = userRepository.findByEmail(request.getAssigneeEmail())
                     .orElseThrow(() -> new NoSuchElementException("Assignee user not found with email: " + request.getAssigneeEmail()));
         }
@@ -62,7 +90,133 @@ public class TaskService {
             }
         }
 
-        // Task Entity Creation
+        Task savedTask = taskRepository.save(buildTask(request, creator, assignee, taskTeam));
+        // Same transaction as the task: the relay delivers it later, creation never waits for the channel
+        if (shouldNotifyAssignee(request, savedTask)) {
+            notificationOutbox.enqueueTaskAssigned(savedTask);
+        }
+        eventPublisher.publishEvent(TaskChangedEvent.created(TaskSnapshot.of(savedTask)));
+        return savedTask;
+    }
+
+    // Method: Create many tasks in one transaction with set-based lookups and JDBC insert batching
+    @Transactional
+    public List<Long> createTasks(List<TaskCreationRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one task is required");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_SIZE + " tasks");
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            TaskCreationRequestDTO request = requests.get(i);
+            if (request == null) {
+                throw new IllegalArgumentException("Task #" + i + ": Task data is missing");
+            }
+            if (request.getCreatorId() == null) {
+                throw new IllegalArgumentException("Task #" + i + ": Creator ID is required");
+            }
+            try {
+                validateTaskRequest(request);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Task #" + i + ": " + e.getMessage());
+            }
+        }
+
+        // One lookup per referenced kind of entity, regardless of the batch size
+        Set<Long> creatorIds = requests.stream().map(TaskCreationRequestDTO::getCreatorId).collect(Collectors.toSet());
+        Set<String> assigneeEmails = requests.stream().filter(this::hasAssigneeEmail)
+                .map(TaskCreationRequestDTO::getAssigneeEmail).collect(Collectors.toSet());
+        Set<Long> teamIds = requests.stream().map(TaskCreationRequestDTO::getTeamId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+
+        Map<Long, User> creators = userRepository.findAllById(creatorIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, User> assignees = assigneeEmails.isEmpty() ? Map.of()
+                : userRepository.findByEmailIn(assigneeEmails).stream()
+                        .collect(Collectors.toMap(User::getEmail, Function.identity()));
+        Map<Long, Team> teams = teamIds.isEmpty() ? Map.of()
+                : teamRepository.findAllById(teamIds).stream()
+                        .collect(Collectors.toMap(Team::getId, Function.identity()));
+        Map<Long, Set<Long>> teamsByUser = loadTeamIdsOfUsersToCheck(requests, creators, assignees);
+
+        List<Task> tasks = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            TaskCreationRequestDTO request = requests.get(i);
+            User creator = creators.get(request.getCreatorId());
+            if (creator == null) {
+                throw new NoSuchElementException("Task #" + i + ": Creator user not found with ID: " + request.getCreatorId());
+            }
+            User assignee = null;
+            if (hasAssigneeEmail(request)) {
+                assignee = assignees.get(request.getAssigneeEmail());
+                if (assignee == null) {
+                    throw new NoSuchElementException("Task #" + i + ": Assignee user not found with email: " + request.getAssigneeEmail());
+                }
+            }
+            Team team = null;
+            if (request.getTeamId() != null) {
+                team = teams.get(request.getTeamId());
+                if (team == null) {
+                    throw new NoSuchElementException("Task #" + i + ": Team not found with ID: " + request.getTeamId());
+                }
+            } else if (assignee != null && !assignee.getId().equals(creator.getId())) {
+                Set<Long> creatorTeams = teamsByUser.getOrDefault(creator.getId(), Set.of());
+                if (teamsByUser.getOrDefault(assignee.getId(), Set.of()).stream().noneMatch(creatorTeams::contains)) {
+                    throw new IllegalArgumentException("Task #" + i + ": Cannot assign task to a user outside your team");
+                }
+            }
+            tasks.add(buildTask(request, creator, assignee, team));
+        }
+
+        // Persist in chunks: IDs come from the pooled sequence, inserts go out as JDBC batches on flush,
+        // and clearing keeps the persistence context small
+        List<Long> ids = new ArrayList<>(tasks.size());
+        for (int from = 0; from < tasks.size(); from += BATCH_FLUSH_SIZE) {
+            List<Task> chunk = taskRepository.saveAll(tasks.subList(from, Math.min(from + BATCH_FLUSH_SIZE, tasks.size())));
+            for (int i = 0; i < chunk.size(); i++) {
+                Task task = chunk.get(i);
+                ids.add(task.getId());
+                if (shouldNotifyAssignee(requests.get(from + i), task)) {
+                    notificationOutbox.enqueueTaskAssigned(task);
+                }
+                eventPublisher.publishEvent(TaskChangedEvent.created(TaskSnapshot.of(task)));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return ids;
+    }
+
+    // Helper method: Validate the fields every new task needs
+    private void validateTaskRequest(TaskCreationRequestDTO request) {
+        if (request.getTitle() == null || request.getTitle().trim().length() < 3) {
+            throw new IllegalArgumentException("Task title must be at least 3 characters long");
+        }
+
+        if (request.getDueDate() == null) {
+            throw new IllegalArgumentException("Due date is required.");
+        }
+
+        if (request.getDueDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Due date cannot be in the past");
+        }
+    }
+
+    // Helper method: Assignees hear about tasks others give them (a simulated failure sends nothing)
+    private boolean shouldNotifyAssignee(TaskCreationRequestDTO request, Task task) {
+        return task.getAssignee() != null
+                && !task.getAssignee().getId().equals(task.getCreator().getId())
+                && !request.isSimulateNotificationFailure();
+    }
+
+    // Helper method: Check if the request names an assignee
+    private boolean hasAssigneeEmail(TaskCreationRequestDTO request) {
+        return request.getAssigneeEmail() != null && !request.getAssigneeEmail().trim().isEmpty();
+    }
+
+    // Helper method: Build a new (unsaved) task entity from a creation request
+    private Task buildTask(TaskCreationRequestDTO request, User creator, User assignee, Team team) {
         Task task = new Task();
         task.setCreator(creator);
         task.setTitle(request.getTitle());
@@ -73,33 +227,86 @@ public class TaskService {
         task.setPriority(request.getPriority());
         task.setStatus(request.getStatus() != null ? request.getStatus() : TaskStatus.OPEN);
         task.setAssignee(assignee);
-        task.setTeam(taskTeam);
+        task.setTeam(team);
+        return task;
+    }
 
-        Task savedTask = taskRepository.save(task);
-        return savedTask;
+    // Helper method: Load team IDs of all users that need the shared-team check, in one query
+    private Map<Long, Set<Long>> loadTeamIdsOfUsersToCheck(List<TaskCreationRequestDTO> requests,
+                                                           Map<Long, User> creators, Map<String, User> assignees) {
+        Set<Long> userIds = new HashSet<>();
+        for (TaskCreationRequestDTO request : requests) {
+            if (request.getTeamId() == null && hasAssigneeEmail(request)) {
+                User creator = creators.get(request.getCreatorId());
+                User assignee = assignees.get(request.getAssigneeEmail());
+                if (creator != null && assignee != null) {
+                    userIds.add(creator.getId());
+                    userIds.add(assignee.getId());
+                }
+            }
+        }
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return teamRepository.findMembershipsByUserIds(userIds).stream()
+                .collect(Collectors.groupingBy(TeamMembershipDTO::getUserId,
+                        Collectors.mapping(TeamMembershipDTO::getTeamId, Collectors.toSet())));
     }
 
     // Method: Get all tasks for a specific user
-    public List<Task> getTasksForUser(User user) {
-        return taskRepository.findByAssigneeId(user.getId());
+    public List<TaskViewDTO> getTasksForUser(Long userId) {
+        return taskRepository.findViewsByAssigneeId(userId);
     }
 
     // Method: Get all tasks
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    public List<TaskViewDTO> getAllTasks() {
+        return taskRepository.findAllViews();
+    }
+
+    // Method: Get a single task by its ID
+    public Optional<TaskViewDTO> getTaskById(Long id) {
+        return taskRepository.findViewById(id);
     }
 
-    // Helper method: Check if two users share at least one common team
+    // Method: Get the version (ETag source) of a task without loading it
+    public Optional<Long> getTaskVersion(Long id) {
+        return taskRepository.findVersionById(id);
+    }
+
+    // Method: Get one keyset page of tasks matching the filter, ordered by ID
+    public TaskPageDTO listTasks(TaskFilterDTO filter, Long after, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        TaskFilterDTO f = filter != null ? filter : new TaskFilterDTO();
+        LocalDateTime dueFrom = f.getDueFrom() != null ? f.getDueFrom().atStartOfDay() : null;
+        LocalDateTime dueTo = f.getDueTo() != null ? f.getDueTo().plusDays(1).atStartOfDay() : null;
+
+        // Fetch one extra row to know whether another page follows
+        List<TaskViewDTO> rows = taskRepository.findPage(after != null ? after : 0L,
+                f.getStatus(), f.getPriority(), f.getTeamId(), f.getAssigneeId(),
+                dueFrom, dueTo, PageRequest.of(0, pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new TaskPageDTO(rows, null);
+        }
+        List<TaskViewDTO> page = rows.subList(0, pageSize);
+        return new TaskPageDTO(page, page.get(pageSize - 1).getId());
+    }
+
+    // Helper method: Check if two users share at least one common team (in-memory index, no lazy collections)
     private boolean doUsersShareAnyTeam(User user1, User user2) {
-        if (user1 == null || user2 == null || user1.getTeams() == null || user2.getTeams() == null) {
+        if (user1 == null || user2 == null) {
             return false;
         }
-        Set<Team> user1Teams = user1.getTeams();
-        return user2.getTeams().stream().anyMatch(user1Teams::contains);
+        return membershipIndex.shareAnyTeam(user1.getId(), user2.getId());
     }
 
-    // Method: Update an existing task with new details
-    public void updateTask(Task existing, TaskUpdateRequestDTO dto) {
+    // Method: Update an existing task with new details; returns the task with its new version
+    @Transactional
+    public Task updateTask(Task existing, TaskUpdateRequestDTO dto) {
+        TaskSnapshot before = TaskSnapshot.of(existing);
         if (dto.getTitle() != null) {
             existing.setTitle(dto.getTitle());
         }
@@ -109,8 +316,11 @@ public class TaskService {
         if (dto.getLongDescription() != null) {
             existing.setLongDescription(dto.getLongDescription());
         }
-        if (dto.getDueDate() != null) {
+        if (dto.getDueDate() != null && !dto.getDueDate().atStartOfDay().equals(existing.getDueDate())) {
             existing.setDueDate(dto.getDueDate().atStartOfDay());
+            // A new due date re-arms the reminder and clears the overdue flag (the deadline scheduler sets them again)
+            existing.setReminderSent(false);
+            existing.setOverdue(false);
         }
         if (dto.getAssigneeId() != null) {
             User assignee = userRepository.findById(dto.getAssigneeId())
@@ -130,16 +340,82 @@ public class TaskService {
         if (dto.getStatus() != null) {
             existing.setStatus(dto.getStatus());
         }
-        taskRepository.save(existing);
+        // Flush now, so a concurrent update surfaces here as an optimistic locking failure
+        Task saved = taskRepository.saveAndFlush(existing);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(before, TaskSnapshot.of(saved)));
+        return saved;
+    }
+
+    // Method: Apply one change set to many tasks with a single UPDATE statement, without loading them
+    @Transactional
+    public int bulkUpdateTasks(TaskBulkUpdateRequestDTO request) {
+        boolean byIds = request.getTaskIds() != null && !request.getTaskIds().isEmpty();
+        boolean byFilter = request.getFilter() != null && hasAnyCriterion(request.getFilter());
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Either task IDs or a non-empty filter is required");
+        }
+        if (byIds && request.getTaskIds().size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " task IDs are allowed");
+        }
+        if (request.getStatus() == null && request.getPriority() == null
+                && request.getAssigneeId() == null && request.getTeamId() == null) {
+            throw new IllegalArgumentException("At least one change is required");
+        }
+        if (request.getAssigneeId() != null && !userRepository.existsById(request.getAssigneeId())) {
+            throw new NoSuchElementException("Assignee not found with ID: " + request.getAssigneeId());
+        }
+        if (request.getTeamId() != null && !teamRepository.existsById(request.getTeamId())) {
+            throw new NoSuchElementException("Team not found with ID: " + request.getTeamId());
+        }
+        Set<Long> teamIds = new HashSet<>();
+        Set<Long> assigneeIds = new HashSet<>();
+        collectBulkUpdateScope(request, byFilter, teamIds, assigneeIds);
+        int updated = taskRepository.bulkUpdate(request, changeSequence.next());
+        if (updated > 0) {
+            eventPublisher.publishEvent(new TasksBulkUpdatedEvent(updated, Set.copyOf(teamIds), Set.copyOf(assigneeIds)));
+        }
+        return updated;
+    }
+
+    // Helper method: Teams and assignees the selected tasks have before and after a bulk update;
+    // a filter on both team and assignee already names them, otherwise they are read with the same selection
+    private void collectBulkUpdateScope(TaskBulkUpdateRequestDTO request, boolean byFilter, Set<Long> teamIds, Set<Long> assigneeIds) {
+        TaskFilterDTO filter = request.getFilter();
+        if (byFilter && filter.getTeamId() != null && filter.getAssigneeId() != null) {
+            teamIds.add(filter.getTeamId());
+            assigneeIds.add(filter.getAssigneeId());
+        } else {
+            for (TaskScopeDTO scope : taskRepository.findBulkUpdateScopes(request)) {
+                addIfPresent(teamIds, scope.getTeamId());
+                addIfPresent(assigneeIds, scope.getAssigneeId());
+            }
+        }
+        addIfPresent(teamIds, request.getTeamId());
+        addIfPresent(assigneeIds, request.getAssigneeId());
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    // Helper method: Check if a filter restricts the selection at all
+    private boolean hasAnyCriterion(TaskFilterDTO filter) {
+        return filter.getStatus() != null || filter.getPriority() != null || filter.getTeamId() != null
+                || filter.getAssigneeId() != null || filter.getDueFrom() != null || filter.getDueTo() != null;
     }
 
     // Method: Delete a task by its ID
     @Transactional
     public void deleteTask(Long taskId) {
-        if (!taskRepository.existsById(taskId)) {
-            throw new NoSuchElementException("Task nicht gefunden mit ID: " + taskId);
-        }
-        taskRepository.deleteById(taskId);
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new NoSuchElementException("Task nicht gefunden mit ID: " + taskId));
+        long changeSeq = changeSequence.next();
+        TaskSnapshot before = TaskSnapshot.of(task).withChangeSeq(changeSeq);
+        tombstoneRepository.save(TaskTombstone.of(task, changeSeq));
+        taskRepository.delete(task);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(before));
     }
 
 }
\ No newline at end of file
@@ -1,27 +1,52 @@
 package de.hsesslingen.focusflowbackend.service;
 
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamMemberViewDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamSummaryDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamSummaryPageDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamVersionDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamViewDTO;
+import de.hsesslingen.focusflowbackend.event.TeamChangedEvent;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipIndex;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipRepository;
 import de.hsesslingen.focusflowbackend.model.Team;
 import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
 import de.hsesslingen.focusflowbackend.repository.TeamRepository;
 import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed("focusflow.service")
 public class TeamService {
 
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TeamMembershipIndex membershipIndex;
+    private final TeamMembershipRepository membershipRepository;
 
+    @Transactional
     public Team createTeam(String name, String description, List<String> memberEmails, String creatorEmail) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Team name is required");
@@ -29,36 +54,67 @@ public class TeamService {
         Team team = new Team();
         team.setName(name);
         team.setDescription(description);
+        List<String> emails = new ArrayList<>();
+        emails.add(creatorEmail);
+        if (memberEmails != null) {
+            emails.addAll(memberEmails);
+        }
+        Map<String, User> usersByEmail = findUsersByEmail(emails);
         Set<User> members = new HashSet<>();
-        User creator = userRepository.findByEmail(creatorEmail)
-                .orElseThrow(() -> new RuntimeException("Creator not found: " + creatorEmail));
+        User creator = usersByEmail.get(creatorEmail);
+        if (creator == null) {
+            throw new RuntimeException("Creator not found: " + creatorEmail);
+        }
         members.add(creator);
         if (memberEmails != null) {
             for (String email : memberEmails) {
-                User member = userRepository.findByEmail(email)
-                        .orElseThrow(() -> new RuntimeException("User not found: " + email));
+                User member = usersByEmail.get(email);
+                if (member == null) {
+                    throw new RuntimeException("User not found: " + email);
+                }
                 members.add(member);
             }
         }
+        // A new team has no member collection to load, so the join rows are left to Hibernate's batched insert
         team.setMembers(members);
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        members.forEach(member -> membershipIndex.addMember(saved.getId(), member.getId()));
+        eventPublisher.publishEvent(new TeamChangedEvent(TeamChangedEvent.ChangeType.CREATED, saved.getId(), memberIds(members)));
+        return saved;
     }
 
+    // Method: Add members by email without loading the team's members; returns the resulting member count
     @Transactional
-    public Team addMembers(Long teamId, List<String> memberEmails) {
-        Team team = teamRepository.findById(teamId)
-            .orElseThrow(() -> new RuntimeException("Team nicht gefunden: " + teamId));
+    public int addMembers(Long teamId, List<String> memberEmails) {
+        if (!membershipRepository.lockTeam(teamId)) {
+            throw new RuntimeException("Team nicht gefunden: " + teamId);
+        }
+        Map<String, User> usersByEmail = findUsersByEmail(memberEmails);
+        List<Long> userIds = new ArrayList<>();
         for (String email : memberEmails) {
-            User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User nicht gefunden: " + email));
-            team.getMembers().add(user);
+            User user = usersByEmail.get(email);
+            if (user == null) {
+                throw new RuntimeException("User nicht gefunden: " + email);
+            }
+            userIds.add(user.getId());
         }
-        return teamRepository.save(team);
+        Set<Long> added = membershipRepository.addMembers(teamId, userIds);
+        if (!added.isEmpty()) {
+            membershipRepository.incrementVersion(teamId);
+            added.forEach(userId -> membershipIndex.addMember(teamId, userId));
+            eventPublisher.publishEvent(new TeamChangedEvent(TeamChangedEvent.ChangeType.MEMBERS_ADDED, teamId, added));
+        }
+        return membershipRepository.countMembers(teamId);
     }
 
+    // Method: Teams of a user; the IDs come from the membership index, so only those teams are loaded
     public List<Team> getTeamsForUser(Long userId) {
-        return teamRepository.findAll().stream()
-                .filter(team -> team.getMembers().stream().anyMatch(user -> user.getId().equals(userId)))
+        List<Long> teamIds = Arrays.stream(membershipIndex.getTeamIds(userId)).boxed().toList();
+        if (teamIds.isEmpty()) {
+            return List.of();
+        }
+        return teamRepository.findAllById(teamIds).stream()
+                .sorted(Comparator.comparing(Team::getId))
                 .collect(Collectors.toList());
     }
 
@@ -69,10 +125,83 @@ public class TeamService {
     public List<Team> getAllTeams() {
         return teamRepository.findAll();
     }
+
+    // Read model: all teams with members and tasks in three queries
+    public List<TeamViewDTO> getAllTeamViews() {
+        return withMembersAndTasks(teamRepository.findAllViews());
+    }
+
+    // Read model: teams of a user with members and tasks in three queries
+    public List<TeamViewDTO> getTeamViewsForUser(Long userId) {
+        return withMembersAndTasks(teamRepository.findViewsByMemberId(userId));
+    }
+
+    // Method: One keyset page of team summaries (all teams, or the teams of a user), ordered by ID
+    public TeamSummaryPageDTO listTeamSummaries(Long userId, Long after, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        int pageSize = limit == null ? TaskService.DEFAULT_PAGE_SIZE : Math.min(limit, TaskService.MAX_PAGE_SIZE);
+        long afterId = after != null ? after : 0L;
+
+        // Fetch one extra row to know whether another page follows
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        List<TeamSummaryDTO> rows = userId == null
+                ? teamRepository.findSummaryPage(afterId, pageRequest)
+                : teamRepository.findSummaryPageByMemberId(userId, afterId, pageRequest);
+
+        if (rows.size() <= pageSize) {
+            return new TeamSummaryPageDTO(rows, null);
+        }
+        List<TeamSummaryDTO> page = rows.subList(0, pageSize);
+        return new TeamSummaryPageDTO(page, page.get(pageSize - 1).getId());
+    }
+
+    // Read model: a single team with members and tasks in three queries
+    public Optional<TeamViewDTO> getTeamViewById(Long id) {
+        return teamRepository.findViewById(id)
+                .map(team -> withMembersAndTasks(List.of(team)).get(0));
+    }
+
+    // Helper method: Load members and tasks of all given teams with one query each
+    private List<TeamViewDTO> withMembersAndTasks(List<TeamViewDTO> teams) {
+        if (teams.isEmpty()) {
+            return teams;
+        }
+        Set<Long> teamIds = teams.stream().map(TeamViewDTO::getId).collect(Collectors.toSet());
+        Map<Long, List<TeamMemberViewDTO>> membersByTeam = teamRepository.findMemberViewsByTeamIds(teamIds).stream()
+                .collect(Collectors.groupingBy(TeamMemberViewDTO::getTeamId));
+        Map<Long, List<TaskViewDTO>> tasksByTeam = taskRepository.findViewsByTeamIds(teamIds).stream()
+                .collect(Collectors.groupingBy(TaskViewDTO::getTeamId));
+        for (TeamViewDTO team : teams) {
+            team.setMembers(membersByTeam.getOrDefault(team.getId(), List.of()));
+            team.setTasks(tasksByTeam.getOrDefault(team.getId(), List.of()));
+        }
+        return teams;
+    }
     
+    // Method: ETag of a team, computed by one aggregate query instead of loading the team
+    public Optional<String> getTeamETag(Long id) {
+        return teamRepository.findVersionById(id).map(TeamVersionDTO::toETag);
+    }
+
+    // Method: ETag of an already loaded team view (same value as getTeamETag)
+    public String getTeamETag(TeamViewDTO team) {
+        return TeamVersionDTO.of(team).toETag();
+    }
+
     // HIER IST DIE NEUE METHODE
+    // The precondition sees the team's current ETag under the row lock, so two updates with the same If-Match cannot both pass
     @Transactional
-    public Team updateTeam(Long teamId, String name, String description) {
+    public Team updateTeam(Long teamId, String name, String description, Predicate<String> etagPrecondition) {
+        if (!membershipRepository.lockTeam(teamId)) {
+            throw new NoSuchElementException("Team not found with ID: " + teamId);
+        }
+        String currentETag = getTeamETag(teamId)
+                .orElseThrow(() -> new NoSuchElementException("Team not found with ID: " + teamId));
+        if (!etagPrecondition.test(currentETag)) {
+            throw new PreconditionFailedException(currentETag);
+        }
         Team team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new NoSuchElementException("Team not found with ID: " + teamId));
         
@@ -82,7 +211,9 @@ public class TeamService {
         
         team.setDescription(description); // description kann auch null oder leer sein
         
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        eventPublisher.publishEvent(new TeamChangedEvent(TeamChangedEvent.ChangeType.UPDATED, teamId, Set.of()));
+        return saved;
     }
 
     public List<Long> getTeamMembers(Long teamId) {
@@ -93,11 +224,18 @@ public class TeamService {
                 .toList();
     }
 
-    @Transactional
-    public void deleteTeam(Long teamId) {
-        if (!teamRepository.existsById(teamId)) {
-            throw new RuntimeException("Team nicht gefunden: " + teamId);
+    // Helper method: IDs of the given users
+    private static Set<Long> memberIds(Set<User> members) {
+        return members.stream().map(User::getId).collect(Collectors.toSet());
+    }
+
+    // Helper method: Resolve all emails with one IN query
+    private Map<String, User> findUsersByEmail(List<String> emails) {
+        Set<String> distinct = emails.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distinct.isEmpty()) {
+            return Map.of();
         }
-        teamRepository.deleteById(teamId);
+        return userRepository.findByEmailIn(distinct).stream()
+                .collect(Collectors.toMap(User::getEmail, user -> user, (first, second) -> first));
     }
-}
\ No newline at end of file
+}
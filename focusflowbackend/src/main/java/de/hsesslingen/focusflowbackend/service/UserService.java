@@ -2,24 +2,38 @@ package de.hsesslingen.focusflowbackend.service;
 
 import org.springframework.stereotype.Service;
 
-import de.hsesslingen.focusflowbackend.model.Team;
+import de.hsesslingen.focusflowbackend.event.TeamChangedEvent;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipIndex;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipRepository;
 import de.hsesslingen.focusflowbackend.model.User;
 import de.hsesslingen.focusflowbackend.repository.UserRepository;
-import de.hsesslingen.focusflowbackend.repository.TeamRepository;
+import de.hsesslingen.focusflowbackend.security.LastLoginBuffer;
+import de.hsesslingen.focusflowbackend.security.PasswordHashingService;
+import de.hsesslingen.focusflowbackend.security.SessionTokenService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
+@Timed("focusflow.service")
 // This service class is responsible for handling user-related operations
 public class UserService {
 
     private final UserRepository userRepository;
-    private final TeamRepository teamRepository;
-    private final BCryptPasswordEncoder passwordEncoder; 
+    private final PasswordHashingService passwordHashing;
+    private final LastLoginBuffer lastLoginBuffer;
+    private final TeamMembershipIndex membershipIndex;
+    private final TeamMembershipRepository membershipRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SessionTokenService sessionTokenService;
 
     // Method: Register a user with valid credentials
     public User registerUser(User user) {
@@ -27,26 +41,21 @@ public class UserService {
         // Validate email format and password policies
         validateUser(user); 
 
-        // Hash the password before saving
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        // Hash the password before saving (on the hashing pool; may be rejected when it is saturated)
+        user.setPassword(passwordHashing.encode(user.getPassword()));
         return userRepository.save(user);
     }
 
-    // Method: Login validation: check email and password match
-    public boolean loginUser(String email, String password) {
+    // Method: Login validation: check email and password match; returns the user on success
+    public Optional<User> loginUser(String email, String password) {
         Optional<User> optionalUser = userRepository.findByEmail(email);
 
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
-            if (passwordEncoder.matches(password, user.getPassword())) {
-                user.setLastLogin(LocalDateTime.now()); // Update last login time
-                userRepository.save(user);
-                return true;
-            } else {
-                return false;
-            }
+        if (optionalUser.isPresent() && passwordHashing.matches(password, optionalUser.get().getPassword())) {
+            // Update last login time; written in the background with other logins
+            lastLoginBuffer.record(optionalUser.get().getId(), LocalDateTime.now());
+            return optionalUser;
         }
-        return false;
+        return Optional.empty();
     }
 
     // Validation: Validate user credentials (email format and password policy)
@@ -80,27 +89,46 @@ public class UserService {
         }
     }
 
-    // Method: Assign role to user
+    // Method: Assign role to user; tokens carry the role, so the user has to log in again to get one with the new role
     public User assignRole(User user, String role) {
         user.setRole(role.toUpperCase());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        sessionTokenService.revokeAll(saved.getId());
+        return saved;
     }
 
-    // Method: Add user to team
-    public void addUserToTeam(User user, Team team) {
-        userRepository.findById(user.getId()).orElseThrow(() -> new RuntimeException("User not found"));
-        teamRepository.findById(team.getId()).orElseThrow(() -> new RuntimeException("Team not found"));
-
-        user.getTeams().add(team);
-        team.getMembers().add(user);
-        userRepository.save(user);
+    // Method: Add user to team; writes the join row directly and returns the resulting member count
+    @Transactional
+    public int addUserToTeam(Long userId, Long teamId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found");
+        }
+        if (!membershipRepository.lockTeam(teamId)) {
+            throw new NoSuchElementException("Team not found");
+        }
+        if (!membershipRepository.addMembers(teamId, List.of(userId)).isEmpty()) {
+            membershipRepository.incrementVersion(teamId);
+            membershipIndex.addMember(teamId, userId);
+            eventPublisher.publishEvent(new TeamChangedEvent(TeamChangedEvent.ChangeType.MEMBERS_ADDED, teamId, Set.of(userId)));
+        }
+        return membershipRepository.countMembers(teamId);
     }
 
-    // Method: Remove user from team
-    public void removeUserFromTeam(User user, Team team) {
-        user.getTeams().remove(team);
-        team.getMembers().remove(user);
-        userRepository.save(user);
+    // Method: Remove user from team; deletes the join row directly and returns the resulting member count
+    @Transactional
+    public int removeUserFromTeam(Long userId, Long teamId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found");
+        }
+        if (!membershipRepository.lockTeam(teamId)) {
+            throw new NoSuchElementException("Team not found");
+        }
+        if (!membershipRepository.removeMembers(teamId, List.of(userId)).isEmpty()) {
+            membershipRepository.incrementVersion(teamId);
+            membershipIndex.removeMember(teamId, userId);
+            eventPublisher.publishEvent(new TeamChangedEvent(TeamChangedEvent.ChangeType.MEMBERS_REMOVED, teamId, Set.of(userId)));
+        }
+        return membershipRepository.countMembers(teamId);
     }
 
     // Helper method: Check if password contains at least one uppercase letter
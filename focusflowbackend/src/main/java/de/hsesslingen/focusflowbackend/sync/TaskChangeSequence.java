@@ -0,0 +1,100 @@
+package de.hsesslingen.focusflowbackend.sync;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+@Service
+/**
+ * TaskChangeSequence hands out the monotonically increasing numbers that order the delta-sync feed.
+ * Numbers are taken in blocks from a database sequence, so most calls need no round trip.
+ * Numbers used by a transaction stay "in flight" until it completes; the watermark is the lowest
+ * in-flight number, and readers only look below it, so a slow transaction can never be skipped.
+ * This assumes a single backend instance, like the rest of the in-process state.
+ */
+public class TaskChangeSequence {
+
+    static final String SEQUENCE_NAME = "task_change_seq";
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+
+    // All fields below are guarded by this
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private long next;
+    private long blockEnd;
+
+    public TaskChangeSequence(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(SEQUENCE_NAME);
+    }
+
+    @PostConstruct
+    void createSequence() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE_NAME
+                + " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+        synchronized (this) {
+            allocateBlock();
+        }
+    }
+
+    // Method: Next change number; it stays in flight until the current transaction completes
+    public long next() {
+        long value;
+        synchronized (this) {
+            if (next >= blockEnd) {
+                allocateBlock();
+            }
+            value = next++;
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                inFlight.add(value);
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            releaseAfterCompletion(value);
+        }
+        return value;
+    }
+
+    // Method: Every change number below the watermark belongs to a completed transaction
+    public synchronized long watermark() {
+        return inFlight.isEmpty() ? next : inFlight.first();
+    }
+
+    private void allocateBlock() {
+        Long start = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+        next = start;
+        blockEnd = start + ALLOCATION_SIZE;
+    }
+
+    // Helper method: Collect the numbers of a transaction and release them together when it completes
+    private void releaseAfterCompletion(long value) {
+        @SuppressWarnings("unchecked")
+        List<Long> values = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        if (values == null) {
+            List<Long> newValues = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, newValues);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TaskChangeSequence.this);
+                    synchronized (TaskChangeSequence.this) {
+                        inFlight.removeAll(newValues);
+                    }
+                }
+            });
+            values = newValues;
+        }
+        values.add(value);
+    }
+}
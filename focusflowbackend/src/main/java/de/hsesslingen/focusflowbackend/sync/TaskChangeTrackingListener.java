@@ -0,0 +1,29 @@
+package de.hsesslingen.focusflowbackend.sync;
+
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA entity listener that stamps updatedAt and the next change number on every task insert and update.
+ * Like TaskSearchIndexListener it does nothing when the sequence is not part of the context (JPA slice tests).
+ */
+public class TaskChangeTrackingListener {
+
+    @Autowired
+    private ObjectProvider<TaskChangeSequence> changeSequence;
+
+    @PrePersist
+    @PreUpdate
+    public void onWrite(Task task) {
+        TaskChangeSequence sequence = changeSequence != null ? changeSequence.getIfAvailable() : null;
+        if (sequence != null) {
+            task.setUpdatedAt(LocalDateTime.now());
+            task.setChangeSeq(sequence.next());
+        }
+    }
+}
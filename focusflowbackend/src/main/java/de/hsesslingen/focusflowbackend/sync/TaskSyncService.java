@@ -0,0 +1,153 @@
+package de.hsesslingen.focusflowbackend.sync;
+
+import de.hsesslingen.focusflowbackend.dto.TaskChangesDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.event.TeamChangedEvent;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskScopeChange;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskTombstone;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.repository.TaskScopeChangeRepository;
+import de.hsesslingen.focusflowbackend.repository.TaskTombstoneRepository;
+import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@Service
+@RequiredArgsConstructor
+/**
+ * TaskSyncService serves the delta-sync feed: everything that changed in a user's scope
+ * (created, assigned or team tasks) after a cursor, ordered by change number.
+ * Without a cursor it returns the full scope once, together with the cursor to continue from.
+ * Joining or leaving a team changes the scope without touching any task, so membership changes get
+ * change numbers as well; a cursor older than one gets the full scope again, marked as a reset.
+ */
+public class TaskSyncService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskSyncService.class);
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 5000;
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final TaskScopeChangeRepository scopeChangeRepository;
+    private final UserRepository userRepository;
+    private final TaskChangeSequence changeSequence;
+
+    @Value("${focusflow.sync.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    /** Feed position: change number and, inside a group sharing that number, the last task ID. */
+    record Cursor(long seq, long afterId) {
+
+        // Method: Parse "seq" (after the whole group) or "seq.taskId"
+        static Cursor parse(String value) {
+            try {
+                int dot = value.indexOf('.');
+                if (dot < 0) {
+                    return new Cursor(Long.parseLong(value), Long.MAX_VALUE);
+                }
+                return new Cursor(Long.parseLong(value.substring(0, dot)), Long.parseLong(value.substring(dot + 1)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return afterId == Long.MAX_VALUE ? String.valueOf(seq) : seq + "." + afterId;
+        }
+    }
+
+    // Method: Changes in the user's scope after the cursor, or the full scope if there is no cursor yet
+    public TaskChangesDTO getChanges(Long userId, String since, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with ID: " + userId);
+        }
+        // Read the watermark first: a change committed while reading is then delivered again instead of skipped
+        long watermark = changeSequence.watermark();
+        Cursor cursor = since == null || since.isBlank() ? null : Cursor.parse(since.trim());
+        // The team's older tasks are not after the cursor, and a former team's tasks get no tombstones
+        if (cursor == null || scopeChangeRepository.existsChangeForUser(userId, cursor.seq(), watermark)) {
+            return new TaskChangesDTO(taskRepository.findViewsForUserScope(userId), List.of(),
+                    String.valueOf(watermark - 1), false, true);
+        }
+
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        PageRequest firstRows = PageRequest.of(0, pageSize + 1);
+        List<TaskViewDTO> tasks = taskRepository.findChangedViewsForUserScope(
+                userId, cursor.seq(), cursor.afterId(), watermark, firstRows);
+        List<TaskTombstone> tombstones = tombstoneRepository.findChangesForUser(
+                userId, cursor.seq(), cursor.afterId(), watermark, firstRows);
+
+        // Merge both ordered lists by (change number, task ID) up to the page size
+        List<TaskViewDTO> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        Cursor last = cursor;
+        int t = 0;
+        int d = 0;
+        while ((t < tasks.size() || d < tombstones.size()) && changed.size() + deleted.size() < pageSize) {
+            boolean nextIsTask = d >= tombstones.size()
+                    || (t < tasks.size() && compare(tasks.get(t), tombstones.get(d)) < 0);
+            if (nextIsTask) {
+                TaskViewDTO task = tasks.get(t++);
+                changed.add(task);
+                last = new Cursor(task.getChangeSeq(), task.getId());
+            } else {
+                TaskTombstone tombstone = tombstones.get(d++);
+                deleted.add(tombstone.getTaskId());
+                last = new Cursor(tombstone.getChangeSeq(), tombstone.getTaskId());
+            }
+        }
+
+        boolean hasMore = t < tasks.size() || d < tombstones.size();
+        // Without more rows everything below the watermark has been seen, so the cursor can move up to it
+        Cursor next = hasMore || watermark - 1 <= last.seq() ? last : new Cursor(watermark - 1, Long.MAX_VALUE);
+        return new TaskChangesDTO(changed, deleted, next.toString(), hasMore, false);
+    }
+
+    private static int compare(TaskViewDTO task, TaskTombstone tombstone) {
+        int bySeq = Long.compare(task.getChangeSeq(), tombstone.getChangeSeq());
+        return bySeq != 0 ? bySeq : Long.compare(task.getId(), tombstone.getTaskId());
+    }
+
+    // Record joined and left teams; runs in the publishing transaction, so the numbers stay in flight until it commits
+    @EventListener
+    public void onTeamChanged(TeamChangedEvent event) {
+        if (event.type() != TeamChangedEvent.ChangeType.MEMBERS_ADDED
+                && event.type() != TeamChangedEvent.ChangeType.MEMBERS_REMOVED) {
+            return;
+        }
+        List<TaskScopeChange> scopeChanges = new ArrayList<>();
+        for (Long userId : event.memberIds()) {
+            scopeChanges.add(TaskScopeChange.of(userId, event.teamId(), changeSequence.next()));
+        }
+        scopeChangeRepository.saveAll(scopeChanges);
+    }
+
+    // Delete old tombstones and membership changes; clients that were offline longer than the retention have to sync from scratch
+    @Scheduled(cron = "${focusflow.sync.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        LocalDateTime before = LocalDateTime.now().minus(tombstoneRetention);
+        int purged = tombstoneRepository.deleteRemovedBefore(before);
+        int purgedScopeChanges = scopeChangeRepository.deleteChangedBefore(before);
+        if (purged > 0 || purgedScopeChanges > 0) {
+            LOGGER.info("Purged {} task tombstones and {} membership changes older than {}",
+                    purged, purgedScopeChanges, tombstoneRetention);
+        }
+    }
+}
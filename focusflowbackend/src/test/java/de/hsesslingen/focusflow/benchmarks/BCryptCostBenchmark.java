@@ -0,0 +1,72 @@
+package de.hsesslingen.focusflow.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of one BCrypt verification per cost factor, with every CPU busy hashing
+ * (as the password hashing pool is during a login storm), and recommends the highest cost factor
+ * whose p99 stays within the login target. Queueing in front of the pool comes on top of this.
+ *
+ * Run with: ./mvnw -Pbcrypt-benchmark test-compile exec:java -Dfocusflow.login.p99-millis=250
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptCostBenchmark {
+
+    private static final String PASSWORD = "Password123!";
+
+    @Param({"8", "9", "10", "11", "12", "13"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        double targetMillis = Double.parseDouble(System.getProperty("focusflow.login.p99-millis", "250"));
+        Options options = new OptionsBuilder()
+                .include(BCryptCostBenchmark.class.getSimpleName())
+                .threads(Runtime.getRuntime().availableProcessors())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        int recommended = -1;
+        for (RunResult result : results) {
+            int cost = Integer.parseInt(result.getParams().getParam("strength"));
+            double p99 = result.getPrimaryResult().getStatistics().getPercentile(99);
+            System.out.printf("strength %2d: p99 %.1f ms%n", cost, p99);
+            if (p99 <= targetMillis && cost > recommended) {
+                recommended = cost;
+            }
+        }
+        if (recommended < 0) {
+            System.out.printf("No cost factor meets a p99 of %.0f ms on this machine%n", targetMillis);
+        } else {
+            System.out.printf("Recommended focusflow.password-hashing.bcrypt-strength=%d (p99 target %.0f ms)%n",
+                    recommended, targetMillis);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package de.hsesslingen.focusflow.benchmarks;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput cost of the application's two timers, each recording into a Prometheus registry with a
+ * percentile histogram and called from every CPU at once:
+ * "timed" is a service method behind a proxy with the TimedAspect ("plain" calls the same object without the proxy),
+ * "observedRequest" is a request through the ServerHttpObservationFilter that records http.server.requests
+ * ("request" runs the same filter chain without it). The work per call stands in for the service method or handler.
+ * A call that only hits the second-level cache costs a few microseconds, one that reaches the database well over a hundred.
+ * Exits with status 1 if any pair loses more than 1% throughput.
+ *
+ * Run with: ./mvnw -Pinstrumentation-benchmark test-compile exec:java
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationOverheadBenchmark {
+
+    private static final double MAX_OVERHEAD = 0.01;
+
+    // Blackhole tokens per call, roughly 1, 10 and 100 microseconds
+    @Param({"500", "5000", "50000"})
+    public long work;
+
+    private static final String ROUTE = "/api/tasks/all";
+
+    private PrometheusMeterRegistry registry;
+    private Work plain;
+    private Work timed;
+    private ServerHttpObservationFilter observationFilter;
+    private FilterChain handler;
+
+    @Timed("focusflow.service")
+    public static class Work {
+        public long run(long tokens) {
+            Blackhole.consumeCPU(tokens);
+            return tokens;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        plain = new Work();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Work());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new TimedAspect(registry));
+        timed = proxyFactory.getProxy();
+
+        // Wired as Spring Boot's WebMvcObservationAutoConfiguration does
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(registry));
+        observationFilter = new ServerHttpObservationFilter(observationRegistry);
+        handler = (request, response) -> {
+            // The DispatcherServlet sets the matched route, which becomes the uri tag
+            ServerHttpObservationFilter.findObservationContext((HttpServletRequest) request)
+                    .ifPresent(context -> context.setPathPattern(ROUTE));
+            Blackhole.consumeCPU(work);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Benchmark
+    public long plain() {
+        return plain.run(work);
+    }
+
+    @Benchmark
+    public long timed() {
+        return timed.run(work);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.doFilter(new MockHttpServletRequest("GET", ROUTE), response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse observedRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        observationFilter.doFilter(new MockHttpServletRequest("GET", ROUTE), response, handler);
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InstrumentationOverheadBenchmark.class.getSimpleName())
+                .threads(Runtime.getRuntime().availableProcessors())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        // Score per benchmark method and work
+        Map<String, Map<String, Double>> scores = new HashMap<>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            scores.computeIfAbsent(benchmark.substring(benchmark.lastIndexOf('.') + 1), name -> new TreeMap<>())
+                    .put(result.getParams().getParam("work"), result.getPrimaryResult().getScore());
+        }
+        boolean withinBudget = withinBudget("timed", scores.get("plain"), scores.get("timed"))
+                & withinBudget("http.server.requests", scores.get("request"), scores.get("observedRequest"));
+        if (!withinBudget) {
+            System.out.println("Instrumentation costs more than 1% throughput");
+            System.exit(1);
+        }
+        System.out.println("Instrumentation costs less than 1% throughput");
+    }
+
+    // Helper method: Print the overhead of each work size; false if any exceeds the budget
+    private static boolean withinBudget(String timer, Map<String, Double> baseline, Map<String, Double> instrumented) {
+        boolean withinBudget = true;
+        for (Map.Entry<String, Double> entry : baseline.entrySet()) {
+            double score = instrumented.get(entry.getKey());
+            double overhead = 1 - score / entry.getValue();
+            System.out.printf("%-20s work %6s: %10.1f ops/ms without, %10.1f ops/ms with, overhead %5.2f%%%n",
+                    timer, entry.getKey(), entry.getValue(), score, overhead * 100);
+            if (overhead > MAX_OVERHEAD) {
+                withinBudget = false;
+            }
+        }
+        return withinBudget;
+    }
+}
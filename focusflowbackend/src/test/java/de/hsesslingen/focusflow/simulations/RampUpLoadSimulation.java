@@ -10,6 +10,9 @@ import java.util.List;
 
 public class RampUpLoadSimulation extends Simulation {
 
+  // p99 latency the run must stay below (-Dp99BudgetMillis=...); shed requests (503) count as handled
+  public static final int P99_BUDGET_MILLIS = Integer.getInteger("p99BudgetMillis", 1000);
+
   // HTTP Configuration
   public final HttpProtocolBuilder httpProtocol = http
     .baseUrl("http://localhost:8080/api")
@@ -18,9 +21,9 @@ public class RampUpLoadSimulation extends Simulation {
 
   // Scenario Definition
   public final ScenarioBuilder scn = scenario("Basic API Calls")
-    .exec(http("Get all tasks").get("/tasks/all"))
+    .exec(http("Get all tasks").get("/tasks/all").check(status().in(200, 503)))
     .pause(Duration.ofSeconds(1))
-    .exec(http("Get all teams").get("/teams/all"));
+    .exec(http("Get all teams").get("/teams/all").check(status().in(200, 503)));
 
   // Load Injection
   // Ramp-Up Example: Ramp users from 1 per second to 20 per second over 10 minutes
@@ -33,6 +36,11 @@ public class RampUpLoadSimulation extends Simulation {
     // Ramp-Up load test (Ramp users from 1 to 20 per second over 5 minutes)
     setUp(scn.injectOpen(
        rampUsersPerSec(1.0).to(20.0).during(Duration.ofMinutes(5))
-    )).protocols(httpProtocol);
+    )).protocols(httpProtocol)
+      // Overload is shed with 503 instead of queueing for connections, so even the slowest responses stay fast
+      .assertions(
+        global().responseTime().percentile(99.0).lt(P99_BUDGET_MILLIS),
+        global().failedRequests().percent().lt(1.0)
+      );
   }
 }
@@ -0,0 +1,45 @@
+package de.hsesslingen.focusflow.simulations;
+
+import io.gatling.javaapi.core.*;
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.*;
+
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+import java.time.Duration;
+
+public class ThreadModelComparisonSimulation extends Simulation {
+
+  // Run once against the default (platform threads) and once against the virtual-threads profile,
+  // e.g. -DthreadModel=platform / -DthreadModel=virtual; the value is only used to name the run
+  public static final String THREAD_MODEL = System.getProperty("threadModel", "platform");
+  public static final int CONCURRENT_USERS = Integer.getInteger("concurrentUsers", 1000);
+  public static final int P99_BUDGET_MILLIS = Integer.getInteger("p99BudgetMillis", 1000);
+
+  // HTTP Configuration
+  public final HttpProtocolBuilder httpProtocol = http
+    .baseUrl("http://localhost:8080/api")
+    .acceptHeader("application/json")
+    .userAgentHeader("Gatling/PerformanceTest");
+
+  // Scenario Definition: database-bound reads without think time, so requests pile up on threads and connections
+  public final ScenarioBuilder scn = scenario("Mixed reads (" + THREAD_MODEL + " threads)")
+    .forever().on(
+      exec(http("Get all teams").get("/teams/all").check(status().in(200, 503)))
+      .exec(http("Team summaries").get("/teams/summaries").check(status().in(200, 503)))
+      .exec(http("Task page").get("/tasks/page?limit=50").check(status().in(200, 503)))
+    );
+
+  // Link Scenario to Load Profile
+  {
+    // Closed model: far more concurrent users than Tomcat's 200 platform threads
+    setUp(scn.injectClosed(
+      rampConcurrentUsers(0).to(CONCURRENT_USERS).during(Duration.ofSeconds(30)),
+      constantConcurrentUsers(CONCURRENT_USERS).during(Duration.ofMinutes(2))
+    )).protocols(httpProtocol)
+      .maxDuration(Duration.ofSeconds(150))
+      .assertions(
+        global().responseTime().percentile(99.0).lt(P99_BUDGET_MILLIS),
+        global().failedRequests().percent().lt(1.0)
+      );
+  }
+}
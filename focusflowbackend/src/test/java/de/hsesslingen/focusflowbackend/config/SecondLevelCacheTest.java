@@ -0,0 +1,135 @@
+package de.hsesslingen.focusflowbackend.config;
+
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipRepository;
+import de.hsesslingen.focusflowbackend.model.Team;
+import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.repository.TeamRepository;
+import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import de.hsesslingen.focusflowbackend.security.LastLoginBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+// Committed data only: the second-level cache is filled and invalidated when transactions complete
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMembershipRepository membershipRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LastLoginBuffer lastLoginBuffer;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+    private User owner;
+    private User newcomer;
+    private Team team;
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole("USER");
+        return userRepository.save(user);
+    }
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = user("cache-owner@example.com");
+        newcomer = user("cache-newcomer@example.com");
+        // Members are cascaded on persist, so the owner has to be managed in the same transaction
+        team = tx.execute(status -> {
+            Team newTeam = new Team();
+            newTeam.setName("Cache Team");
+            newTeam.getMembers().add(userRepository.getReferenceById(owner.getId()));
+            return teamRepository.save(newTeam);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        teamRepository.deleteById(team.getId());
+        userRepository.deleteAll(List.of(owner, newcomer));
+    }
+
+    @Test
+    void testUserLookupsAreServedFromTheCache() {
+        userRepository.findById(owner.getId());
+        userRepository.findByEmail(owner.getEmail());
+
+        statistics.clear();
+        assertTrue(userRepository.findById(owner.getId()).isPresent());
+        assertEquals(owner.getId(), userRepository.findByEmail(owner.getEmail()).orElseThrow().getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        // findById hits the users region, findByEmail the query cache, which holds the user's state as well
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 1);
+        assertTrue(statistics.getQueryCacheHitCount() >= 1);
+        assertTrue(meterRegistry.find("cache.gets").tag("cache", SecondLevelCacheConfig.USERS).tag("result", "hit").functionCounters()
+                .stream().anyMatch(counter -> counter.count() > 0));
+    }
+
+    @Test
+    void testMembershipChangesWrittenWithSqlEvictTheTeam() {
+        // Cache the team and its members
+        Integer cachedMembers = tx.execute(status -> teamRepository.findById(team.getId()).orElseThrow().getMembers().size());
+        assertEquals(1, cachedMembers);
+
+        tx.executeWithoutResult(status -> {
+            membershipRepository.lockTeam(team.getId());
+            membershipRepository.addMembers(team.getId(), List.of(newcomer.getId()));
+            membershipRepository.incrementVersion(team.getId());
+        });
+
+        tx.executeWithoutResult(status -> {
+            Team reloaded = teamRepository.findById(team.getId()).orElseThrow();
+            assertEquals(team.getVersion() + 1, reloaded.getVersion());
+            assertEquals(2, reloaded.getMembers().size());
+        });
+    }
+
+    @Test
+    void testLastLoginFlushKeepsTheUserCached() {
+        userRepository.findById(owner.getId());
+        LocalDateTime loginTime = LocalDateTime.of(2025, 5, 1, 9, 30);
+
+        lastLoginBuffer.record(owner.getId(), loginTime);
+        assertEquals(1, lastLoginBuffer.flush());
+
+        assertTrue(entityManagerFactory.getCache().contains(User.class, owner.getId()));
+        assertEquals(loginTime, userRepository.findLastLogin(owner.getId()).orElseThrow());
+    }
+}
@@ -0,0 +1,155 @@
+package de.hsesslingen.focusflowbackend.controller;
+
+import de.hsesslingen.focusflowbackend.model.Team;
+import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+// Verifies ETag / If-None-Match / If-Match handling of the task and team resources
+class ConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Team team;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User member = new User();
+        member.setEmail("etag@example.com");
+        member.setPassword("password");
+        member.setRole("USER");
+        entityManager.persist(member);
+
+        team = new Team();
+        team.setName("ETag Team");
+        team.getMembers().add(member);
+        entityManager.persist(team);
+
+        task = new Task();
+        task.setCreator(member);
+        task.setTeam(team);
+        task.setTitle("ETag Task");
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        task.setStatus(TaskStatus.OPEN);
+        entityManager.persist(task);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private MockHttpServletResponse getWithETag(String url, String etag) throws Exception {
+        statistics.clear();
+        return mockMvc.perform(get(url).header("If-None-Match", etag)).andReturn().getResponse();
+    }
+
+    @Test
+    void testTaskNotModifiedWithoutLoadingTheTask() throws Exception {
+        String url = "/api/tasks?id=" + task.getId();
+        String etag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader("ETag");
+        assertEquals("\"0\"", etag);
+
+        MockHttpServletResponse response = getWithETag(url, etag);
+        assertEquals(304, response.getStatus());
+        assertEquals("", response.getContentAsString());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertEquals(200, getWithETag(url, "\"41\"").getStatus());
+    }
+
+    @Test
+    void testTeamNotModifiedWithOneAggregateQuery() throws Exception {
+        String url = "/api/teams?id=" + team.getId();
+        String etag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        MockHttpServletResponse response = getWithETag(url, etag);
+        assertEquals(304, response.getStatus());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testTaskUpdateHonorsIfMatch() throws Exception {
+        String url = "/api/tasks/" + task.getId();
+        String body = "{\"title\":\"Renamed task\"}";
+
+        MockHttpServletResponse stale = mockMvc.perform(put(url).header("If-Match", "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn().getResponse();
+        assertEquals(412, stale.getStatus());
+        assertEquals("\"0\"", stale.getHeader("ETag"));
+
+        MockHttpServletResponse current = mockMvc.perform(put(url).header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn().getResponse();
+        assertEquals(204, current.getStatus());
+        assertEquals("\"1\"", current.getHeader("ETag"));
+    }
+
+    @Test
+    void testTeamUpdateHonorsIfMatch() throws Exception {
+        String url = "/api/teams/" + team.getId();
+        String body = "{\"name\":\"Renamed team\",\"description\":\"new\"}";
+
+        MockHttpServletResponse stale = mockMvc.perform(put(url).header("If-Match", "\"outdated\"")
+                .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn().getResponse();
+        assertEquals(412, stale.getStatus());
+
+        String etag = stale.getHeader("ETag");
+        MockHttpServletResponse current = mockMvc.perform(put(url).header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON).content(body)).andReturn().getResponse();
+        assertEquals(200, current.getStatus());
+        assertNotEquals(etag, current.getHeader("ETag"));
+    }
+
+    @Test
+    void testSecondTeamUpdateWithTheSameIfMatchFails() throws Exception {
+        String url = "/api/teams/" + team.getId();
+        String etag = mockMvc.perform(get("/api/teams").param("id", String.valueOf(team.getId())))
+                .andReturn().getResponse().getHeader("ETag");
+
+        MockHttpServletResponse first = mockMvc.perform(put(url).header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"First\"}")).andReturn().getResponse();
+        MockHttpServletResponse second = mockMvc.perform(put(url).header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Second\"}")).andReturn().getResponse();
+
+        assertEquals(200, first.getStatus());
+        assertEquals(412, second.getStatus());
+        assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals("First", entityManager.find(Team.class, team.getId()).getName());
+    }
+}
@@ -0,0 +1,51 @@
+package de.hsesslingen.focusflowbackend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+// Verifies that routes, service methods, the connection pool and Hibernate show up on the Prometheus endpoint
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testScrapeContainsApplicationMetrics() throws Exception {
+        mockMvc.perform(get("/api/teams/all")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(scrape.contains("uri=\"/api/teams/all\""));
+        assertTrue(scrape.contains("focusflow_service_seconds_bucket{"));
+        assertTrue(scrape.contains("class=\"de.hsesslingen.focusflowbackend.service.TeamService\""));
+        assertTrue(scrape.contains("method=\"getAllTeamViews\""));
+        assertTrue(scrape.contains("hikaricp_connections_active"));
+        assertTrue(scrape.contains("hibernate_query_executions_total") || scrape.contains("hibernate_statements_total"));
+    }
+
+    @Test
+    void testRequestPathIsNotATag() throws Exception {
+        mockMvc.perform(get("/api/teams/987654")).andReturn();
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertFalse(scrape.contains("987654"));
+    }
+}
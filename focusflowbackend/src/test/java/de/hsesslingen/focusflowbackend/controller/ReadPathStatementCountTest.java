@@ -0,0 +1,128 @@
+package de.hsesslingen.focusflowbackend.controller;
+
+import de.hsesslingen.focusflowbackend.model.Team;
+import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+// Verifies that the read endpoints need a fixed number of statements, independent of the data size
+class ReadPathStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User member;
+    private Team firstTeam;
+    private Task firstTask;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        member = new User();
+        member.setEmail("reader@example.com");
+        member.setPassword("password");
+        member.setRole("USER");
+        entityManager.persist(member);
+
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team();
+            team.setName("Read Team " + i);
+            team.getMembers().add(member);
+            entityManager.persist(team);
+            if (firstTeam == null) {
+                firstTeam = team;
+            }
+
+            for (int j = 0; j < 4; j++) {
+                Task task = new Task();
+                task.setCreator(member);
+                task.setAssignee(member);
+                task.setTeam(team);
+                task.setTitle("Read Task " + i + "-" + j);
+                task.setDueDate(LocalDateTime.now().plusDays(j + 1));
+                task.setStatus(TaskStatus.OPEN);
+                entityManager.persist(task);
+                if (firstTask == null) {
+                    firstTask = task;
+                }
+            }
+        }
+
+        // Start every request with an empty persistence context, like a real request would
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long statementsFor(String url) throws Exception {
+        statistics.clear();
+        int status = mockMvc.perform(get(url)).andReturn().getResponse().getStatus();
+        assertEquals(200, status, "Unexpected status for " + url);
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void testTaskEndpointsStatementCount() throws Exception {
+        assertEquals(1, statementsFor("/api/tasks/all"));
+        assertEquals(1, statementsFor("/api/tasks/page?limit=5"));
+        assertEquals(1, statementsFor("/api/tasks?id=" + firstTask.getId()));
+        // user lookup + task query
+        assertEquals(2, statementsFor("/api/tasks/user?userId=" + member.getId()));
+    }
+
+    @Test
+    void testTeamEndpointsStatementCount() throws Exception {
+        // teams + members + tasks, regardless of how many teams, members and tasks exist
+        assertEquals(3, statementsFor("/api/teams/all"));
+        assertEquals(3, statementsFor("/api/teams/user?userId=" + member.getId()));
+        assertEquals(3, statementsFor("/api/teams?id=" + firstTeam.getId()));
+        // summaries: one aggregate query per page, counts included
+        assertEquals(1, statementsFor("/api/teams/summaries?limit=2"));
+        assertEquals(1, statementsFor("/api/teams/summaries?userId=" + member.getId()));
+    }
+
+    @Test
+    void testTeamSummaries() throws Exception {
+        mockMvc.perform(get("/api/teams/summaries")
+                        .param("userId", String.valueOf(member.getId()))
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(firstTeam.getId()))
+                .andExpect(jsonPath("$.items[0].name").value("Read Team 0"))
+                .andExpect(jsonPath("$.items[0].memberCount").value(1))
+                .andExpect(jsonPath("$.items[0].openTaskCount").value(4))
+                .andExpect(jsonPath("$.items[0].members").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").isNumber());
+    }
+}
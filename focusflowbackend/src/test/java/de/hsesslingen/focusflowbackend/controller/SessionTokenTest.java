@@ -0,0 +1,134 @@
+package de.hsesslingen.focusflowbackend.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import de.hsesslingen.focusflowbackend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+// Verifies login tokens, their verification without database access, logout and revocation on role change
+class SessionTokenTest {
+
+    private static final String PASSWORD = "Password123!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = new User();
+        user.setEmail("session@example.com");
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        user.setRole("USER");
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String login() throws Exception {
+        String body = mockMvc.perform(post("/api/user/login").param("email", user.getEmail()).param("password", PASSWORD))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.token");
+    }
+
+    @Test
+    void testTokenIdentifiesTheUserWithoutQueries() throws Exception {
+        String token = login();
+
+        statistics.clear();
+        mockMvc.perform(get("/api/user/session").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(user.getId()))
+                .andExpect(jsonPath("$.role").value("USER"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testMissingOrInvalidToken() throws Exception {
+        String token = login();
+
+        mockMvc.perform(get("/api/user/session")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/user/session").header("Authorization", "Bearer " + token.substring(1)))
+                .andExpect(status().isUnauthorized());
+        // Endpoints that do not need a session still reject a bad token
+        mockMvc.perform(get("/api/user").param("id", user.getId().toString()).header("Authorization", "Bearer forged"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testLogoutEndsTheSession() throws Exception {
+        String token = login();
+
+        mockMvc.perform(post("/api/user/logout").header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/user/session").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRoleChangeRevokesExistingTokens() throws Exception {
+        String token = login();
+
+        mockMvc.perform(put("/api/user/role").param("id", user.getId().toString()).param("role", "ADMIN"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/user/session").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testDataEndpointsTakeTheUserFromTheToken() throws Exception {
+        String token = login();
+
+        statistics.clear();
+        mockMvc.perform(get("/api/tasks/user").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        // Only the task query; no user lookup
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(put("/api/user/profile").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Session\",\"lastName\":\"User\",\"email\":\"session@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.getId()))
+                .andExpect(jsonPath("$.firstName").value("Session"));
+        // Without a token the user has to be named
+        mockMvc.perform(get("/api/tasks/user")).andExpect(status().isBadRequest());
+    }
+}
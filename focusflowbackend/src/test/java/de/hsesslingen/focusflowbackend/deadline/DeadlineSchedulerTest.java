@@ -0,0 +1,70 @@
+package de.hsesslingen.focusflowbackend.deadline;
+
+import de.hsesslingen.focusflowbackend.deadline.DeadlineScheduler.Kind;
+import de.hsesslingen.focusflowbackend.dto.TaskDeadlineDTO;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineSchedulerTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private DeadlineService deadlineService;
+
+    private DeadlineScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new DeadlineScheduler(taskRepository, deadlineService, new SimpleMeterRegistry());
+        scheduler.init();
+    }
+
+    @Test
+    public void testFailingTaskIsIsolatedFromItsBatch() {
+        List<Long> taskIds = LongStream.rangeClosed(1, 600).boxed().toList();
+        List<Long> processed = new ArrayList<>();
+        // Fails every batch that contains task 42, like a task whose reminder cannot be written
+        Function<List<Long>, List<TaskDeadlineDTO>> action = batch -> {
+            if (batch.contains(42L)) {
+                throw new IllegalStateException("value too long");
+            }
+            processed.addAll(batch);
+            return List.of();
+        };
+
+        scheduler.fire(taskIds, Kind.REMINDER, action);
+
+        assertEquals(599, processed.size());
+        assertFalse(processed.contains(42L));
+        // Only the failing task waits for the retry
+        assertEquals(List.of(42L), List.copyOf(scheduler.scheduledTaskIds(Kind.REMINDER)));
+    }
+
+    @Test
+    public void testNothingRescheduledWhenAllBatchesSucceed() {
+        List<Long> processed = new ArrayList<>();
+
+        scheduler.fire(List.of(1L, 2L, 3L), Kind.OVERDUE, batch -> {
+            processed.addAll(batch);
+            return List.of();
+        });
+
+        assertEquals(List.of(1L, 2L, 3L), processed);
+        assertTrue(scheduler.scheduledTaskIds(Kind.OVERDUE).isEmpty());
+    }
+}
@@ -0,0 +1,88 @@
+package de.hsesslingen.focusflowbackend.deadline;
+
+import de.hsesslingen.focusflowbackend.dto.TaskDeadlineDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskReminderDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.notification.NotificationOutboxService;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.sync.TaskChangeSequence;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private NotificationOutboxService notificationOutbox;
+
+    @Mock
+    private TaskChangeSequence changeSequence;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DeadlineService deadlineService;
+
+    @Test
+    public void testRemindersOnlyForTasksDueWithinTheLeadTime() {
+        LocalDateTime now = LocalDateTime.now();
+        when(taskRepository.findReminderCandidates(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new TaskReminderDTO(1L, "Soon", now.plusHours(2), "a@example.com"),
+                new TaskReminderDTO(2L, "Moved", now.plusDays(3), "b@example.com"),
+                new TaskReminderDTO(3L, "Missed", now.minusHours(1), "c@example.com")));
+
+        List<TaskDeadlineDTO> notDue = deadlineService.sendReminders(List.of(1L, 2L, 3L), Duration.ofHours(24));
+
+        verify(notificationOutbox).enqueue(eq(NotificationOutboxService.TASK_DUE_SOON), eq("a@example.com"),
+                contains("Soon"), anyString(), eq(1L));
+        verifyNoMoreInteractions(notificationOutbox);
+        // Past due: no "due soon" mail, but it is not reminded again either
+        verify(taskRepository).markReminderSent(List.of(1L, 3L));
+        assertEquals(1, notDue.size());
+        assertEquals(2L, notDue.get(0).getId());
+        assertFalse(notDue.get(0).isReminderSent());
+    }
+
+    @Test
+    public void testOverdueFlagsOnlyPastDueTasksAndPublishesUpdates() {
+        LocalDateTime now = LocalDateTime.now();
+        TaskSnapshot due = new TaskSnapshot(1L, 7L, null, TaskStatus.OPEN, null, now.minusMinutes(1), 40L);
+        TaskSnapshot moved = new TaskSnapshot(2L, 7L, null, TaskStatus.OPEN, null, now.plusDays(1), 41L);
+        when(taskRepository.findOverdueCandidates(List.of(1L, 2L))).thenReturn(List.of(due, moved));
+        when(changeSequence.next()).thenReturn(99L);
+
+        List<TaskDeadlineDTO> notDue = deadlineService.markOverdue(List.of(1L, 2L));
+
+        verify(taskRepository).markOverdue(eq(List.of(1L)), eq(99L), any());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(due, due.withChangeSeq(99L)));
+        assertEquals(List.of(2L), notDue.stream().map(TaskDeadlineDTO::getId).toList());
+    }
+
+    @Test
+    public void testNothingToDoWhenTasksWereClosedMeanwhile() {
+        when(taskRepository.findOverdueCandidates(anyCollection())).thenReturn(List.of());
+
+        assertTrue(deadlineService.markOverdue(List.of(5L)).isEmpty());
+
+        verify(taskRepository, never()).markOverdue(anyCollection(), anyLong(), any());
+        verifyNoInteractions(eventPublisher, changeSequence);
+    }
+}
@@ -0,0 +1,89 @@
+package de.hsesslingen.focusflowbackend.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long SECOND = 1000;
+
+    @Test
+    public void testFiresOnTheTickOfTheDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(SECOND, 0);
+        wheel.schedule("a", 5 * SECOND);
+
+        assertEquals(List.of(), wheel.advanceTo(4 * SECOND));
+        assertEquals(List.of("a"), wheel.advanceTo(5 * SECOND));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testPastDeadlineFiresOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(SECOND, 100 * SECOND);
+        wheel.schedule("late", 3 * SECOND);
+
+        assertEquals(List.of("late"), wheel.advanceTo(101 * SECOND));
+    }
+
+    @Test
+    public void testCancelledEntryDoesNotFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(SECOND, 0);
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", 10 * SECOND);
+        wheel.schedule("b", 10 * SECOND);
+
+        wheel.cancel(timeout);
+        wheel.cancel(timeout);
+
+        assertFalse(timeout.isActive());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("b"), wheel.advanceTo(10 * SECOND));
+    }
+
+    @Test
+    public void testHigherLevelsCascadeToTheExactTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>(SECOND, 0);
+        // Level 1, level 2, level 3 and one beyond the span of the wheel
+        long[] deadlines = {100, 5_000, 300_000, 20_000_000};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline * SECOND);
+        }
+
+        for (long deadline : deadlines) {
+            assertEquals(List.of(), wheel.advanceTo((deadline - 1) * SECOND));
+            assertEquals(List.of(deadline), wheel.advanceTo(deadline * SECOND));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRandomDeadlinesFireInOrderAndOnTime() {
+        Random random = new Random(42);
+        TimingWheel<Long> wheel = new TimingWheel<>(SECOND, 7 * SECOND);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            long deadline = 8 + random.nextInt(400_000);
+            wheel.schedule(deadline, deadline * SECOND);
+            expected.add(deadline);
+        }
+        expected.sort(Long::compare);
+
+        List<Long> fired = new ArrayList<>();
+        long previous = 7;
+        for (long now = 8; now <= 400_008; now += 1 + random.nextInt(50)) {
+            for (Long deadline : wheel.advanceTo(now * SECOND)) {
+                // Neither early nor later than the advance that passed the deadline
+                assertTrue(deadline > previous && deadline <= now, "fired " + deadline + " at " + now);
+                fired.add(deadline);
+            }
+            previous = now;
+        }
+        fired.addAll(wheel.advanceTo(400_100 * SECOND));
+        fired.sort(Long::compare);
+        assertEquals(expected, fired);
+    }
+}
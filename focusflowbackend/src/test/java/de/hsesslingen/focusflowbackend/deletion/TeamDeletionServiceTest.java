@@ -0,0 +1,168 @@
+package de.hsesslingen.focusflowbackend.deletion;
+
+import de.hsesslingen.focusflowbackend.dto.TaskDeletionCandidateDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamDeletionJobDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TeamChangedEvent;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipIndex;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipRepository;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.repository.TaskTombstoneRepository;
+import de.hsesslingen.focusflowbackend.repository.TeamRepository;
+import de.hsesslingen.focusflowbackend.search.TaskSearchService;
+import de.hsesslingen.focusflowbackend.sync.TaskChangeSequence;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TeamDeletionServiceTest {
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private TeamMembershipRepository membershipRepository;
+
+    @Mock
+    private TeamMembershipIndex membershipIndex;
+
+    @Mock
+    private TaskChangeSequence changeSequence;
+
+    @Mock
+    private TaskSearchService taskSearchService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TeamDeletionService teamDeletionService;
+
+    private TaskDeletionCandidateDTO task(long id) {
+        return new TaskDeletionCandidateDTO(id, 1L, 2L, 7L, TaskStatus.OPEN, null, null);
+    }
+
+    // Team 7 with two tasks and two members left to delete; the counts are what deleteTeam sees up front
+    private void stubTeam(long tasks, long members) {
+        when(teamRepository.existsById(7L)).thenReturn(true);
+        when(taskRepository.countByTeamId(7L)).thenReturn(tasks, 0L);
+        when(membershipRepository.countMembers(7L)).thenReturn((int) members, 0);
+        when(taskRepository.findDeletionCandidates(7L, PageRequest.of(0, 500))).thenReturn(List.of(task(1L), task(2L)));
+        when(taskRepository.lockExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(membershipRepository.findMemberIds(7L, 500)).thenReturn(List.of(1L, 2L));
+        when(membershipRepository.removeMembers(7L, List.of(1L, 2L))).thenReturn(Set.of(1L, 2L));
+        when(membershipRepository.lockTeam(7L)).thenReturn(true);
+    }
+
+    @Test
+    public void testSmallTeamIsDeletedRightAway() {
+        stubTeam(2L, 2L);
+
+        assertTrue(teamDeletionService.deleteTeam(7L).isEmpty());
+
+        verify(tombstoneRepository).saveAll(anyList());
+        verify(changeSequence, times(2)).next();
+        verify(taskRepository).deleteByIds(List.of(1L, 2L));
+        verify(taskSearchService).onTasksRemoved(List.of(1L, 2L));
+        verify(membershipIndex).removeMember(7L, 1L);
+        verify(membershipIndex).removeMember(7L, 2L);
+        verify(teamRepository).deleteTeamById(7L);
+        verify(eventPublisher, times(2)).publishEvent(any(TaskChangedEvent.class));
+        verify(eventPublisher).publishEvent(new TeamChangedEvent(TeamChangedEvent.ChangeType.DELETED, 7L, Set.of(1L, 2L)));
+        // The team is never loaded as an entity
+        verify(teamRepository, never()).findById(any());
+    }
+
+    @Test
+    public void testTeamIsNotDeletedWhileRowsWereAddedMeanwhile() {
+        stubTeam(2L, 2L);
+        // A task was added after the task chunks were done: the chunks run again before the team row goes
+        when(taskRepository.countByTeamId(7L)).thenReturn(2L, 1L, 0L);
+
+        teamDeletionService.deleteTeam(7L);
+
+        verify(taskRepository, times(2)).findDeletionCandidates(7L, PageRequest.of(0, 500));
+        verify(teamRepository, times(1)).deleteTeamById(7L);
+    }
+
+    @Test
+    public void testTasksDeletedMeanwhileGetNoTombstone() {
+        stubTeam(2L, 2L);
+        // Task 2 was deleted on its own after the chunk was read
+        when(taskRepository.lockExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        teamDeletionService.deleteTeam(7L);
+
+        verify(changeSequence, times(1)).next();
+        verify(taskRepository).deleteByIds(List.of(1L));
+        verify(taskSearchService).onTasksRemoved(List.of(1L));
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    public void testTeamDeletedConcurrentlyIsLeftAlone() {
+        when(teamRepository.existsById(7L)).thenReturn(true);
+        when(taskRepository.countByTeamId(7L)).thenReturn(2L);
+        when(membershipRepository.countMembers(7L)).thenReturn(2);
+        // Another deletion of the same team finished first
+        when(membershipRepository.lockTeam(7L)).thenReturn(false);
+
+        assertTrue(teamDeletionService.deleteTeam(7L).isEmpty());
+
+        verify(taskRepository, never()).deleteByIds(any());
+        verify(membershipRepository, never()).removeMembers(any(), any());
+        verify(teamRepository, never()).deleteTeamById(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testUnknownTeam() {
+        when(teamRepository.existsById(99L)).thenReturn(false);
+        assertThrows(NoSuchElementException.class, () -> teamDeletionService.deleteTeam(99L));
+    }
+
+    @Test
+    public void testLargeTeamIsDeletedByATrackedJob() throws InterruptedException {
+        stubTeam(3000L, 2L);
+
+        Optional<TeamDeletionJobDTO> job = teamDeletionService.deleteTeam(7L);
+        assertTrue(job.isPresent());
+        assertEquals(3000L, job.get().getTasksTotal());
+
+        TeamDeletionJobDTO progress = job.get();
+        for (int i = 0; i < 100 && "RUNNING".equals(progress.getStatus()); i++) {
+            Thread.sleep(20);
+            progress = teamDeletionService.getJob(job.get().getId()).orElseThrow();
+        }
+        assertEquals("COMPLETED", progress.getStatus());
+        assertEquals(2L, progress.getTasksDeleted());
+        assertEquals(2L, progress.getMembersRemoved());
+        assertNotNull(progress.getFinishedAt());
+        verify(teamRepository).deleteTeamById(7L);
+    }
+}
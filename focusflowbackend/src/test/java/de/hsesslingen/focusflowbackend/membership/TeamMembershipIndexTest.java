@@ -0,0 +1,106 @@
+package de.hsesslingen.focusflowbackend.membership;
+
+import de.hsesslingen.focusflowbackend.dto.TeamMembershipDTO;
+import de.hsesslingen.focusflowbackend.repository.TeamRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TeamMembershipIndexTest {
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @InjectMocks
+    private TeamMembershipIndex membershipIndex;
+
+    private void load(TeamMembershipDTO... rows) {
+        when(teamRepository.findAllMemberships()).thenReturn(List.of(rows));
+        membershipIndex.load();
+    }
+
+    @Test
+    public void testSortedArrayHelpers() {
+        long[] values = TeamMembershipIndex.insert(new long[] {2, 8}, 5);
+        assertArrayEquals(new long[] {2, 5, 8}, values);
+        assertSame(values, TeamMembershipIndex.insert(values, 5));
+        assertArrayEquals(new long[] {2, 8}, TeamMembershipIndex.delete(values, 5));
+        assertSame(values, TeamMembershipIndex.delete(values, 7));
+
+        assertTrue(TeamMembershipIndex.intersects(new long[] {1, 4, 9}, new long[] {3, 9}));
+        assertFalse(TeamMembershipIndex.intersects(new long[] {1, 4}, new long[] {2, 3, 5}));
+        assertFalse(TeamMembershipIndex.intersects(new long[0], new long[] {1}));
+    }
+
+    @Test
+    public void testSharedTeamIsAnsweredFromTheIndex() {
+        load(new TeamMembershipDTO(10L, 1L), new TeamMembershipDTO(10L, 2L), new TeamMembershipDTO(20L, 3L));
+
+        assertTrue(membershipIndex.shareAnyTeam(1L, 2L));
+        assertArrayEquals(new long[] {1, 2}, membershipIndex.getMemberIds(10L));
+        assertArrayEquals(new long[] {20}, membershipIndex.getTeamIds(3L));
+        verify(teamRepository, never()).existsSharedTeam(any(), any());
+    }
+
+    @Test
+    public void testNoSharedTeamIsAnsweredFromTheIndex() {
+        load(new TeamMembershipDTO(10L, 1L), new TeamMembershipDTO(20L, 3L));
+
+        assertFalse(membershipIndex.shareAnyTeam(1L, 3L));
+        verify(teamRepository, never()).existsSharedTeam(any(), any());
+    }
+
+    @Test
+    public void testQueriesFallBackToTheDatabaseBeforeLoading() {
+        when(teamRepository.findTeamIdsByMemberId(1L)).thenReturn(List.of(30L, 10L));
+
+        assertArrayEquals(new long[] {10, 30}, membershipIndex.getTeamIds(1L));
+    }
+
+    @Test
+    public void testMutations() {
+        load(new TeamMembershipDTO(10L, 1L));
+
+        membershipIndex.addMember(10L, 2L);
+        assertTrue(membershipIndex.shareAnyTeam(1L, 2L));
+
+        membershipIndex.removeMember(10L, 1L);
+        assertArrayEquals(new long[0], membershipIndex.getTeamIds(1L));
+
+        membershipIndex.removeTeam(10L);
+        assertArrayEquals(new long[0], membershipIndex.getMemberIds(10L));
+        assertArrayEquals(new long[0], membershipIndex.getTeamIds(2L));
+    }
+
+    @Test
+    public void testMutationsApplyOnlyOnCommit() {
+        load(new TeamMembershipDTO(10L, 1L));
+
+        List<TransactionSynchronization> synchronizations;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            membershipIndex.addMember(10L, 2L);
+            membershipIndex.removeMember(10L, 1L);
+            assertArrayEquals(new long[] {1}, membershipIndex.getMemberIds(10L));
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertArrayEquals(new long[] {1}, membershipIndex.getMemberIds(10L));
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertArrayEquals(new long[] {2}, membershipIndex.getMemberIds(10L));
+    }
+}
@@ -0,0 +1,87 @@
+package de.hsesslingen.focusflowbackend.membership;
+
+import de.hsesslingen.focusflowbackend.model.Team;
+import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.repository.TeamRepository;
+import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(TeamMembershipRepository.class)
+class TeamMembershipRepositoryTest {
+
+    @Autowired
+    private TeamMembershipRepository membershipRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Team team;
+    private User alice;
+    private User bob;
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole("USER");
+        return userRepository.save(user);
+    }
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice@example.com");
+        bob = user("bob@example.com");
+
+        team = new Team();
+        team.setName("Membership Team");
+        team.setMembers(new HashSet<>(Set.of(alice)));
+        team = teamRepository.saveAndFlush(team);
+        entityManager.clear();
+    }
+
+    @Test
+    void testAddMembersSkipsExistingMembers() {
+        assertTrue(membershipRepository.lockTeam(team.getId()));
+
+        Set<Long> added = membershipRepository.addMembers(team.getId(), List.of(alice.getId(), bob.getId()));
+
+        assertEquals(Set.of(bob.getId()), added);
+        assertEquals(2, membershipRepository.countMembers(team.getId()));
+        assertEquals(2, teamRepository.findById(team.getId()).orElseThrow().getMembers().size());
+    }
+
+    @Test
+    void testRemoveMembers() {
+        Set<Long> removed = membershipRepository.removeMembers(team.getId(), List.of(alice.getId(), bob.getId()));
+
+        assertEquals(Set.of(alice.getId()), removed);
+        assertEquals(0, membershipRepository.countMembers(team.getId()));
+    }
+
+    @Test
+    void testIncrementVersionAndUnknownTeam() {
+        long version = team.getVersion();
+        membershipRepository.incrementVersion(team.getId());
+
+        assertEquals(version + 1, teamRepository.findById(team.getId()).orElseThrow().getVersion());
+        assertFalse(membershipRepository.lockTeam(-1L));
+    }
+}
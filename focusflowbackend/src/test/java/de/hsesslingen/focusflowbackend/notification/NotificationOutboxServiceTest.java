@@ -0,0 +1,91 @@
+package de.hsesslingen.focusflowbackend.notification;
+
+import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.model.notifications.OutboxNotification;
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.repository.OutboxNotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(NotificationOutboxService.class)
+class NotificationOutboxServiceTest {
+
+    @Autowired
+    private NotificationOutboxService outboxService;
+
+    @Autowired
+    private OutboxNotificationRepository outboxRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole("USER");
+        return entityManager.persist(user);
+    }
+
+    @Test
+    void testEnqueueTaskAssignedWithLongestTitle() {
+        Task task = new Task();
+        task.setCreator(user("creator@example.com"));
+        task.setAssignee(user("assignee@example.com"));
+        task.setTitle("x".repeat(255));
+        task.setPriority(TaskPriority.LOW);
+        task.setStatus(TaskStatus.OPEN);
+        entityManager.persist(task);
+
+        outboxService.enqueueTaskAssigned(task);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<OutboxNotification> queued = outboxRepository.findAll();
+        assertEquals(1, queued.size());
+        String subject = queued.get(0).getSubject();
+        assertEquals(OutboxNotification.SUBJECT_LENGTH, subject.length());
+        assertTrue(subject.startsWith("New task assigned: xxx"));
+        assertTrue(subject.endsWith("..."));
+        assertTrue(queued.get(0).getBody().contains("x".repeat(255)));
+    }
+
+    @Test
+    void testShortSubjectIsKept() {
+        Task task = new Task();
+        task.setCreator(user("creator@example.com"));
+        task.setAssignee(user("assignee@example.com"));
+        task.setTitle("Write report");
+        task.setPriority(TaskPriority.LOW);
+        task.setStatus(TaskStatus.OPEN);
+        entityManager.persist(task);
+
+        outboxService.enqueueTaskAssigned(task);
+        entityManager.flush();
+
+        assertEquals("New task assigned: Write report", outboxRepository.findAll().get(0).getSubject());
+    }
+
+    @Test
+    void testDueSoonSubjectWithLongestTitle() {
+        String title = "y".repeat(255);
+
+        outboxService.enqueue(NotificationOutboxService.TASK_DUE_SOON, "assignee@example.com", "Task due soon: " + title,
+                "The task \"" + title + "\" is due tomorrow.", 1L);
+        entityManager.flush();
+
+        String subject = outboxRepository.findAll().get(0).getSubject();
+        assertEquals(OutboxNotification.SUBJECT_LENGTH, subject.length());
+        assertTrue(subject.startsWith("Task due soon: yyy"));
+    }
+}
@@ -0,0 +1,97 @@
+package de.hsesslingen.focusflowbackend.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRelayTest {
+
+    @Mock
+    private NotificationOutboxService outboxService;
+
+    @Mock
+    private NotificationSender sender;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationRelay relay;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new NotificationRelay(outboxService, sender, meterRegistry);
+    }
+
+    private Notification notification(long id, int attempt) {
+        return new Notification(id, NotificationOutboxService.TASK_ASSIGNED, "user" + id + "@example.com",
+                "New task assigned", null, 10L, attempt);
+    }
+
+    @Test
+    public void testDeliveredNotificationsAreRemovedTogether() throws Exception {
+        when(outboxService.claimDue(anyInt(), any())).thenReturn(List.of(notification(1L, 1), notification(2L, 1)));
+
+        relay.relay();
+
+        verify(sender, times(2)).send(any());
+        verify(outboxService).markDelivered(List.of(1L, 2L));
+        assertEquals(2.0, meterRegistry.get("focusflow.notifications.delivered").counter().count());
+        assertEquals(2, meterRegistry.get("focusflow.notifications.send").timer().count());
+    }
+
+    @Test
+    public void testFailedAttemptIsRetriedLater() throws Exception {
+        lenient().doThrow(new IOException("channel down")).when(sender).send(argThat(n -> n.id() == 2L));
+        LocalDateTime before = LocalDateTime.now();
+
+        relay.deliver(List.of(notification(1L, 1), notification(2L, 1)));
+
+        verify(outboxService).markDelivered(List.of(1L));
+        verify(outboxService).reschedule(eq(2L), contains("channel down"), argThat(next -> next.isAfter(before)));
+        verify(outboxService, never()).moveToDeadLetter(any(), any());
+        assertEquals(1.0, meterRegistry.get("focusflow.notifications.retried").counter().count());
+    }
+
+    @Test
+    public void testLastAttemptGoesToDeadLetter() throws Exception {
+        doThrow(new IOException("channel down")).when(sender).send(any());
+
+        relay.deliver(List.of(notification(1L, 8)));
+
+        verify(outboxService).moveToDeadLetter(eq(1L), contains("channel down"));
+        verify(outboxService, never()).reschedule(any(), any(), any());
+        assertEquals(1.0, meterRegistry.get("focusflow.notifications.dead_lettered").counter().count());
+    }
+
+    @Test
+    public void testBackoffDoublesUpToTheCap() {
+        // 10 s base with +/-20 % jitter
+        assertTrue(relay.backoff(1).compareTo(Duration.ofSeconds(8)) >= 0);
+        assertTrue(relay.backoff(1).compareTo(Duration.ofSeconds(12)) <= 0);
+        assertTrue(relay.backoff(3).compareTo(Duration.ofSeconds(32)) >= 0);
+        assertTrue(relay.backoff(3).compareTo(Duration.ofSeconds(48)) <= 0);
+        assertTrue(relay.backoff(40).compareTo(Duration.ofMinutes(72)) <= 0);
+    }
+
+    @Test
+    public void testStopsWhenNothingIsDue() {
+        when(outboxService.claimDue(anyInt(), any())).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(outboxService, times(1)).claimDue(anyInt(), any());
+        verifyNoInteractions(sender);
+    }
+}
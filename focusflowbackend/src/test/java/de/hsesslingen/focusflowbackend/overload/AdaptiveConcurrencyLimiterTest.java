@@ -0,0 +1,94 @@
+package de.hsesslingen.focusflowbackend.overload;
+
+import de.hsesslingen.focusflowbackend.overload.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdaptiveConcurrencyLimiterTest {
+
+    @Mock
+    private ObjectProvider<DataSource> dataSource;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(dataSource, meterRegistry, 10, 10, 10, 0.2);
+        limiter.bindTo(meterRegistry);
+    }
+
+    private int admit(Priority priority, int attempts) {
+        int admitted = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (limiter.tryAcquire(priority)) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    @Test
+    public void testBulkRequestsGetHalfTheLimit() {
+        assertEquals(5, admit(Priority.BULK, 20));
+        // Writes may still fill up to 9, reads up to the full limit
+        assertEquals(4, admit(Priority.WRITE, 20));
+        assertEquals(1, admit(Priority.READ, 20));
+        assertFalse(limiter.tryAcquire(Priority.READ));
+        assertEquals(15, meterRegistry.get("focusflow.concurrency_limit.rejected").tag("priority", "bulk").counter().count());
+        assertEquals(20, meterRegistry.get("focusflow.concurrency_limit.rejected").tag("priority", "read").counter().count());
+    }
+
+    @Test
+    public void testReleaseFreesASlot() {
+        assertEquals(10, admit(Priority.READ, 10));
+        assertFalse(limiter.tryAcquire(Priority.READ));
+
+        limiter.release(Priority.READ, 1_000_000);
+
+        assertTrue(limiter.tryAcquire(Priority.READ));
+        assertEquals(10.0, meterRegistry.get("focusflow.concurrency_limit.inflight").gauge().value());
+    }
+
+    @Test
+    public void testSlowBulkRequestDoesNotShrinkTheLimit() {
+        AdaptiveConcurrencyLimiter adaptive = new AdaptiveConcurrencyLimiter(dataSource, new SimpleMeterRegistry(), 50, 10, 400, 0.2);
+        for (int i = 0; i < 20; i++) {
+            adaptive.tryAcquire(Priority.READ);
+            adaptive.release(Priority.READ, 10_000_000);
+        }
+
+        // A ten-second export
+        adaptive.tryAcquire(Priority.BULK);
+        adaptive.release(Priority.BULK, 10_000_000_000L);
+        for (int i = 0; i < 20; i++) {
+            adaptive.tryAcquire(Priority.READ);
+            adaptive.release(Priority.READ, 10_000_000);
+        }
+
+        assertEquals(50, adaptive.getLimit());
+    }
+
+    @Test
+    public void testPriorityOfRequests() {
+        assertEquals(Priority.READ, ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/api/tasks/page")));
+        assertEquals(Priority.WRITE, ConcurrencyLimitFilter.priority(new MockHttpServletRequest("POST", "/api/tasks")));
+        assertEquals(Priority.WRITE, ConcurrencyLimitFilter.priority(new MockHttpServletRequest("DELETE", "/api/tasks/5")));
+        assertEquals(Priority.BULK, ConcurrencyLimitFilter.priority(new MockHttpServletRequest("POST", "/api/tasks/bulk-update")));
+        assertEquals(Priority.BULK, ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/api/tasks/export")));
+        assertEquals(Priority.BULK, ConcurrencyLimitFilter.priority(new MockHttpServletRequest("DELETE", "/api/teams/3")));
+        assertEquals(Priority.BULK, ConcurrencyLimitFilter.priority(new MockHttpServletRequest("POST", "/api/user/login")));
+    }
+}
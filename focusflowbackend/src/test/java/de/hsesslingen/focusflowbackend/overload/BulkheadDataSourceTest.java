@@ -0,0 +1,111 @@
+package de.hsesslingen.focusflowbackend.overload;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        lenient().when(target.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    public void testCloseReleasesPermitOnce() throws SQLException {
+        BulkheadDataSource bulkhead = new BulkheadDataSource(target, 2, 10, Duration.ofMillis(50));
+
+        Connection first = bulkhead.getConnection();
+        assertEquals(1, bulkhead.getAvailablePermits());
+
+        first.close();
+        first.close();
+
+        assertEquals(2, bulkhead.getAvailablePermits());
+        assertTrue(first.isClosed());
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    public void testCallsAreDelegated() throws SQLException {
+        BulkheadDataSource bulkhead = new BulkheadDataSource(target, 1, 10, Duration.ofMillis(50));
+
+        Connection proxy = bulkhead.getConnection();
+        proxy.setAutoCommit(false);
+
+        verify(connection).setAutoCommit(false);
+        assertSame(connection, ((ConnectionProxy) proxy).getTargetConnection());
+    }
+
+    @Test
+    public void testTimesOutWhenNoPermitIsFreed() throws SQLException {
+        BulkheadDataSource bulkhead = new BulkheadDataSource(target, 1, 10, Duration.ofMillis(50));
+        bulkhead.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+        assertEquals(1, bulkhead.getRejected());
+        assertEquals(0, bulkhead.getWaiting());
+    }
+
+    @Test
+    public void testRejectsAtOnceWhenTooManyAreWaiting() throws Exception {
+        BulkheadDataSource bulkhead = new BulkheadDataSource(target, 1, 1, Duration.ofSeconds(5));
+        Connection held = bulkhead.getConnection();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<Connection> waiter = executor.submit(() -> {
+                started.countDown();
+                return bulkhead.getConnection();
+            });
+            started.await();
+            while (bulkhead.getWaiting() == 0) {
+                Thread.onSpinWait();
+            }
+
+            long start = System.nanoTime();
+            assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+            held.close();
+            assertNotNull(waiter.get(1, TimeUnit.SECONDS));
+            assertEquals(1, bulkhead.getRejected());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPermitReturnedWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool down"));
+        BulkheadDataSource bulkhead = new BulkheadDataSource(target, 1, 10, Duration.ofMillis(50));
+
+        assertThrows(SQLException.class, bulkhead::getConnection);
+        assertEquals(1, bulkhead.getAvailablePermits());
+    }
+}
@@ -0,0 +1,82 @@
+package de.hsesslingen.focusflowbackend.overload;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimitTest {
+
+    private static final long MILLI = 1_000_000;
+
+    @Test
+    public void testGrowsWhileLatencyStaysFlat() {
+        GradientLimit limit = new GradientLimit(20, 5, 100, 0.2);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLI, limit.getLimit(), false);
+        }
+
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    public void testDoesNotGrowWhileMostlyIdle() {
+        GradientLimit limit = new GradientLimit(20, 5, 100, 0.2);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLI, 3, false);
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    public void testShrinksWhenLatencyRises() {
+        GradientLimit limit = new GradientLimit(80, 5, 100, 0.2);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLI, 80, false);
+        }
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(100 * MILLI, before, false);
+        }
+
+        assertTrue(limit.getLimit() < before / 2, "limit " + limit.getLimit() + " should be well below " + before);
+    }
+
+    @Test
+    public void testOneSlowSampleDoesNotCollapseTheLimit() {
+        GradientLimit limit = new GradientLimit(80, 5, 100, 0.2);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLI, 80, false);
+        }
+        int before = limit.getLimit();
+
+        // One ten-second request among 10 ms ones
+        limit.onSample(10_000 * MILLI, before, false);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(10 * MILLI, before, false);
+        }
+
+        assertTrue(limit.getLimit() >= before * 0.9, "limit " + limit.getLimit() + " should stay near " + before);
+    }
+
+    @Test
+    public void testShrinksWhileRequestsWaitForConnections() {
+        GradientLimit limit = new GradientLimit(80, 5, 100, 0.2);
+
+        // Latency has not moved (yet), the pool wait alone brings the limit down
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLI, 80, true);
+        }
+
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    public void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(5, 10, 100, 0.2));
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(10, 0, 100, 0.2));
+    }
+}
@@ -0,0 +1,155 @@
+package de.hsesslingen.focusflowbackend.push;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.event.TasksBulkUpdatedEvent;
+import de.hsesslingen.focusflowbackend.event.TeamChangedEvent;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.repository.TeamRepository;
+import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PushServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private PushService pushService;
+
+    private PushSubscription subscribe(Long userId, List<Long> memberOf, List<Long> teamIds) {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(teamRepository.findTeamIdsByMemberId(userId)).thenReturn(memberOf);
+        pushService.subscribe(userId, teamIds);
+        return pushService.getSubscriptions(userId).iterator().next();
+    }
+
+    private TaskSnapshot task(Long assigneeId, Long teamId) {
+        return new TaskSnapshot(1L, assigneeId, teamId, TaskStatus.OPEN, null, null, null);
+    }
+
+    @Test
+    public void testSubscribeValidatesUserAndTeams() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+        assertThrows(NoSuchElementException.class, () -> pushService.subscribe(1L, null));
+
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(teamRepository.findTeamIdsByMemberId(2L)).thenReturn(List.of(5L));
+        assertThrows(IllegalArgumentException.class, () -> pushService.subscribe(2L, List.of(5L, 6L)));
+        assertEquals(0, pushService.getConnectionCount());
+    }
+
+    @Test
+    public void testTaskChangesReachAssigneeAndTeamOnly() {
+        PushSubscription teamFive = subscribe(1L, List.of(5L), null);
+        PushSubscription teamSix = subscribe(2L, List.of(6L), null);
+        PushSubscription assignee = subscribe(3L, List.of(), null);
+        assertEquals(3, pushService.getConnectionCount());
+
+        // Moved from team 5 to team 7: the old team still hears about it
+        pushService.onTaskChanged(TaskChangedEvent.updated(task(3L, 5L), task(3L, 7L)));
+
+        assertEquals(2, teamFive.queuedCount());
+        assertEquals(1, teamSix.queuedCount());
+        assertEquals(2, assignee.queuedCount());
+    }
+
+    @Test
+    public void testBulkUpdateResyncReachesItsScopeOnly() {
+        PushSubscription teamFive = subscribe(1L, List.of(5L), null);
+        PushSubscription teamSix = subscribe(2L, List.of(6L), null);
+        PushSubscription assignee = subscribe(3L, List.of(), null);
+
+        pushService.onTasksBulkUpdated(new TasksBulkUpdatedEvent(4, Set.of(5L), Set.of(3L)));
+
+        assertEquals(2, teamFive.queuedCount());
+        assertEquals(1, teamSix.queuedCount());
+        assertEquals(2, assignee.queuedCount());
+    }
+
+    @Test
+    public void testSubscriptionFollowsUserIntoNewTeam() {
+        PushSubscription allTeams = subscribe(1L, List.of(5L), null);
+        PushSubscription onlyFive = subscribe(2L, List.of(5L), List.of(5L));
+
+        pushService.onTeamChanged(new TeamChangedEvent(TeamChangedEvent.ChangeType.MEMBERS_ADDED, 8L, Set.of(1L, 2L)));
+        assertTrue(allTeams.getTeamIds().contains(8L));
+        assertFalse(onlyFive.getTeamIds().contains(8L));
+
+        pushService.onTaskChanged(TaskChangedEvent.created(task(null, 8L)));
+        assertEquals(3, allTeams.queuedCount());
+        assertEquals(2, onlyFive.queuedCount());
+
+        pushService.onTeamChanged(new TeamChangedEvent(TeamChangedEvent.ChangeType.DELETED, 8L, Set.of(1L, 2L)));
+        assertFalse(allTeams.getTeamIds().contains(8L));
+    }
+
+    @Test
+    public void testRemovedMemberStopsHearingAboutTheTeam() {
+        PushSubscription allTeams = subscribe(1L, List.of(5L), null);
+        PushSubscription onlyFive = subscribe(2L, List.of(5L), List.of(5L));
+        PushSubscription stays = subscribe(3L, List.of(5L), null);
+
+        pushService.onTeamChanged(new TeamChangedEvent(TeamChangedEvent.ChangeType.MEMBERS_REMOVED, 5L, Set.of(1L, 2L)));
+        assertFalse(allTeams.getTeamIds().contains(5L));
+        assertFalse(onlyFive.getTeamIds().contains(5L));
+        // The removed members are told about it, like everyone still in the team
+        assertEquals(2, allTeams.queuedCount());
+        assertEquals(2, onlyFive.queuedCount());
+        assertEquals(2, stays.queuedCount());
+
+        pushService.onTaskChanged(TaskChangedEvent.created(task(null, 5L)));
+        assertEquals(2, allTeams.queuedCount());
+        assertEquals(2, onlyFive.queuedCount());
+        assertEquals(3, stays.queuedCount());
+    }
+
+    @Test
+    public void testFullBufferRejectsEvents() {
+        PushSubscription subscription = new PushSubscription(1L, Set.of(), false, new SseEmitter(), 2);
+
+        assertTrue(subscription.offer(PushEvent.HEARTBEAT));
+        assertTrue(subscription.offer(PushEvent.HEARTBEAT));
+        assertFalse(subscription.offer(PushEvent.HEARTBEAT));
+
+        subscription.close();
+        assertFalse(subscription.offer(PushEvent.HEARTBEAT));
+    }
+
+    @Test
+    public void testDrainWritesQueuedEventsAndReleasesTheFlag() throws Exception {
+        SseEmitter emitter = mock(SseEmitter.class);
+        PushSubscription subscription = new PushSubscription(1L, Set.of(), false, emitter, 4);
+        subscription.offer(new PushEvent("task", "{}"));
+        subscription.offer(PushEvent.HEARTBEAT);
+
+        assertTrue(subscription.tryStartDrain());
+        assertFalse(subscription.tryStartDrain());
+        subscription.drain();
+
+        verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        assertTrue(subscription.tryStartDrain());
+    }
+}
@@ -0,0 +1,171 @@
+package de.hsesslingen.focusflowbackend.repository;
+
+import de.hsesslingen.focusflowbackend.dto.CalendarDayCountDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskBulkUpdateRequestDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskCountRowDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskFilterDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskScopeDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.model.Team;
+import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest // uses a H2 in-memory database for testing
+class TaskRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User creator;
+    private Team team;
+
+    @BeforeEach
+    void setUp() {
+        creator = new User();
+        creator.setEmail("creator@example.com");
+        creator.setPassword("password");
+        creator.setRole("USER");
+        userRepository.save(creator);
+
+        team = new Team();
+        team.setName("Paging Team");
+        teamRepository.save(team);
+
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task();
+            task.setCreator(creator);
+            task.setTitle("Task " + i);
+            task.setDueDate(LocalDateTime.of(2030, 1, 1 + i, 0, 0));
+            task.setPriority(i % 2 == 0 ? TaskPriority.HIGH : TaskPriority.LOW);
+            task.setStatus(TaskStatus.OPEN);
+            task.setTeam(i < 3 ? team : null);
+            taskRepository.save(task);
+        }
+    }
+
+    @Test
+    void testFindPageWalksIdsInOrder() {
+        List<TaskViewDTO> first = taskRepository.findPage(0L, null, null, null, null, null, null, PageRequest.of(0, 2));
+        assertEquals(2, first.size());
+        assertTrue(first.get(0).getId() < first.get(1).getId());
+
+        List<TaskViewDTO> second = taskRepository.findPage(first.get(1).getId(), null, null, null, null, null, null, PageRequest.of(0, 2));
+        assertEquals(2, second.size());
+        assertTrue(second.get(0).getId() > first.get(1).getId());
+    }
+
+    @Test
+    void testFindPageAppliesFilters() {
+        List<TaskViewDTO> highInTeam = taskRepository.findPage(0L, null, TaskPriority.HIGH, team.getId(), null,
+                null, null, PageRequest.of(0, 10));
+        assertEquals(2, highInTeam.size());
+        assertTrue(highInTeam.stream().allMatch(t -> t.getPriority() == TaskPriority.HIGH));
+
+        List<TaskViewDTO> dueEarly = taskRepository.findPage(0L, TaskStatus.OPEN, null, null, null,
+                LocalDateTime.of(2030, 1, 2, 0, 0), LocalDateTime.of(2030, 1, 4, 0, 0), PageRequest.of(0, 10));
+        assertEquals(2, dueEarly.size());
+    }
+
+    @Test
+    void testCalendarQueriesForTeam() {
+        Task afternoon = new Task();
+        afternoon.setCreator(creator);
+        afternoon.setTitle("Afternoon task");
+        afternoon.setDueDate(LocalDateTime.of(2030, 1, 2, 15, 30));
+        afternoon.setStatus(TaskStatus.OPEN);
+        afternoon.setTeam(team);
+        taskRepository.save(afternoon);
+
+        LocalDateTime from = LocalDateTime.of(2030, 1, 2, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 4, 0, 0);
+
+        List<TaskViewDTO> due = taskRepository.findViewsDueForTeam(team.getId(), from, to);
+        assertEquals(List.of("Task 1", "Afternoon task", "Task 2"), due.stream().map(TaskViewDTO::getTitle).toList());
+
+        List<CalendarDayCountDTO> counts = taskRepository.countDueByDayForTeam(team.getId(), from, to);
+        assertEquals(List.of(new CalendarDayCountDTO(LocalDate.of(2030, 1, 2), 2L),
+                new CalendarDayCountDTO(LocalDate.of(2030, 1, 3), 1L)), counts);
+    }
+
+    @Test
+    void testCountByTeamAssigneeStatusAndPriority() {
+        List<TaskCountRowDTO> rows = taskRepository.countByTeamAssigneeStatusAndPriority();
+
+        long teamHigh = rows.stream()
+                .filter(r -> team.getId().equals(r.getTeamId()) && r.getPriority() == TaskPriority.HIGH)
+                .mapToLong(TaskCountRowDTO::getCount).sum();
+        long withoutTeam = rows.stream().filter(r -> r.getTeamId() == null).mapToLong(TaskCountRowDTO::getCount).sum();
+        assertEquals(2, teamHigh);
+        assertEquals(2, withoutTeam);
+    }
+
+    @Test
+    void testBulkUpdateByIds() {
+        List<Long> ids = taskRepository.findAll().stream().map(Task::getId).limit(2).toList();
+        TaskBulkUpdateRequestDTO request = new TaskBulkUpdateRequestDTO();
+        request.setTaskIds(ids);
+        request.setStatus(TaskStatus.CLOSED);
+        request.setAssigneeId(creator.getId());
+
+        int updated = taskRepository.bulkUpdate(request, 42L);
+        entityManager.clear();
+
+        assertEquals(2, updated);
+        Task reloaded = taskRepository.findById(ids.get(0)).orElseThrow();
+        assertEquals(TaskStatus.CLOSED, reloaded.getStatus());
+        assertEquals(creator.getId(), reloaded.getAssignee().getId());
+        assertEquals(1L, reloaded.getVersion());
+        assertEquals(42L, reloaded.getChangeSeq());
+    }
+
+    @Test
+    void testBulkUpdateByFilter() {
+        TaskFilterDTO filter = new TaskFilterDTO();
+        filter.setTeamId(team.getId());
+        TaskBulkUpdateRequestDTO request = new TaskBulkUpdateRequestDTO();
+        request.setFilter(filter);
+        request.setPriority(TaskPriority.MEDIUM);
+
+        int updated = taskRepository.bulkUpdate(request, 42L);
+        entityManager.clear();
+
+        assertEquals(3, updated);
+        assertEquals(3, taskRepository.findAll().stream().filter(t -> t.getPriority() == TaskPriority.MEDIUM).count());
+    }
+
+    @Test
+    void testBulkUpdateScopes() {
+        TaskFilterDTO filter = new TaskFilterDTO();
+        filter.setTeamId(team.getId());
+        TaskBulkUpdateRequestDTO request = new TaskBulkUpdateRequestDTO();
+        request.setFilter(filter);
+
+        List<TaskScopeDTO> scopes = taskRepository.findBulkUpdateScopes(request);
+
+        // Three tasks, one distinct pair
+        assertEquals(List.of(new TaskScopeDTO(team.getId(), null)), scopes);
+    }
+}
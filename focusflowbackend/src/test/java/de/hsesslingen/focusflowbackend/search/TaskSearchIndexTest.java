@@ -0,0 +1,87 @@
+package de.hsesslingen.focusflowbackend.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new TaskSearchIndex();
+        index.upsert(new TaskDocument(1L, "Prepare release notes", "Collect changes for the release", null));
+        index.upsert(new TaskDocument(2L, "Fix login bug", "Users cannot log in after the release", "Happens with long passwords"));
+        index.upsert(new TaskDocument(3L, "Team meeting", "Weekly sync", null));
+    }
+
+    private List<Long> ids(List<TaskSearchIndex.Hit> hits) {
+        return hits.stream().map(TaskSearchIndex.Hit::taskId).toList();
+    }
+
+    @Test
+    public void testSearch_TitleMatchRanksFirst() {
+        List<TaskSearchIndex.Hit> hits = index.search("release", 10);
+
+        assertEquals(List.of(1L, 2L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    public void testSearch_IsCaseInsensitiveAndCombinesTerms() {
+        assertEquals(List.of(2L, 1L), ids(index.search("LOGIN Release", 10)));
+    }
+
+    @Test
+    public void testSearch_RespectsLimit() {
+        assertEquals(List.of(1L), ids(index.search("release", 1)));
+    }
+
+    @Test
+    public void testSearch_UnknownTermOrBlankQuery() {
+        assertTrue(index.search("deploy", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void testUpsert_ReplacesPreviousText() {
+        index.upsert(new TaskDocument(3L, "Release party", null, null));
+
+        assertTrue(index.search("meeting", 10).isEmpty());
+        assertTrue(ids(index.search("party", 10)).contains(3L));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testRemove() {
+        index.remove(1L);
+
+        assertEquals(List.of(2L), ids(index.search("release", 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testSnapshot_RoundTrip() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+
+        TaskSearchIndex restored = TaskSearchIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(3, restored.size());
+        assertEquals(3L, restored.maxTaskId());
+        assertEquals(index.search("release login", 10), restored.search("release login", 10));
+    }
+
+    @Test
+    public void testTokenize() {
+        assertEquals(List.of("fix", "the", "api", "v2"), TaskSearchIndex.tokenize("Fix the API-v2 (a)!"));
+    }
+}
@@ -0,0 +1,123 @@
+package de.hsesslingen.focusflowbackend.search;
+
+import de.hsesslingen.focusflowbackend.dto.TaskSearchHitDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path indexDir;
+
+    private TaskSearchService newService() {
+        TaskSearchService service = new TaskSearchService(taskRepository, transactionManager);
+        ReflectionTestUtils.setField(service, "indexDir", indexDir);
+        return service;
+    }
+
+    @Test
+    public void testFailedLoadCanBeRetried() {
+        when(taskRepository.streamSearchDocuments())
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(Stream.of(new TaskDocument(1L, "Write report", null, null)));
+        TaskSearchService service = newService();
+
+        assertFalse(service.loadIndex());
+        assertFalse(service.isReady());
+
+        assertTrue(service.loadIndex());
+        assertTrue(service.isReady());
+    }
+
+    @Test
+    public void testFilteredSearchLooksBeyondTheFirstCandidates() {
+        // 3000 matches; the team's tasks have the longest text and rank last, behind the first 1000 candidates
+        when(taskRepository.streamSearchDocuments()).thenReturn(LongStream.rangeClosed(1, 3000)
+                .mapToObj(id -> new TaskDocument(id, "Write report", id > 2990 ? "for the quarterly review meeting" : null, null)));
+        when(taskRepository.findViewsByIdIn(anyCollection(), eq(5L), isNull())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id > 2990)
+                    .map(id -> new TaskViewDTO(id, "Write report", null, null, null, null, TaskStatus.OPEN,
+                            1L, null, 5L, 0L, null, id, false))
+                    .toList();
+        });
+        TaskSearchService service = newService();
+        service.loadIndex();
+
+        List<TaskSearchHitDTO> hits = service.search("report", 5L, null, 5);
+
+        assertEquals(List.of(2991L, 2992L, 2993L, 2994L, 2995L), hits.stream().map(hit -> hit.getTask().getId()).toList());
+    }
+
+    @Test
+    public void testFilteredSearchStopsWhenTheMatchesRunOut() {
+        when(taskRepository.streamSearchDocuments()).thenReturn(Stream.of(
+                new TaskDocument(1L, "Write report", null, null), new TaskDocument(2L, "Plan sprint", null, null)));
+        when(taskRepository.findViewsByIdIn(anyCollection(), eq(5L), isNull())).thenReturn(List.of());
+        TaskSearchService service = newService();
+        service.loadIndex();
+
+        assertTrue(service.search("report", 5L, null, 5).isEmpty());
+        verify(taskRepository, times(1)).findViewsByIdIn(anyCollection(), eq(5L), isNull());
+    }
+
+    @Test
+    public void testSnapshotIsUsedWhileNoTaskChanged() {
+        when(taskRepository.streamSearchDocuments()).thenReturn(Stream.of(new TaskDocument(1L, "Write report", null, null)));
+        when(taskRepository.findMaxChangeSeq()).thenReturn(7L);
+        when(taskRepository.count()).thenReturn(1L);
+        TaskSearchService first = newService();
+        first.loadIndex();
+        first.writeSnapshot();
+
+        TaskSearchService second = newService();
+        assertTrue(second.loadIndex());
+
+        // Built once from the database, then restored from the snapshot
+        verify(taskRepository, times(1)).streamSearchDocuments();
+    }
+
+    @Test
+    public void testSnapshotIsRebuiltAfterAnEditWithTheSameCount() {
+        when(taskRepository.streamSearchDocuments())
+                .thenReturn(Stream.of(new TaskDocument(1L, "Write report", null, null)))
+                .thenReturn(Stream.of(new TaskDocument(1L, "Write summary", null, null)));
+        when(taskRepository.findMaxChangeSeq()).thenReturn(7L, 8L);
+        when(taskRepository.count()).thenReturn(1L);
+        TaskSearchService first = newService();
+        first.loadIndex();
+        first.writeSnapshot();
+
+        // Same number of tasks and the same highest ID, but the title was edited elsewhere
+        TaskSearchService second = newService();
+        assertTrue(second.loadIndex());
+
+        verify(taskRepository, times(2)).streamSearchDocuments();
+    }
+}
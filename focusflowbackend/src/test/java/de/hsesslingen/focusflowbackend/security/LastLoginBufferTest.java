@@ -0,0 +1,103 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({LastLoginBuffer.class, SimpleMeterRegistry.class})
+class LastLoginBufferTest {
+
+    @Autowired
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User alice;
+    private User bob;
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole("USER");
+        return userRepository.saveAndFlush(user);
+    }
+
+    private LocalDateTime lastLogin(User user) {
+        entityManager.clear();
+        return userRepository.findLastLogin(user.getId()).orElse(null);
+    }
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice@example.com");
+        bob = user("bob@example.com");
+        entityManager.clear();
+    }
+
+    @Test
+    void testLoginsAreWrittenOnFlushOnly() {
+        LocalDateTime loginTime = LocalDateTime.of(2025, 5, 1, 9, 30);
+        lastLoginBuffer.record(alice.getId(), loginTime);
+
+        assertNull(lastLogin(alice));
+        assertEquals(1, lastLoginBuffer.flush());
+        assertEquals(loginTime, lastLogin(alice));
+        assertNull(lastLogin(bob));
+        // Nothing left to write
+        assertEquals(0, lastLoginBuffer.flush());
+    }
+
+    @Test
+    void testRepeatedLoginsAreCoalescedToTheLatest() {
+        LocalDateTime first = LocalDateTime.of(2025, 5, 1, 9, 30);
+        LocalDateTime second = first.plusMinutes(5);
+        lastLoginBuffer.record(alice.getId(), second);
+        lastLoginBuffer.record(alice.getId(), first);
+        lastLoginBuffer.record(bob.getId(), first);
+
+        assertEquals(2, lastLoginBuffer.flush());
+        assertEquals(second, lastLogin(alice));
+        assertEquals(first, lastLogin(bob));
+    }
+
+    @Test
+    void testOlderTimestampNeverOverwritesANewerOne() {
+        LocalDateTime newer = LocalDateTime.of(2025, 5, 1, 9, 30);
+        lastLoginBuffer.record(alice.getId(), newer);
+        lastLoginBuffer.flush();
+
+        lastLoginBuffer.record(alice.getId(), newer.minusHours(1));
+        lastLoginBuffer.flush();
+
+        assertEquals(newer, lastLogin(alice));
+    }
+
+    @Test
+    void testSavingTheUserDoesNotTouchLastLogin() {
+        LocalDateTime loginTime = LocalDateTime.of(2025, 5, 1, 9, 30);
+        lastLoginBuffer.record(alice.getId(), loginTime);
+        lastLoginBuffer.flush();
+
+        User stale = alice;
+        stale.setFirstName("Alice");
+        userRepository.saveAndFlush(stale);
+
+        assertEquals(loginTime, lastLogin(alice));
+    }
+}
@@ -0,0 +1,97 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private PasswordHashingService service;
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+        service.shutdown();
+    }
+
+    @Test
+    public void testEncodeAndMatchOnThePool() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), meterRegistry, 2, 4, Duration.ofSeconds(5));
+
+        String hash = service.encode("Password123!");
+
+        assertTrue(service.matches("Password123!", hash));
+        assertFalse(service.matches("Password124!", hash));
+        assertEquals(1, meterRegistry.get("focusflow.password_hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("focusflow.password_hashing.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    public void testSaturatedPoolRejectsRightAway() throws Exception {
+        // One thread, held by a slow hash, and room for one more request in the queue
+        CountDownLatch release = new CountDownLatch(1);
+        BCryptPasswordEncoder slowEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        service = new PasswordHashingService(slowEncoder, meterRegistry, 1, 1, Duration.ofSeconds(5));
+
+        Future<Boolean> running = callers.submit(() -> service.matches("a", "b"));
+        awaitGauge("focusflow.password_hashing.active", 1);
+        Future<Boolean> queued = callers.submit(() -> service.matches("a", "b"));
+        awaitGauge("focusflow.password_hashing.queue.depth", 1);
+
+        assertThrows(PasswordHashingRejectedException.class, () -> service.matches("a", "b"));
+        assertEquals(1, meterRegistry.get("focusflow.password_hashing.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get());
+        assertTrue(queued.get());
+    }
+
+    @Test
+    public void testRequestWaitingLongerThanMaxWaitIsRejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BCryptPasswordEncoder slowEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+        };
+        service = new PasswordHashingService(slowEncoder, meterRegistry, 1, 4, Duration.ofMillis(50));
+
+        assertThrows(PasswordHashingRejectedException.class, () -> service.encode("Password123!"));
+        release.countDown();
+    }
+
+    private void awaitGauge(String name, double value) throws InterruptedException {
+        for (int i = 0; i < 200 && meterRegistry.get(name).gauge().value() != value; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(value, meterRegistry.get(name).gauge().value());
+    }
+}
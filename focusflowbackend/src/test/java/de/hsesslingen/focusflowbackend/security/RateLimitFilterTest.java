@@ -0,0 +1,83 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitProperties.Route login = new RateLimitProperties.Route();
+        login.setPath("/api/user/login");
+        login.setMethods(Set.of("POST"));
+        login.setCapacity(2);
+        login.setRefillPerSecond(0.01);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoutes().put("login", login);
+        filter = new RateLimitFilter(properties, meterRegistry);
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String remoteAddr, SessionPrincipal principal) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        if (principal != null) {
+            request.setAttribute(SessionPrincipal.ATTRIBUTE, principal);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    public void testLimitedRouteAnswers429WithRetryAfter() throws Exception {
+        assertEquals(200, send("POST", "/api/user/login", "10.0.0.1", null).getStatus());
+        assertEquals(200, send("POST", "/api/user/login", "10.0.0.1", null).getStatus());
+
+        MockHttpServletResponse refused = send("POST", "/api/user/login", "10.0.0.1", null);
+        assertEquals(429, refused.getStatus());
+        assertEquals("100", refused.getHeader("Retry-After"));
+        assertEquals(1, meterRegistry.get("focusflow.rate_limit.rejected").tag("route", "login").counter().count());
+
+        // Another address has its own bucket
+        assertEquals(200, send("POST", "/api/user/login", "10.0.0.2", null).getStatus());
+    }
+
+    @Test
+    public void testOtherMethodsAndPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send("GET", "/api/user/login", "10.0.0.1", null).getStatus());
+            assertEquals(200, send("POST", "/api/tasks", "10.0.0.1", null).getStatus());
+        }
+    }
+
+    @Test
+    public void testSessionUserIsLimitedAcrossAddresses() throws Exception {
+        SessionPrincipal principal = new SessionPrincipal("t1", 42L, "USER", Set.of(), Instant.now(), Instant.now().plusSeconds(60));
+
+        assertEquals(200, send("POST", "/api/user/login", "10.0.0.1", principal).getStatus());
+        assertEquals(200, send("POST", "/api/user/login", "10.0.0.2", principal).getStatus());
+        assertEquals(429, send("POST", "/api/user/login", "10.0.0.3", principal).getStatus());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(false);
+        filter = new RateLimitFilter(properties, meterRegistry);
+
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/user/login")));
+    }
+}
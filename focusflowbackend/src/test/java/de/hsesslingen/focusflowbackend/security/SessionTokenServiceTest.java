@@ -0,0 +1,110 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipIndex;
+import de.hsesslingen.focusflowbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    @Mock
+    private TeamMembershipIndex membershipIndex;
+
+    private final SessionRevocationList revocationList = new SessionRevocationList();
+    private SessionTokenService service;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        service = new SessionTokenService(membershipIndex, revocationList, SECRET, Duration.ofHours(1));
+        user = new User();
+        user.setId(42L);
+        user.setRole("ADMIN");
+    }
+
+    @Test
+    public void testIssuedTokenVerifies() {
+        when(membershipIndex.getTeamIds(42L)).thenReturn(new long[] {3L, 7L});
+
+        SessionPrincipal principal = service.verify(service.issue(user)).orElseThrow();
+
+        assertEquals(42L, principal.userId());
+        assertEquals("ADMIN", principal.role());
+        assertEquals(Set.of(3L, 7L), principal.teamIds());
+        assertTrue(principal.expiresAt().isAfter(principal.issuedAt()));
+    }
+
+    @Test
+    public void testUserWithoutTeams() {
+        when(membershipIndex.getTeamIds(42L)).thenReturn(new long[0]);
+
+        assertEquals(Set.of(), service.verify(service.issue(user)).orElseThrow().teamIds());
+    }
+
+    @Test
+    public void testTamperedTokenIsRejected() {
+        when(membershipIndex.getTeamIds(42L)).thenReturn(new long[0]);
+        String token = service.issue(user);
+        String payload = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(payload.replace("|ADMIN", "|ROOT").getBytes())
+                + token.substring(token.indexOf('.'));
+
+        assertTrue(service.verify(forged).isEmpty());
+        assertTrue(service.verify("not-a-token").isEmpty());
+        assertTrue(service.verify(token + "x").isEmpty());
+    }
+
+    @Test
+    public void testTokenOfAnotherKeyIsRejected() {
+        when(membershipIndex.getTeamIds(42L)).thenReturn(new long[0]);
+        SessionTokenService otherKey = new SessionTokenService(membershipIndex, revocationList, "", Duration.ofHours(1));
+
+        assertTrue(service.verify(otherKey.issue(user)).isEmpty());
+    }
+
+    @Test
+    public void testExpiredTokenIsRejected() {
+        when(membershipIndex.getTeamIds(42L)).thenReturn(new long[0]);
+        SessionTokenService expired = new SessionTokenService(membershipIndex, revocationList, SECRET, Duration.ofMillis(-1));
+
+        assertTrue(service.verify(expired.issue(user)).isEmpty());
+    }
+
+    @Test
+    public void testRevokedTokens() throws InterruptedException {
+        when(membershipIndex.getTeamIds(42L)).thenReturn(new long[0]);
+        String first = service.issue(user);
+        String second = service.issue(user);
+
+        // Logout ends one session only
+        service.revoke(service.verify(first).orElseThrow());
+        assertTrue(service.verify(first).isEmpty());
+        assertTrue(service.verify(second).isPresent());
+
+        // A role change ends all sessions issued so far, but not the next login
+        service.revokeAll(42L);
+        Thread.sleep(2);
+        assertTrue(service.verify(second).isEmpty());
+        assertTrue(service.verify(service.issue(user)).isPresent());
+    }
+
+    @Test
+    public void testShortSecretIsRefused() {
+        String shortSecret = Base64.getEncoder().encodeToString("too short".getBytes());
+        assertThrows(IllegalStateException.class,
+                () -> new SessionTokenService(membershipIndex, revocationList, shortSecret, Duration.ofHours(1)));
+    }
+}
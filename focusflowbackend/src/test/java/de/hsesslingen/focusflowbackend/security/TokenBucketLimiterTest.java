@@ -0,0 +1,98 @@
+package de.hsesslingen.focusflowbackend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurstUpToCapacityThenRefill() {
+        // 3 requests at once, then one every 500 ms
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 3, 2, 100);
+        long now = 1_000 * SECOND;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1", now));
+        }
+        long wait = limiter.tryAcquire("10.0.0.1", now);
+        assertEquals(SECOND / 2, wait);
+
+        // Refused requests take no token
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", now + wait));
+        assertTrue(limiter.tryAcquire("10.0.0.1", now + wait) > 0);
+    }
+
+    @Test
+    public void testClientsHaveTheirOwnBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1, 1, 100);
+
+        assertEquals(0, limiter.tryAcquire(7L, 0));
+        assertTrue(limiter.tryAcquire(7L, 0) > 0);
+        assertEquals(0, limiter.tryAcquire(8L, 0));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 0));
+    }
+
+    @Test
+    public void testSweepDropsFullBucketsOnly() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 2, 1, 100);
+        limiter.tryAcquire("a", 0);
+        limiter.tryAcquire("b", 0);
+        limiter.tryAcquire("b", 0);
+        assertEquals(2, limiter.size());
+
+        // "a" is full again after 1 s, "b" after 2 s
+        limiter.sweep(SECOND);
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.tryAcquire("b", SECOND) == 0 && limiter.tryAcquire("b", SECOND) > 0);
+    }
+
+    @Test
+    public void testClientsBeyondTheLimitShareOneBucket() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1, 1, 1);
+        limiter.tryAcquire("a", 0);
+
+        assertEquals(0, limiter.tryAcquire("b", 0));
+        assertTrue(limiter.tryAcquire("c", 0) > 0);
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    public void testConcurrentRequestsNeverExceedCapacity() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1000, 0.001, 100);
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                results.add(threads.submit(() -> {
+                    int granted = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (limiter.tryAcquire("shared", 0) == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get();
+            }
+            assertEquals(1000, granted);
+        }
+    }
+
+    @Test
+    public void testInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter("test", 0, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter("test", 1, 0, 100));
+    }
+}
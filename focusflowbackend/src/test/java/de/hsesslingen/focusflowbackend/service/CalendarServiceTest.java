@@ -0,0 +1,163 @@
+package de.hsesslingen.focusflowbackend.service;
+
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.event.TasksBulkUpdatedEvent;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CalendarService calendarService;
+
+    private TaskViewDTO task(long id, String title, LocalDateTime dueDate, TaskStatus status) {
+        return new TaskViewDTO(id, title, null, null, dueDate, TaskPriority.HIGH, status, 1L, 7L, null, 0L, null, null, false);
+    }
+
+    @Test
+    public void testRangeRequiresExactlyOneScope() {
+        LocalDate day = LocalDate.of(2030, 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> calendarService.getTasksDue(null, null, day, day));
+        assertThrows(IllegalArgumentException.class, () -> calendarService.getTasksDue(1L, 2L, day, day));
+    }
+
+    @Test
+    public void testRangeMustBeOrderedAndBounded() {
+        LocalDate day = LocalDate.of(2030, 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> calendarService.getDailyCounts(1L, null, day, day.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> calendarService.getDailyCounts(1L, null, day, day.plusDays(400)));
+    }
+
+    @Test
+    public void testRangeEndIsInclusive() {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 7);
+
+        calendarService.getTasksDue(1L, null, from, to);
+
+        verify(taskRepository).findViewsDueForAssignee(1L, from.atStartOfDay(), LocalDate.of(2030, 1, 8).atStartOfDay());
+    }
+
+    @Test
+    public void testFeedIsCachedUntilATaskOfTheUserChanges() {
+        when(userRepository.existsById(7L)).thenReturn(true);
+        when(taskRepository.findViewsByAssigneeId(7L)).thenReturn(
+                List.of(task(1L, "Write report", LocalDateTime.of(2030, 1, 1, 0, 0), TaskStatus.OPEN)));
+
+        CalendarService.CalendarFeed first = calendarService.getFeed(7L);
+        CalendarService.CalendarFeed second = calendarService.getFeed(7L);
+        assertSame(first, second);
+        verify(taskRepository, times(1)).findViewsByAssigneeId(7L);
+
+        TaskSnapshot changed = new TaskSnapshot(1L, 7L, null, TaskStatus.CLOSED, TaskPriority.HIGH, null, null);
+        calendarService.onTaskChanged(TaskChangedEvent.updated(changed, changed));
+        calendarService.getFeed(7L);
+        verify(taskRepository, times(2)).findViewsByAssigneeId(7L);
+    }
+
+    @Test
+    public void testFeedRenderedDuringAChangeIsNotCached() {
+        when(userRepository.existsById(7L)).thenReturn(true);
+        TaskSnapshot changed = new TaskSnapshot(1L, 7L, null, TaskStatus.CLOSED, TaskPriority.HIGH, null, null);
+        when(taskRepository.findViewsByAssigneeId(7L)).thenAnswer(invocation -> {
+            // A task of the user is committed while the feed is being rendered
+            calendarService.onTaskChanged(TaskChangedEvent.updated(changed, changed));
+            return List.of();
+        });
+
+        calendarService.getFeed(7L);
+        calendarService.getFeed(7L);
+        verify(taskRepository, times(2)).findViewsByAssigneeId(7L);
+    }
+
+    @Test
+    public void testBulkUpdateDropsOnlyTheFeedsOfItsAssignees() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(taskRepository.findViewsByAssigneeId(anyLong())).thenReturn(List.of());
+        calendarService.getFeed(7L);
+        calendarService.getFeed(8L);
+
+        calendarService.onTasksBulkUpdated(new TasksBulkUpdatedEvent(3, Set.of(5L), Set.of(7L)));
+        calendarService.getFeed(7L);
+        calendarService.getFeed(8L);
+
+        verify(taskRepository, times(2)).findViewsByAssigneeId(7L);
+        verify(taskRepository, times(1)).findViewsByAssigneeId(8L);
+    }
+
+    @Test
+    public void testFeedForUnknownUser() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+        assertThrows(NoSuchElementException.class, () -> calendarService.getFeed(99L));
+    }
+
+    @Test
+    public void testRenderFeed() {
+        String ics = CalendarService.renderFeed(List.of(
+                task(1L, "Plan; review, ship", LocalDateTime.of(2030, 1, 1, 0, 0), TaskStatus.OPEN),
+                task(2L, "Meeting", LocalDateTime.of(2030, 1, 2, 9, 30), TaskStatus.PENDING),
+                task(3L, "Done already", LocalDateTime.of(2030, 1, 3, 0, 0), TaskStatus.CLOSED)));
+
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(ics.contains("UID:task-1@focusflow\r\nDTSTAMP:"));
+        assertTrue(ics.contains("DTSTART;VALUE=DATE:20300101\r\n"));
+        assertTrue(ics.contains("SUMMARY:Plan\\; review\\, ship\r\n"));
+        assertTrue(ics.contains("DTSTART:20300102T093000\r\n"));
+        assertFalse(ics.contains("Done already"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+    }
+
+    @Test
+    public void testRenderFeedIsStableForUnchangedTasks() {
+        TaskViewDTO task = task(1L, "Meeting", LocalDateTime.of(2030, 1, 2, 9, 30), TaskStatus.OPEN);
+        LocalDateTime updatedAt = LocalDateTime.of(2029, 6, 1, 12, 0);
+        task.setUpdatedAt(updatedAt);
+
+        String ics = CalendarService.renderFeed(List.of(task));
+
+        // Same tasks, same body, so the ETag stays valid across renders
+        assertEquals(ics, CalendarService.renderFeed(List.of(task)));
+        String expected = updatedAt.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC)
+                .toLocalDateTime().format(DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss")) + "Z";
+        assertTrue(ics.contains("DTSTAMP:" + expected + "\r\n"));
+    }
+
+    @Test
+    public void testRenderFeedFoldsLongLines() {
+        String ics = CalendarService.renderFeed(List.of(
+                task(1L, "x".repeat(200), LocalDateTime.of(2030, 1, 1, 0, 0), TaskStatus.OPEN)));
+
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.length() <= 75, line);
+        }
+        assertTrue(ics.replace("\r\n ", "").contains("SUMMARY:" + "x".repeat(200)));
+    }
+}
@@ -0,0 +1,176 @@
+package de.hsesslingen.focusflowbackend.service;
+
+import de.hsesslingen.focusflowbackend.dto.TaskChangeRefDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskCountRowDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskCountsDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.event.TaskSnapshot;
+import de.hsesslingen.focusflowbackend.event.TasksBulkUpdatedEvent;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.repository.TaskTombstoneRepository;
+import de.hsesslingen.focusflowbackend.sync.TaskChangeSequence;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskCounterServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TaskChangeSequence changeSequence;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @InjectMocks
+    private TaskCounterService taskCounterService;
+
+    private TaskSnapshot task(long id, Long assigneeId, Long teamId, TaskStatus status, TaskPriority priority) {
+        return new TaskSnapshot(id, assigneeId, teamId, status, priority, null, null);
+    }
+
+    @Test
+    public void testCreateUpdateDeleteAdjustCounts() {
+        TaskSnapshot created = task(1L, 7L, 3L, TaskStatus.OPEN, TaskPriority.HIGH);
+        taskCounterService.onTaskChanged(TaskChangedEvent.created(created));
+        taskCounterService.onTaskChanged(TaskChangedEvent.created(task(2L, 8L, 3L, TaskStatus.OPEN, null)));
+
+        TaskCountsDTO team = taskCounterService.getTeamCounts(3L);
+        assertEquals(2, team.getTotal());
+        assertEquals(2L, team.getByStatus().get(TaskStatus.OPEN));
+        assertEquals(1L, team.getByStatusAndPriority().get(TaskStatus.OPEN).get("HIGH"));
+        assertEquals(1L, team.getByStatusAndPriority().get(TaskStatus.OPEN).get(TaskCounterService.NO_PRIORITY));
+
+        // Closing the task and handing it to another assignee moves it between cells
+        TaskSnapshot closed = task(1L, 8L, 3L, TaskStatus.CLOSED, TaskPriority.HIGH);
+        taskCounterService.onTaskChanged(TaskChangedEvent.updated(created, closed));
+        assertEquals(0, taskCounterService.getAssigneeCounts(7L).getTotal());
+        assertEquals(2, taskCounterService.getAssigneeCounts(8L).getTotal());
+        assertEquals(1L, taskCounterService.getTeamCounts(3L).getByStatus().get(TaskStatus.CLOSED));
+
+        taskCounterService.onTaskChanged(TaskChangedEvent.deleted(closed));
+        assertEquals(1, taskCounterService.getTeamCounts(3L).getTotal());
+    }
+
+    @Test
+    public void testUnknownOwnerHasZeroCounts() {
+        TaskCountsDTO counts = taskCounterService.getTeamCounts(42L);
+
+        assertEquals(0, counts.getTotal());
+        assertEquals(TaskStatus.values().length, counts.getByStatus().size());
+        assertEquals(0L, counts.getByStatusAndPriority().get(TaskStatus.IN_REVIEW).get("LOW"));
+    }
+
+    @Test
+    public void testReconcileReplacesDriftedCounts() {
+        taskCounterService.onTaskChanged(TaskChangedEvent.created(task(1L, 7L, 3L, TaskStatus.OPEN, TaskPriority.LOW)));
+        when(taskRepository.countByTeamAssigneeStatusAndPriority()).thenReturn(List.of(
+                new TaskCountRowDTO(3L, 7L, TaskStatus.PENDING, TaskPriority.LOW, 4L),
+                new TaskCountRowDTO(3L, null, TaskStatus.PENDING, TaskPriority.LOW, 1L),
+                new TaskCountRowDTO(null, 7L, TaskStatus.OPEN, null, 2L)));
+
+        taskCounterService.reconcile();
+
+        TaskCountsDTO team = taskCounterService.getTeamCounts(3L);
+        assertEquals(5, team.getTotal());
+        assertEquals(0L, team.getByStatus().get(TaskStatus.OPEN));
+        TaskCountsDTO assignee = taskCounterService.getAssigneeCounts(7L);
+        assertEquals(6, assignee.getTotal());
+        assertEquals(2L, assignee.getByStatusAndPriority().get(TaskStatus.OPEN).get(TaskCounterService.NO_PRIORITY));
+    }
+
+    @Test
+    public void testReconcileReplaysOnlyChangesTheScanCannotSee() {
+        when(changeSequence.watermark()).thenReturn(10L);
+        when(taskRepository.countByTeamAssigneeStatusAndPriority()).thenAnswer(invocation -> {
+            // Committed before the scan (below the watermark), but its listener runs only now: the scan counts it
+            taskCounterService.onTaskChanged(TaskChangedEvent.created(
+                    task(1L, null, 3L, TaskStatus.OPEN, TaskPriority.LOW).withChangeSeq(5L)));
+            // Still in flight when the watermark was taken: the scan does not see it
+            taskCounterService.onTaskChanged(TaskChangedEvent.created(
+                    task(2L, null, 3L, TaskStatus.OPEN, TaskPriority.LOW).withChangeSeq(12L)));
+            return List.of(new TaskCountRowDTO(3L, null, TaskStatus.OPEN, TaskPriority.LOW, 1L));
+        });
+
+        taskCounterService.reconcile();
+
+        assertEquals(2, taskCounterService.getTeamCounts(3L).getTotal());
+    }
+
+    @Test
+    public void testChangeCommittedBetweenWatermarkAndScanIsNotCountedTwice() {
+        when(changeSequence.watermark()).thenReturn(10L);
+        when(taskRepository.countByTeamAssigneeStatusAndPriority()).thenAnswer(invocation -> {
+            // Change 12 committed after the watermark was taken but before the scan read the table: the scan counts it,
+            // and its listener runs while the scan is still going
+            taskCounterService.onTaskChanged(TaskChangedEvent.created(
+                    task(2L, null, 3L, TaskStatus.OPEN, TaskPriority.LOW).withChangeSeq(12L)));
+            // Change 13 commits after the scan read the table
+            taskCounterService.onTaskChanged(TaskChangedEvent.created(
+                    task(3L, null, 3L, TaskStatus.OPEN, TaskPriority.LOW).withChangeSeq(13L)));
+            return List.of(new TaskCountRowDTO(3L, null, TaskStatus.OPEN, TaskPriority.LOW, 2L));
+        });
+        when(taskRepository.findChangesFrom(10L)).thenReturn(List.of(new TaskChangeRefDTO(2L, 12L)));
+
+        taskCounterService.reconcile();
+
+        assertEquals(3, taskCounterService.getTeamCounts(3L).getTotal());
+    }
+
+    @Test
+    public void testChangeWithoutNumberDuringReconcileCountsAgain() {
+        when(taskRepository.countByTeamAssigneeStatusAndPriority())
+                .thenAnswer(invocation -> {
+                    taskCounterService.onTaskChanged(TaskChangedEvent.created(task(1L, null, 3L, TaskStatus.OPEN, null)));
+                    return List.of(new TaskCountRowDTO(3L, null, TaskStatus.OPEN, null, 1L));
+                })
+                .thenReturn(List.of(new TaskCountRowDTO(3L, null, TaskStatus.OPEN, null, 1L)));
+
+        taskCounterService.reconcile();
+
+        verify(taskRepository, times(2)).countByTeamAssigneeStatusAndPriority();
+        assertEquals(1, taskCounterService.getTeamCounts(3L).getTotal());
+    }
+
+    @Test
+    public void testBulkUpdatesAreCountedAgainOnceOnTheScheduler() {
+        ArgumentCaptor<Runnable> rebuild = ArgumentCaptor.forClass(Runnable.class);
+
+        taskCounterService.onTasksBulkUpdated(new TasksBulkUpdatedEvent(5, Set.of(), Set.of()));
+        taskCounterService.onTasksBulkUpdated(new TasksBulkUpdatedEvent(7, Set.of(), Set.of()));
+
+        verify(taskScheduler, times(1)).schedule(rebuild.capture(), any(Instant.class));
+        verifyNoInteractions(taskRepository);
+
+        rebuild.getValue().run();
+        verify(taskRepository).countByTeamAssigneeStatusAndPriority();
+
+        // The next bulk update after the rebuild started is counted by a new one
+        taskCounterService.onTasksBulkUpdated(new TasksBulkUpdatedEvent(1, Set.of(), Set.of()));
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+}
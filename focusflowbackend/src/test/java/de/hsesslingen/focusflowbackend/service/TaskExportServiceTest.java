@@ -0,0 +1,74 @@
+package de.hsesslingen.focusflowbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskPriority;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskExportService taskExportService;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        taskExportService = new TaskExportService(taskRepository, objectMapper);
+    }
+
+    private Stream<TaskViewDTO> twoTasks() {
+        return Stream.of(
+            new TaskViewDTO(1L, "Plain", null, null, LocalDateTime.of(2030, 1, 1, 0, 0),
+                    TaskPriority.HIGH, TaskStatus.OPEN, 7L, null, null, 0L, null, null, false),
+            new TaskViewDTO(2L, "Comma, \"quoted\"", "line\nbreak", null, null,
+                    null, TaskStatus.CLOSED, 7L, 8L, 9L, 3L, null, null, false));
+    }
+
+    @Test
+    public void testExportNdjsonWritesOneObjectPerLine() throws Exception {
+        when(taskRepository.streamAllViews()).thenReturn(twoTasks());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = taskExportService.exportTasks(TaskExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[0].contains("\"dueDate\":\"2030-01-01T00:00:00\""));
+    }
+
+    @Test
+    public void testExportCsvQuotesSpecialCharacters() throws Exception {
+        when(taskRepository.streamAllViews()).thenReturn(twoTasks());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskExportService.exportTasks(TaskExportService.Format.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,title,description,"));
+        assertTrue(csv.contains("1,Plain,,,2030-01-01T00:00:00,HIGH,OPEN,7,,\n"));
+        assertTrue(csv.contains("2,\"Comma, \"\"quoted\"\"\",\"line\nbreak\",,,,CLOSED,7,8,9\n"));
+    }
+}
@@ -0,0 +1,128 @@
+package de.hsesslingen.focusflowbackend.service;
+
+import de.hsesslingen.focusflowbackend.dto.TaskCreationRequestDTO;
+import de.hsesslingen.focusflowbackend.dto.TeamMembershipDTO;
+import de.hsesslingen.focusflowbackend.event.TaskChangedEvent;
+import de.hsesslingen.focusflowbackend.model.User;
+import de.hsesslingen.focusflowbackend.model.tasks.Task;
+import de.hsesslingen.focusflowbackend.notification.NotificationOutboxService;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.repository.TeamRepository;
+import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private NotificationOutboxService notificationOutbox;
+
+    @InjectMocks
+    private TaskService taskService;
+
+    private User creator;
+    private User assignee;
+
+    @BeforeEach
+    public void setUp() {
+        creator = new User();
+        creator.setId(1L);
+        creator.setEmail("creator@example.com");
+
+        assignee = new User();
+        assignee.setId(2L);
+        assignee.setEmail("assignee@example.com");
+    }
+
+    private TaskCreationRequestDTO request(String title, String assigneeEmail) {
+        TaskCreationRequestDTO dto = new TaskCreationRequestDTO();
+        dto.setTitle(title);
+        dto.setDueDate(LocalDate.now().plusDays(3));
+        dto.setCreatorId(creator.getId());
+        dto.setAssigneeEmail(assigneeEmail);
+        return dto;
+    }
+
+    @Test
+    public void testCreateTasksResolvesReferencesOnce() {
+        List<TaskCreationRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(request("Bulk task " + i, assignee.getEmail()));
+        }
+        when(userRepository.findAllById(anySet())).thenReturn(List.of(creator));
+        when(userRepository.findByEmailIn(anySet())).thenReturn(List.of(assignee));
+        when(teamRepository.findMembershipsByUserIds(anySet())).thenReturn(List.of(
+                new TeamMembershipDTO(5L, creator.getId()), new TeamMembershipDTO(5L, assignee.getId())));
+        AtomicLong nextId = new AtomicLong(100);
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            tasks.forEach(task -> task.setId(nextId.getAndIncrement()));
+            return tasks;
+        });
+
+        List<Long> ids = taskService.createTasks(requests);
+
+        assertEquals(20, ids.size());
+        verify(userRepository, times(1)).findAllById(anySet());
+        verify(userRepository, times(1)).findByEmailIn(anySet());
+        verify(teamRepository, times(1)).findMembershipsByUserIds(anySet());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(entityManager, atLeastOnce()).flush();
+        verify(eventPublisher, times(20)).publishEvent(any(TaskChangedEvent.class));
+        verify(notificationOutbox, times(20)).enqueueTaskAssigned(any(Task.class));
+    }
+
+    @Test
+    public void testCreateTasksRejectsAssigneeOutsideTeams() {
+        when(userRepository.findAllById(anySet())).thenReturn(List.of(creator));
+        when(userRepository.findByEmailIn(anySet())).thenReturn(List.of(assignee));
+        when(teamRepository.findMembershipsByUserIds(anySet())).thenReturn(List.of(
+                new TeamMembershipDTO(5L, creator.getId()), new TeamMembershipDTO(6L, assignee.getId())));
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+            () -> taskService.createTasks(List.of(request("Foreign task", assignee.getEmail()))));
+
+        assertEquals("Task #0: Cannot assign task to a user outside your team", thrown.getMessage());
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testCreateTasksValidatesBeforeLookups() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+            () -> taskService.createTasks(List.of(request("Valid title", null), request("ab", null))));
+
+        assertEquals("Task #1: Task title must be at least 3 characters long", thrown.getMessage());
+        verifyNoInteractions(userRepository, teamRepository, taskRepository);
+    }
+}
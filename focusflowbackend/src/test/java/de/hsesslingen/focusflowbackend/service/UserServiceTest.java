@@ -1,19 +1,28 @@
 package de.hsesslingen.focusflowbackend.service;
 
+import de.hsesslingen.focusflowbackend.event.TeamChangedEvent;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipIndex;
+import de.hsesslingen.focusflowbackend.membership.TeamMembershipRepository;
 import de.hsesslingen.focusflowbackend.model.Team;
 import de.hsesslingen.focusflowbackend.model.User;
-import de.hsesslingen.focusflowbackend.repository.TeamRepository;
 import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import de.hsesslingen.focusflowbackend.security.LastLoginBuffer;
+import de.hsesslingen.focusflowbackend.security.PasswordHashingService;
+import de.hsesslingen.focusflowbackend.security.SessionTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.HashSet;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,10 +34,22 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private TeamRepository teamRepository;
+    private PasswordHashingService passwordHashing;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Mock
+    private TeamMembershipIndex membershipIndex;
+
+    @Mock
+    private TeamMembershipRepository membershipRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SessionTokenService sessionTokenService;
 
     @InjectMocks
     private UserService userService;
@@ -58,42 +79,65 @@ class UserServiceTest {
     @Test
     public void testAddUserToTeam() {
         // Arrange
-        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser)); 
-        when(teamRepository.findById(testTeam.getId())).thenReturn(Optional.of(testTeam));
-
-        // Mock the save operation for the user
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.existsById(testUser.getId())).thenReturn(true);
+        when(membershipRepository.lockTeam(testTeam.getId())).thenReturn(true);
+        when(membershipRepository.addMembers(testTeam.getId(), List.of(testUser.getId()))).thenReturn(Set.of(testUser.getId()));
+        when(membershipRepository.countMembers(testTeam.getId())).thenReturn(1);
 
         // Act
-        userService.addUserToTeam(testUser, testTeam);
+        int memberCount = userService.addUserToTeam(testUser.getId(), testTeam.getId());
 
         // Assert
-        assertTrue(testUser.getTeams().contains(testTeam), "User's team set should contain the team.");
-        assertTrue(testTeam.getMembers().contains(testUser), "Team's member set should contain the user.");
-        verify(userRepository, times(1)).findById(testUser.getId()); 
-        verify(teamRepository, times(1)).findById(testTeam.getId()); 
-        verify(userRepository, times(1)).save(testUser);
+        assertEquals(1, memberCount);
+        verify(membershipRepository).incrementVersion(testTeam.getId());
+        verify(membershipIndex).addMember(testTeam.getId(), testUser.getId());
+        verify(eventPublisher).publishEvent(new TeamChangedEvent(TeamChangedEvent.ChangeType.MEMBERS_ADDED,
+                testTeam.getId(), Set.of(testUser.getId())));
     }
 
     @Test
-    public void testRemoveUserFromTeam() {
-        testUser.getTeams().add(testTeam);
-        testTeam.getMembers().add(testUser);
+    public void testAddUserToTeamTwiceKeepsVersion() {
+        when(userRepository.existsById(testUser.getId())).thenReturn(true);
+        when(membershipRepository.lockTeam(testTeam.getId())).thenReturn(true);
+        when(membershipRepository.addMembers(testTeam.getId(), List.of(testUser.getId()))).thenReturn(Set.of());
+        when(membershipRepository.countMembers(testTeam.getId())).thenReturn(1);
+
+        assertEquals(1, userService.addUserToTeam(testUser.getId(), testTeam.getId()));
+        verify(membershipRepository, never()).incrementVersion(any());
+        verifyNoInteractions(membershipIndex);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testAddUserToUnknownTeam() {
+        when(userRepository.existsById(testUser.getId())).thenReturn(true);
+        when(membershipRepository.lockTeam(99L)).thenReturn(false);
+
+        assertThrows(NoSuchElementException.class, () -> userService.addUserToTeam(testUser.getId(), 99L));
+        verify(membershipRepository, never()).addMembers(any(), any());
+    }
 
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+    @Test
+    public void testRemoveUserFromTeam() {
+        when(userRepository.existsById(testUser.getId())).thenReturn(true);
+        when(membershipRepository.lockTeam(testTeam.getId())).thenReturn(true);
+        when(membershipRepository.removeMembers(testTeam.getId(), List.of(testUser.getId()))).thenReturn(Set.of(testUser.getId()));
+        when(membershipRepository.countMembers(testTeam.getId())).thenReturn(0);
 
         // Act
-        userService.removeUserFromTeam(testUser, testTeam);
+        int memberCount = userService.removeUserFromTeam(testUser.getId(), testTeam.getId());
 
         // Assert
-        assertFalse(testUser.getTeams().contains(testTeam), "User's team set should not contain the team.");
-        assertFalse(testTeam.getMembers().contains(testUser), "Team's member set should not contain the user.");
-        verify(userRepository, times(1)).save(testUser);
+        assertEquals(0, memberCount);
+        verify(membershipRepository).incrementVersion(testTeam.getId());
+        verify(membershipIndex).removeMember(testTeam.getId(), testUser.getId());
+        verify(eventPublisher).publishEvent(new TeamChangedEvent(TeamChangedEvent.ChangeType.MEMBERS_REMOVED,
+                testTeam.getId(), Set.of(testUser.getId())));
     }
 
     @Test
     public void testRegisterUserValid() {
-        when(passwordEncoder.encode(testUser.getPassword())).thenReturn("hashedPassword123");
+        when(passwordHashing.encode(testUser.getPassword())).thenReturn("hashedPassword123");
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
             User userToSave = invocation.getArgument(0);
             userToSave.setPassword("hashedPassword123"); 
@@ -107,7 +151,7 @@ class UserServiceTest {
         assertEquals("USER", savedUser.getRole());
         assertEquals("hashedPassword123", savedUser.getPassword());
         verify(userRepository, times(1)).save(any(User.class));
-        verify(passwordEncoder, times(1)).encode("Password123!");
+        verify(passwordHashing, times(1)).encode("Password123!");
     }
 
     @Test
@@ -120,4 +164,37 @@ class UserServiceTest {
         assertEquals("Password must be between 10 and 12 characters long", thrown.getMessage());
         verify(userRepository, never()).save(any(User.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLoginUserRecordsLastLoginAndReturnsTheUser() {
+        testUser.setPassword("hashedPassword123");
+        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(passwordHashing.matches("Password123!", "hashedPassword123")).thenReturn(true);
+
+        Optional<User> loggedIn = userService.loginUser(testUser.getEmail(), "Password123!");
+
+        assertSame(testUser, loggedIn.orElseThrow());
+        verify(lastLoginBuffer).record(eq(testUser.getId()), any(LocalDateTime.class));
+        // The login itself writes nothing
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    public void testLoginUserWrongPassword() {
+        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(passwordHashing.matches("WrongPass123!", testUser.getPassword())).thenReturn(false);
+
+        assertTrue(userService.loginUser(testUser.getEmail(), "WrongPass123!").isEmpty());
+        verifyNoInteractions(lastLoginBuffer);
+    }
+
+    @Test
+    public void testAssignRoleRevokesTheUsersTokens() {
+        when(userRepository.save(testUser)).thenReturn(testUser);
+
+        User updated = userService.assignRole(testUser, "admin");
+
+        assertEquals("ADMIN", updated.getRole());
+        verify(sessionTokenService).revokeAll(testUser.getId());
+    }
+}
@@ -0,0 +1,154 @@
+package de.hsesslingen.focusflowbackend.sync;
+
+import de.hsesslingen.focusflowbackend.dto.TaskChangesDTO;
+import de.hsesslingen.focusflowbackend.dto.TaskViewDTO;
+import de.hsesslingen.focusflowbackend.event.TeamChangedEvent;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskScopeChange;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskStatus;
+import de.hsesslingen.focusflowbackend.model.tasks.TaskTombstone;
+import de.hsesslingen.focusflowbackend.repository.TaskRepository;
+import de.hsesslingen.focusflowbackend.repository.TaskScopeChangeRepository;
+import de.hsesslingen.focusflowbackend.repository.TaskTombstoneRepository;
+import de.hsesslingen.focusflowbackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSyncServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private TaskScopeChangeRepository scopeChangeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaskChangeSequence changeSequence;
+
+    @InjectMocks
+    private TaskSyncService taskSyncService;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(userRepository.existsById(1L)).thenReturn(true);
+        lenient().when(changeSequence.watermark()).thenReturn(100L);
+    }
+
+    private TaskViewDTO task(long id, long changeSeq) {
+        return new TaskViewDTO(id, "Task " + id, null, null, null, null, TaskStatus.OPEN, 1L, 1L, null, 1L, null, changeSeq, false);
+    }
+
+    private TaskTombstone tombstone(long taskId, long changeSeq) {
+        TaskTombstone tombstone = new TaskTombstone();
+        tombstone.setTaskId(taskId);
+        tombstone.setChangeSeq(changeSeq);
+        return tombstone;
+    }
+
+    @Test
+    public void testFullSyncReturnsScopeAndCursorBelowWatermark() {
+        when(taskRepository.findViewsForUserScope(1L)).thenReturn(List.of(task(5L, 10L)));
+
+        TaskChangesDTO changes = taskSyncService.getChanges(1L, null, null);
+
+        assertEquals(1, changes.getChanged().size());
+        assertEquals("99", changes.getNextCursor());
+        assertFalse(changes.isHasMore());
+        assertTrue(changes.isReset());
+    }
+
+    @Test
+    public void testDeltaMergesChangesAndDeletionsInOrder() {
+        when(taskRepository.findChangedViewsForUserScope(eq(1L), eq(40L), eq(Long.MAX_VALUE), eq(100L), any()))
+                .thenReturn(List.of(task(7L, 41L), task(8L, 45L)));
+        when(tombstoneRepository.findChangesForUser(eq(1L), eq(40L), eq(Long.MAX_VALUE), eq(100L), any()))
+                .thenReturn(List.of(tombstone(3L, 43L)));
+
+        TaskChangesDTO changes = taskSyncService.getChanges(1L, "40", null);
+
+        assertEquals(List.of(7L, 8L), changes.getChanged().stream().map(TaskViewDTO::getId).toList());
+        assertEquals(List.of(3L), changes.getDeleted());
+        assertFalse(changes.isHasMore());
+        assertFalse(changes.isReset());
+        // Nothing else below the watermark, so the cursor moves up to it
+        assertEquals("99", changes.getNextCursor());
+    }
+
+    @Test
+    public void testPageEndingInsideAGroupKeepsTheTaskId() {
+        // A bulk update gives all rows the same change number
+        when(taskRepository.findChangedViewsForUserScope(eq(1L), eq(50L), eq(Long.MAX_VALUE), eq(100L), any()))
+                .thenReturn(List.of(task(1L, 60L), task(2L, 60L), task(3L, 60L)));
+        when(tombstoneRepository.findChangesForUser(anyLong(), anyLong(), anyLong(), anyLong(), any())).thenReturn(List.of());
+
+        TaskChangesDTO changes = taskSyncService.getChanges(1L, "50", 2);
+
+        assertTrue(changes.isHasMore());
+        assertEquals("60.2", changes.getNextCursor());
+    }
+
+    @Test
+    public void testContinueInsideAGroup() {
+        when(taskRepository.findChangedViewsForUserScope(eq(1L), eq(60L), eq(2L), eq(100L), any()))
+                .thenReturn(List.of(task(3L, 60L)));
+        when(tombstoneRepository.findChangesForUser(anyLong(), anyLong(), anyLong(), anyLong(), any())).thenReturn(List.of());
+
+        TaskChangesDTO changes = taskSyncService.getChanges(1L, "60.2", 2);
+
+        assertEquals(1, changes.getChanged().size());
+        assertEquals("99", changes.getNextCursor());
+    }
+
+    @Test
+    public void testTeamJoinedAfterCursorReturnsFullScope() {
+        // Task 20 belongs to the new team and was last written long before the cursor
+        when(scopeChangeRepository.existsChangeForUser(1L, 40L, 100L)).thenReturn(true);
+        when(taskRepository.findViewsForUserScope(1L)).thenReturn(List.of(task(5L, 10L), task(20L, 12L)));
+
+        TaskChangesDTO changes = taskSyncService.getChanges(1L, "40", null);
+
+        assertTrue(changes.isReset());
+        assertEquals(List.of(5L, 20L), changes.getChanged().stream().map(TaskViewDTO::getId).toList());
+        assertEquals("99", changes.getNextCursor());
+        verify(taskRepository, never()).findChangedViewsForUserScope(anyLong(), anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void testMembershipChangesGetChangeNumbers() {
+        when(changeSequence.next()).thenReturn(77L);
+
+        taskSyncService.onTeamChanged(new TeamChangedEvent(TeamChangedEvent.ChangeType.MEMBERS_ADDED, 5L, Set.of(2L)));
+        taskSyncService.onTeamChanged(new TeamChangedEvent(TeamChangedEvent.ChangeType.UPDATED, 5L, Set.of()));
+
+        verify(scopeChangeRepository, times(1)).saveAll(argThat((List<TaskScopeChange> scopeChanges) ->
+                scopeChanges.size() == 1
+                        && scopeChanges.get(0).getChangeSeq() == 77L
+                        && scopeChanges.get(0).getUserId() == 2L
+                        && scopeChanges.get(0).getTeamId() == 5L));
+    }
+
+    @Test
+    public void testInvalidCursorAndUnknownUser() {
+        assertThrows(IllegalArgumentException.class, () -> taskSyncService.getChanges(1L, "abc", null));
+        when(userRepository.existsById(2L)).thenReturn(false);
+        assertThrows(NoSuchElementException.class, () -> taskSyncService.getChanges(2L, "1", null));
+    }
+}